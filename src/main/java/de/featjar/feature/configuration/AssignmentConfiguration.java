@@ -0,0 +1,360 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.configuration;
+
+import de.featjar.base.data.Result;
+import de.featjar.feature.model.IFeature;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A read-only view of a literal array as a configuration.
+ * Neither the literal array nor the variable map are copied, and no objects are stored per variable.
+ * The value of a variable is looked up in the literal array when it is requested.
+ * Each requested {@link Selection} is a new view of one variable, so {@link #getValue(int)} should be preferred
+ * for bulk lookups.
+ * All values are manual values.
+ * <p>
+ * Lookups take constant time if the literal array is a solution (i.e., the literal of each variable is stored
+ * at the index of the variable minus one, or zero if it is undefined),
+ * logarithmic time if the literals are sorted by variable,
+ * and linear time otherwise.
+ * The literal array must not be modified while it is viewed.
+ * All methods that modify this configuration throw an {@link UnsupportedOperationException}.
+ * Use {@link #clone()} to obtain a modifiable copy.
+ */
+public class AssignmentConfiguration extends Configuration {
+
+    private final int[] literals;
+    private final boolean isSolution;
+    private final boolean isSorted;
+
+    /**
+     * Creates a view of the given literals.
+     *
+     * @param literals the literals, which are not copied
+     * @param variableMap the variable map of the literals, which is shared with this configuration
+     */
+    public AssignmentConfiguration(int[] literals, VariableMap variableMap) {
+        super(Objects.requireNonNull(variableMap));
+        this.literals = Objects.requireNonNull(literals);
+        boolean isSolution = true;
+        boolean isSorted = true;
+        int lastIndex = 0;
+        for (int i = 0; i < literals.length; i++) {
+            int index = Math.abs(literals[i]);
+            if (index != 0 && index != i + 1) {
+                isSolution = false;
+            }
+            if (index <= lastIndex) {
+                isSorted = false;
+            }
+            lastIndex = index;
+        }
+        this.isSolution = isSolution;
+        this.isSorted = isSorted;
+    }
+
+    /**
+     * Creates a view of the literals of the given assignment.
+     *
+     * @param booleanAssignment the assignment, whose literals are not copied
+     * @param variableMap the variable map of the assignment, which is shared with this configuration
+     */
+    public AssignmentConfiguration(BooleanAssignment booleanAssignment, VariableMap variableMap) {
+        this(booleanAssignment.get(), variableMap);
+    }
+
+    /**
+     * {@return the literal of the variable with the given index, or zero if the variable is undefined}
+     *
+     * @param index the index of the variable
+     */
+    public int getLiteral(int index) {
+        if (index <= 0) {
+            return 0;
+        }
+        if (isSolution) {
+            return index <= literals.length ? literals[index - 1] : 0;
+        }
+        if (isSorted) {
+            int low = 0;
+            int high = literals.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int middleIndex = Math.abs(literals[middle]);
+                if (middleIndex < index) {
+                    low = middle + 1;
+                } else if (middleIndex > index) {
+                    high = middle - 1;
+                } else {
+                    return literals[middle];
+                }
+            }
+            return 0;
+        }
+        for (int literal : literals) {
+            if (Math.abs(literal) == index) {
+                return literal;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * {@return the value of the variable with the given index, or {@code null} if the variable is undefined}
+     *
+     * @param index the index of the variable
+     */
+    @Override
+    public Boolean getValue(int index) {
+        int literal = getLiteral(index);
+        return literal == 0 ? null : literal > 0;
+    }
+
+    @Override
+    public Class<?> getType(int index) {
+        return index > 0 && index <= variableMap.maxIndex() ? Boolean.class : null;
+    }
+
+    @Override
+    public Boolean getManual(int index) {
+        return getValue(index);
+    }
+
+    @Override
+    public Boolean getAutomatic(int index) {
+        return null;
+    }
+
+    @Override
+    public void setManual(int index, Object value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setAutomatic(int index, Object value) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * {@return the value of the variable with the given name, or {@code null} if the variable is undefined}
+     *
+     * @param name the name of the variable
+     */
+    public Boolean getValue(String name) {
+        return variableMap.get(name).map(this::getValue).orElse(null);
+    }
+
+    private Selection<?> getSelection(int index) {
+        return new LiteralSelection(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The list contains a view for each variable of the variable map, at the index of the variable.
+     */
+    @Override
+    public List<Selection<?>> getSelections() {
+        int size = variableMap.maxIndex() + 1;
+        return new AbstractList<Selection<?>>() {
+            @Override
+            public Selection<?> get(int index) {
+                Objects.checkIndex(index, size);
+                return index == 0 ? null : getSelection(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public List<Selection<?>> getManualFeatures() {
+        ArrayList<Selection<?>> selections = new ArrayList<>(literals.length);
+        int maxIndex = variableMap.maxIndex();
+        for (int literal : literals) {
+            int index = Math.abs(literal);
+            if (index != 0 && index <= maxIndex) {
+                selections.add(getSelection(index));
+            }
+        }
+        return selections;
+    }
+
+    @Override
+    public List<Selection<?>> getAutomaticFeatures() {
+        return List.of();
+    }
+
+    @Override
+    public Result<Selection<?>> getSelection(String name) {
+        return Result.ofNullable(name).flatMap(variableMap::get).map(this::getSelection);
+    }
+
+    @Override
+    public Result<Selection<?>> getSelection(IFeature feature) {
+        return Result.ofNullable(feature)
+                .flatMap(IFeature::getName)
+                .flatMap(variableMap::get)
+                .map(this::getSelection);
+    }
+
+    @Override
+    public int writeLiterals(ValueKind kind, VariableMap variableMap, int[] literals) {
+        if (kind == ValueKind.AUTOMATIC) {
+            return 0;
+        }
+        boolean isSameVariableMap = variableMap == this.variableMap;
+        int count = 0;
+        for (int literal : this.literals) {
+            if (literal != 0) {
+                int adaptedLiteral = isSameVariableMap ? literal : this.variableMap.adapt(literal, variableMap, true);
+                if (adaptedLiteral != 0) {
+                    literals[count++] = adaptedLiteral;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void adopt(BooleanAssignment assignment, VariableMap variableMap) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void adopt(BooleanAssignment assignment) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void adopt(Configuration configuration) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void adapt(VariableMap newVariableMap) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void makeManual() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void reset() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void resetAutomatic() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void resetAutomatic(Object selection) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * {@return a modifiable copy of this configuration}
+     * The copy has its own copy of the variable map of this configuration.
+     */
+    @Override
+    public BooleanConfiguration clone() {
+        return new BooleanConfiguration(new BooleanAssignment(literals), variableMap);
+    }
+
+    /**
+     * A read-only view of the value of one variable of an {@link AssignmentConfiguration}.
+     */
+    private final class LiteralSelection extends Selection<Boolean> {
+        private final int index;
+
+        private LiteralSelection(int index) {
+            super(Boolean.class);
+            this.index = index;
+        }
+
+        @Override
+        public Boolean getSelection() {
+            return getValue(index);
+        }
+
+        @Override
+        public Boolean getManual() {
+            return getValue(index);
+        }
+
+        @Override
+        public Boolean getAutomatic() {
+            return null;
+        }
+
+        @Override
+        public void setManual(Object selection) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setAutomatic(Object selection) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void makeManual() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void adopt(Selection<?> selection) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void reset() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void resetAutomatic() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * {@return an independent copy of this selection}
+         */
+        @Override
+        public Selection<Boolean> clone() {
+            Selection<Boolean> selection = new Selection<>(Boolean.class);
+            selection.setManual(getManual());
+            return selection;
+        }
+    }
+}
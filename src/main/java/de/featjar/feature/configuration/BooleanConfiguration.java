@@ -0,0 +1,450 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.configuration;
+
+import de.featjar.base.data.Result;
+import de.featjar.feature.model.IFeature;
+import de.featjar.feature.model.IFeatureModel;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A configuration in which all variables are Boolean.
+ * Instead of a {@link Selection} object per variable, the manual and automatic values are stored in bit sets,
+ * with one bit for selected and one bit for deselected per variable and kind of value.
+ * As for other configurations, clones copy the variable map.
+ * <p>
+ * Selections are returned as views that read and write the bit sets of this configuration.
+ * Cloning such a view creates an independent {@link Selection}.
+ */
+public class BooleanConfiguration extends Configuration {
+
+    private final BitSet manualSelected;
+    private final BitSet manualDeselected;
+    private final BitSet automaticSelected;
+    private final BitSet automaticDeselected;
+
+    /**
+     * Creates a configuration without any values for the variables of the given variable map.
+     *
+     * @param variableMap the variable map
+     */
+    public BooleanConfiguration(VariableMap variableMap) {
+        super(Objects.requireNonNull(variableMap));
+        int size = variableMap.maxIndex() + 1;
+        manualSelected = new BitSet(size);
+        manualDeselected = new BitSet(size);
+        automaticSelected = new BitSet(size);
+        automaticDeselected = new BitSet(size);
+    }
+
+    /**
+     * Creates a configuration without any values for the features of the given feature model.
+     *
+     * @param featureModel the feature model
+     * @throws IllegalSelectionTypeException if the feature model contains non-Boolean features
+     */
+    public BooleanConfiguration(IFeatureModel featureModel) {
+        this(createVariableMap(featureModel));
+    }
+
+    /**
+     * Creates a configuration with the given assignment as manual values.
+     *
+     * @param booleanAssignment the assignment
+     * @param variableMap the variable map of the assignment, which is copied
+     * @throws IndexOutOfBoundsException if the assignment contains a variable that is not in the variable map
+     */
+    public BooleanConfiguration(BooleanAssignment booleanAssignment, VariableMap variableMap) {
+        this(variableMap.clone());
+        adopt(booleanAssignment);
+    }
+
+    /**
+     * Copy constructor. Copies the values and the variable map of the given configuration.
+     *
+     * @param configuration the configuration to clone
+     */
+    protected BooleanConfiguration(BooleanConfiguration configuration) {
+        super(configuration.variableMap.clone());
+        manualSelected = (BitSet) configuration.manualSelected.clone();
+        manualDeselected = (BitSet) configuration.manualDeselected.clone();
+        automaticSelected = (BitSet) configuration.automaticSelected.clone();
+        automaticDeselected = (BitSet) configuration.automaticDeselected.clone();
+    }
+
+    private static VariableMap createVariableMap(IFeatureModel featureModel) {
+        VariableMap variableMap = new VariableMap();
+        for (final IFeature feature : featureModel.getFeatures()) {
+            if (feature.getType() != Boolean.class) {
+                throw new IllegalSelectionTypeException(feature.getType(), Boolean.class);
+            }
+            variableMap.add(feature.getName().get());
+        }
+        return variableMap;
+    }
+
+    private static void set(BitSet selected, BitSet deselected, int index, Boolean value) {
+        selected.set(index, Boolean.TRUE.equals(value));
+        deselected.set(index, Boolean.FALSE.equals(value));
+    }
+
+    private static Boolean get(BitSet selected, BitSet deselected, int index) {
+        return selected.get(index) ? Boolean.TRUE : deselected.get(index) ? Boolean.FALSE : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IndexOutOfBoundsException if the variable is not in the variable map
+     */
+    @Override
+    public void setManual(int index, Object value) {
+        checkIndex(index);
+        checkIfSelectionPossible(index, value, getAutomatic(index));
+        set(manualSelected, manualDeselected, index, (Boolean) value);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IndexOutOfBoundsException if the variable is not in the variable map
+     */
+    @Override
+    public void setAutomatic(int index, Object value) {
+        checkIndex(index);
+        checkIfSelectionPossible(index, value, getManual(index));
+        set(automaticSelected, automaticDeselected, index, (Boolean) value);
+    }
+
+    private void checkIfSelectionPossible(int index, Object value, Boolean current) {
+        if (value != null) {
+            if (!(value instanceof Boolean)) {
+                throw new IllegalSelectionTypeException(getSelection(index), value);
+            }
+            if (current != null && !current.equals(value)) {
+                throw new SelectionNotPossibleException(value);
+            }
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index <= 0 || index > variableMap.maxIndex()) {
+            throw new IndexOutOfBoundsException("No selection for variable " + index);
+        }
+    }
+
+    @Override
+    public Class<?> getType(int index) {
+        return index > 0 && index <= variableMap.maxIndex() ? Boolean.class : null;
+    }
+
+    @Override
+    public Boolean getValue(int index) {
+        Boolean automatic = getAutomatic(index);
+        return automatic == null ? getManual(index) : automatic;
+    }
+
+    @Override
+    public Boolean getManual(int index) {
+        return get(manualSelected, manualDeselected, index);
+    }
+
+    @Override
+    public Boolean getAutomatic(int index) {
+        return get(automaticSelected, automaticDeselected, index);
+    }
+
+    private Selection<?> getSelection(int index) {
+        return new BooleanSelection(index);
+    }
+
+    @Override
+    public void adopt(BooleanAssignment assignment, VariableMap variableMap) {
+        for (int literal : assignment.get()) {
+            if (literal != 0) {
+                int adaptedLiteral = variableMap.adapt(literal, this.variableMap, true);
+                if (adaptedLiteral != 0) {
+                    setManual(Math.abs(adaptedLiteral), adaptedLiteral > 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IndexOutOfBoundsException if the assignment contains a variable that is not in the variable map
+     */
+    @Override
+    public void adopt(BooleanAssignment assignment) {
+        int size = variableMap.maxIndex() + 1;
+        for (int literal : assignment.get()) {
+            if (literal != 0) {
+                setManual(Objects.checkIndex(Math.abs(literal), size), literal > 0);
+            }
+        }
+    }
+
+    @Override
+    public void adopt(Configuration configuration) {
+        List<Selection<?>> otherSelections = configuration.getSelections();
+        VariableMap otherVariableMap = configuration.getVariableMap();
+        for (int i = 0; i < otherSelections.size(); i++) {
+            Selection<?> otherSelection = otherSelections.get(i);
+            if (otherSelection != null) {
+                int adaptedIndex = otherVariableMap.adapt(i, variableMap, true);
+                if (adaptedIndex != 0) {
+                    getSelection(adaptedIndex).adopt(otherSelection);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void adapt(VariableMap newVariableMap) {
+        BitSet[] bitSets = {manualSelected, manualDeselected, automaticSelected, automaticDeselected};
+        for (BitSet bitSet : bitSets) {
+            BitSet adaptedBitSet = new BitSet(newVariableMap.maxIndex() + 1);
+            for (int i = bitSet.nextSetBit(0); i >= 0; i = bitSet.nextSetBit(i + 1)) {
+                int adaptedIndex = variableMap.adapt(i, newVariableMap, true);
+                if (adaptedIndex != 0) {
+                    adaptedBitSet.set(adaptedIndex);
+                }
+            }
+            bitSet.clear();
+            bitSet.or(adaptedBitSet);
+        }
+        variableMap = newVariableMap;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The list contains a view for each variable of the variable map, at the index of the variable.
+     */
+    @Override
+    public List<Selection<?>> getSelections() {
+        int size = variableMap.maxIndex() + 1;
+        return new AbstractList<Selection<?>>() {
+            @Override
+            public Selection<?> get(int index) {
+                Objects.checkIndex(index, size);
+                return index == 0 ? null : getSelection(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public List<Selection<?>> getManualFeatures() {
+        BitSet manualFeatures = getDefined(manualSelected, manualDeselected);
+        manualFeatures.andNot(getDefined(automaticSelected, automaticDeselected));
+        return getSelections(manualFeatures);
+    }
+
+    @Override
+    public List<Selection<?>> getAutomaticFeatures() {
+        return getSelections(getDefined(automaticSelected, automaticDeselected));
+    }
+
+    private static BitSet getDefined(BitSet selected, BitSet deselected) {
+        BitSet defined = (BitSet) selected.clone();
+        defined.or(deselected);
+        return defined;
+    }
+
+    private List<Selection<?>> getSelections(BitSet indices) {
+        ArrayList<Selection<?>> selections = new ArrayList<>(indices.cardinality());
+        for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
+            selections.add(getSelection(i));
+        }
+        return selections;
+    }
+
+    @Override
+    public Result<Selection<?>> getSelection(String name) {
+        return Result.ofNullable(name).flatMap(variableMap::get).map(this::getSelection);
+    }
+
+    @Override
+    public Result<Selection<?>> getSelection(IFeature feature) {
+        return Result.ofNullable(feature)
+                .flatMap(IFeature::getName)
+                .flatMap(variableMap::get)
+                .map(this::getSelection);
+    }
+
+    @Override
+    public int writeLiterals(ValueKind kind, VariableMap variableMap, int[] literals) {
+        boolean isSameVariableMap = variableMap == this.variableMap;
+        int count = 0;
+        for (int i = nextDefined(kind, 1); i >= 0; i = nextDefined(kind, i + 1)) {
+            Boolean value = kind == ValueKind.MANUAL
+                    ? getManual(i)
+                    : kind == ValueKind.AUTOMATIC ? getAutomatic(i) : getValue(i);
+            int index = isSameVariableMap ? i : this.variableMap.adapt(i, variableMap, true);
+            if (index != 0) {
+                literals[count++] = value ? index : -index;
+            }
+        }
+        return count;
+    }
+
+    private int nextDefined(ValueKind kind, int fromIndex) {
+        int next = -1;
+        if (kind != ValueKind.AUTOMATIC) {
+            next = min(next, manualSelected.nextSetBit(fromIndex));
+            next = min(next, manualDeselected.nextSetBit(fromIndex));
+        }
+        if (kind != ValueKind.MANUAL) {
+            next = min(next, automaticSelected.nextSetBit(fromIndex));
+            next = min(next, automaticDeselected.nextSetBit(fromIndex));
+        }
+        return next;
+    }
+
+    private static int min(int index, int otherIndex) {
+        return index < 0 ? otherIndex : otherIndex < 0 ? index : Math.min(index, otherIndex);
+    }
+
+    @Override
+    public void makeManual() {
+        BitSet automatic = getDefined(automaticSelected, automaticDeselected);
+        manualSelected.andNot(automatic);
+        manualSelected.or(automaticSelected);
+        manualDeselected.andNot(automatic);
+        manualDeselected.or(automaticDeselected);
+        resetAutomatic();
+    }
+
+    @Override
+    public void reset() {
+        manualSelected.clear();
+        manualDeselected.clear();
+        resetAutomatic();
+    }
+
+    @Override
+    public void resetAutomatic() {
+        automaticSelected.clear();
+        automaticDeselected.clear();
+    }
+
+    @Override
+    public void resetAutomatic(Object selection) {
+        if (Boolean.TRUE.equals(selection)) {
+            automaticSelected.clear();
+        } else if (Boolean.FALSE.equals(selection)) {
+            automaticDeselected.clear();
+        }
+    }
+
+    @Override
+    public BooleanConfiguration clone() {
+        return new BooleanConfiguration(this);
+    }
+
+    /**
+     * A view of the values of one variable of a {@link BooleanConfiguration}.
+     */
+    private final class BooleanSelection extends Selection<Boolean> {
+        private final int index;
+
+        private BooleanSelection(int index) {
+            super(Boolean.class);
+            this.index = index;
+        }
+
+        @Override
+        public Boolean getSelection() {
+            return getValue(index);
+        }
+
+        @Override
+        public Boolean getManual() {
+            return BooleanConfiguration.this.getManual(index);
+        }
+
+        @Override
+        public Boolean getAutomatic() {
+            return BooleanConfiguration.this.getAutomatic(index);
+        }
+
+        @Override
+        public void setManual(Object selection) {
+            BooleanConfiguration.this.setManual(index, selection);
+        }
+
+        @Override
+        public void setAutomatic(Object selection) {
+            BooleanConfiguration.this.setAutomatic(index, selection);
+        }
+
+        @Override
+        public void makeManual() {
+            Boolean automatic = getAutomatic();
+            if (automatic != null) {
+                set(manualSelected, manualDeselected, index, automatic);
+                resetAutomatic();
+            }
+        }
+
+        @Override
+        public void adopt(Selection<?> selection) {
+            if (selection.getType() != Boolean.class) {
+                throw new IllegalSelectionTypeException(selection.getType(), Boolean.class);
+            }
+            set(manualSelected, manualDeselected, index, (Boolean) selection.getManual());
+            set(automaticSelected, automaticDeselected, index, (Boolean) selection.getAutomatic());
+        }
+
+        @Override
+        public void reset() {
+            set(manualSelected, manualDeselected, index, null);
+            resetAutomatic();
+        }
+
+        @Override
+        public void resetAutomatic() {
+            set(automaticSelected, automaticDeselected, index, null);
+        }
+
+        /**
+         * {@return an independent copy of this selection}
+         */
+        @Override
+        public Selection<Boolean> clone() {
+            Selection<Boolean> selection = new Selection<>(Boolean.class);
+            selection.setManual(getManual());
+            selection.setAutomatic(getAutomatic());
+            return selection;
+        }
+    }
+}
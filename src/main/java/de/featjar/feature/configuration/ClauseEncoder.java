@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.configuration;
+
+import de.featjar.base.data.Range;
+import de.featjar.base.data.Result;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.structure.Expressions;
+import de.featjar.formula.structure.IExpression;
+import de.featjar.formula.structure.IFormula;
+import de.featjar.formula.structure.connective.ACardinalityConnective;
+import de.featjar.formula.structure.connective.And;
+import de.featjar.formula.structure.connective.BiImplies;
+import de.featjar.formula.structure.connective.Implies;
+import de.featjar.formula.structure.connective.Not;
+import de.featjar.formula.structure.connective.Or;
+import de.featjar.formula.structure.connective.Reference;
+import de.featjar.formula.structure.predicate.Literal;
+import de.featjar.formula.structure.term.value.Variable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Converts Boolean formulas into clauses by distribution.
+ * Each conjunct of the formula is converted separately.
+ * Conjuncts that contain non-Boolean elements or would result in too many clauses are skipped,
+ * which weakens, but never invalidates, reasoning on the resulting clauses.
+ */
+final class ClauseEncoder {
+
+    private static final List<int[]> TRUE = List.of();
+    private static final List<int[]> FALSE = List.of(new int[0]);
+
+    private static final class UnsupportedFormulaException extends RuntimeException {
+        private static final long serialVersionUID = -2717408313524470311L;
+    }
+
+    private final VariableMap variableMap;
+    private final int maximumClauseCount;
+
+    /**
+     * Creates an encoder.
+     *
+     * @param variableMap the variable map, to which missing variables are added
+     * @param maximumClauseCount the maximum number of clauses per conjunct
+     */
+    ClauseEncoder(VariableMap variableMap, int maximumClauseCount) {
+        this.variableMap = variableMap;
+        this.maximumClauseCount = maximumClauseCount;
+    }
+
+    /**
+     * Converts the given formula into clauses.
+     *
+     * @param formula the formula
+     * @param clauses the list to add the clauses to
+     * @param ignoredFormulas the list to add conjuncts to that could not be converted
+     */
+    void encode(IFormula formula, List<int[]> clauses, List<IFormula> ignoredFormulas) {
+        if (formula instanceof Reference || formula instanceof And) {
+            for (IExpression child : formula.getChildren()) {
+                encode((IFormula) child, clauses, ignoredFormulas);
+            }
+        } else {
+            try {
+                clauses.addAll(encode(formula, true));
+            } catch (UnsupportedFormulaException e) {
+                ignoredFormulas.add(formula);
+            }
+        }
+    }
+
+    private List<int[]> encode(IFormula formula, boolean positive) {
+        if (formula instanceof Literal) {
+            Literal literal = (Literal) formula;
+            IExpression variable = literal.getFirstChild().orElse(null);
+            if (!(variable instanceof Variable)) {
+                throw new UnsupportedFormulaException();
+            }
+            int index = getIndex(variable.getName());
+            return List.<int[]>of(new int[] {literal.isPositive() == positive ? index : -index});
+        } else if (formula instanceof Not) {
+            return encode(getChild(formula, 0), !positive);
+        } else if (formula instanceof Reference) {
+            return encode(getChild(formula, 0), positive);
+        } else if (formula instanceof And) {
+            return positive ? and(encodeChildren(formula, true)) : or(encodeChildren(formula, false));
+        } else if (formula instanceof Or) {
+            return positive ? or(encodeChildren(formula, true)) : and(encodeChildren(formula, false));
+        } else if (formula instanceof BiImplies) {
+            IFormula left = getChild(formula, 0);
+            IFormula right = getChild(formula, 1);
+            return and(List.of(
+                    or(List.of(encode(left, !positive), encode(right, true))),
+                    or(List.of(encode(left, positive), encode(right, false)))));
+        } else if (formula instanceof Implies) {
+            IFormula left = getChild(formula, 0);
+            IFormula right = getChild(formula, 1);
+            return positive
+                    ? or(List.of(encode(left, false), encode(right, true)))
+                    : and(List.of(encode(left, true), encode(right, false)));
+        } else if (formula instanceof ACardinalityConnective) {
+            Range range = ((ACardinalityConnective) formula).getRange();
+            int count = formula.getChildrenCount();
+            int lowerBound = range.getLowerBound();
+            int upperBound = range.getUpperBound() == Range.OPEN ? count : range.getUpperBound();
+            return positive
+                    ? and(List.of(atMost(formula, upperBound), atLeast(formula, lowerBound)))
+                    : or(List.of(atMost(formula, lowerBound - 1), atLeast(formula, upperBound + 1)));
+        } else if (Expressions.True.equals(formula)) {
+            return positive ? TRUE : FALSE;
+        } else if (Expressions.False.equals(formula)) {
+            return positive ? FALSE : TRUE;
+        } else {
+            throw new UnsupportedFormulaException();
+        }
+    }
+
+    private int getIndex(String name) {
+        Result<Integer> index = variableMap.get(name);
+        return index.isPresent() ? index.get() : variableMap.add(name);
+    }
+
+    private static IFormula getChild(IFormula formula, int index) {
+        return (IFormula) formula.getChildren().get(index);
+    }
+
+    private List<List<int[]>> encodeChildren(IFormula formula, boolean positive) {
+        List<List<int[]>> children = new ArrayList<>(formula.getChildrenCount());
+        for (IExpression child : formula.getChildren()) {
+            children.add(encode((IFormula) child, positive));
+        }
+        return children;
+    }
+
+    /**
+     * At most {@code k} children are true, if each subset of {@code k + 1} children contains a false child.
+     */
+    private List<int[]> atMost(IFormula formula, int k) {
+        int count = formula.getChildrenCount();
+        if (k >= count) {
+            return TRUE;
+        } else if (k < 0) {
+            return FALSE;
+        }
+        return forEachSubset(encodeChildren(formula, false), k + 1);
+    }
+
+    /**
+     * At least {@code k} children are true, if each subset of {@code n - k + 1} children contains a true child.
+     */
+    private List<int[]> atLeast(IFormula formula, int k) {
+        int count = formula.getChildrenCount();
+        if (k <= 0) {
+            return TRUE;
+        } else if (k > count) {
+            return FALSE;
+        }
+        return forEachSubset(encodeChildren(formula, true), count - k + 1);
+    }
+
+    private List<int[]> forEachSubset(List<List<int[]>> children, int subsetSize) {
+        List<List<int[]>> disjunctions = new ArrayList<>();
+        int[] subset = new int[subsetSize];
+        for (int i = 0; i < subsetSize; i++) {
+            subset[i] = i;
+        }
+        List<List<int[]>> elements = new ArrayList<>(subsetSize);
+        while (true) {
+            elements.clear();
+            for (int i : subset) {
+                elements.add(children.get(i));
+            }
+            disjunctions.add(or(elements));
+            if (disjunctions.size() > maximumClauseCount) {
+                throw new UnsupportedFormulaException();
+            }
+
+            int i = subsetSize - 1;
+            while (i >= 0 && subset[i] == children.size() - subsetSize + i) {
+                i--;
+            }
+            if (i < 0) {
+                return and(disjunctions);
+            }
+            subset[i]++;
+            for (int j = i + 1; j < subsetSize; j++) {
+                subset[j] = subset[j - 1] + 1;
+            }
+        }
+    }
+
+    private List<int[]> and(List<List<int[]>> conjuncts) {
+        List<int[]> clauses = new ArrayList<>();
+        for (List<int[]> conjunct : conjuncts) {
+            clauses.addAll(conjunct);
+            if (clauses.size() > maximumClauseCount) {
+                throw new UnsupportedFormulaException();
+            }
+        }
+        return clauses;
+    }
+
+    private List<int[]> or(List<List<int[]>> disjuncts) {
+        List<int[]> clauses = FALSE;
+        for (List<int[]> disjunct : disjuncts) {
+            if ((long) clauses.size() * disjunct.size() > maximumClauseCount) {
+                throw new UnsupportedFormulaException();
+            }
+            List<int[]> distributedClauses = new ArrayList<>(clauses.size() * disjunct.size());
+            for (int[] clause : clauses) {
+                for (int[] otherClause : disjunct) {
+                    int[] mergedClause = merge(clause, otherClause);
+                    if (mergedClause != null) {
+                        distributedClauses.add(mergedClause);
+                    }
+                }
+            }
+            clauses = distributedClauses;
+        }
+        return clauses;
+    }
+
+    /**
+     * {@return the disjunction of both clauses without duplicate literals, or {@code null} if it is a tautology}
+     */
+    private static int[] merge(int[] clause, int[] otherClause) {
+        int[] mergedClause = Arrays.copyOf(clause, clause.length + otherClause.length);
+        int length = clause.length;
+        outer:
+        for (int literal : otherClause) {
+            for (int i = 0; i < length; i++) {
+                if (mergedClause[i] == literal) {
+                    continue outer;
+                } else if (mergedClause[i] == -literal) {
+                    return null;
+                }
+            }
+            mergedClause[length++] = literal;
+        }
+        return length == mergedClause.length ? mergedClause : Arrays.copyOf(mergedClause, length);
+    }
+}
@@ -27,6 +27,7 @@ import de.featjar.feature.model.IFeatureModel;
 import de.featjar.formula.VariableMap;
 import de.featjar.formula.assignment.BooleanAssignment;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -64,6 +65,24 @@ public class Configuration implements Cloneable {
         }
     }
 
+    /**
+     * Which values of a {@link Selection} are exported by {@link Configuration#writeLiterals}.
+     */
+    public enum ValueKind {
+        /**
+         * The combined value, as returned by {@link Selection#getSelection()}.
+         */
+        SELECTION,
+        /**
+         * The manual value, as returned by {@link Selection#getManual()}.
+         */
+        MANUAL,
+        /**
+         * The automatic value, as returned by {@link Selection#getAutomatic()}.
+         */
+        AUTOMATIC
+    }
+
     /**
      * The value of a variable.
      * Has an automatic and manual value, which can be set independently.
@@ -209,7 +228,7 @@ public class Configuration implements Cloneable {
         }
     }
 
-    private VariableMap variableMap;
+    protected VariableMap variableMap;
     private ArrayList<Selection<?>> selections;
 
     /**
@@ -220,6 +239,17 @@ public class Configuration implements Cloneable {
         selections = new ArrayList<>();
     }
 
+    /**
+     * Creates a configuration with the given variable map, but without any selections.
+     * Intended for subclasses that store their selections differently.
+     *
+     * @param variableMap the variable map
+     */
+    protected Configuration(VariableMap variableMap) {
+        this.variableMap = variableMap;
+        selections = new ArrayList<>(0);
+    }
+
     /**
      * Creates a configuration with the same features as the given feature model.
      *
@@ -227,14 +257,11 @@ public class Configuration implements Cloneable {
      */
     public Configuration(IFeatureModel featureModel) {
         variableMap = new VariableMap();
-        selections = new ArrayList<>(featureModel.getNumberOfFeatures());
+        selections = new ArrayList<>(featureModel.getNumberOfFeatures() + 1);
         for (final IFeature child : featureModel.getFeatures()) {
             String featureName = child.getName().get();
             int index = variableMap.add(featureName);
-            for (int i = selections.size(); i <= index; i++) {
-                selections.add(null);
-            }
-            selections.add(index, new Selection<>(child.getType()));
+            setSelection(index, new Selection<>(child.getType()));
         }
     }
 
@@ -258,8 +285,8 @@ public class Configuration implements Cloneable {
      * @param variableMap mapping of variable names to indices. Is used to link a literal index in a {@link BooleanAssignment}.
      */
     public Configuration(BooleanAssignment booleanAssignment, VariableMap variableMap) {
-        variableMap = variableMap.clone();
-        selections = new ArrayList<>(variableMap.maxIndex());
+        this.variableMap = variableMap.clone();
+        selections = new ArrayList<>(variableMap.maxIndex() + 1);
         adopt(booleanAssignment, variableMap);
     }
 
@@ -274,16 +301,7 @@ public class Configuration implements Cloneable {
             if (literal != 0) {
                 int adapedLiteral = variableMap.adapt(literal, this.variableMap, true);
                 if (adapedLiteral != 0) {
-                    int index = Math.abs(adapedLiteral);
-                    for (int i = selections.size(); i <= index; i++) {
-                        selections.add(null);
-                    }
-                    Selection<?> selection = selections.get(index);
-                    if (selection == null) {
-                        selection = new Selection<>(Boolean.class);
-                        selections.add(index, selection);
-                    }
-                    selection.setManual(adapedLiteral > 0);
+                    getOrCreateBooleanSelection(Math.abs(adapedLiteral)).setManual(adapedLiteral > 0);
                 }
             }
         }
@@ -298,16 +316,7 @@ public class Configuration implements Cloneable {
     public void adopt(BooleanAssignment assignment) {
         for (int literal : assignment.get()) {
             if (literal != 0) {
-                int index = Math.abs(literal);
-                for (int i = selections.size(); i <= index; i++) {
-                    selections.add(null);
-                }
-                Selection<?> selection = selections.get(index);
-                if (selection == null) {
-                    selection = new Selection<>(Boolean.class);
-                    selections.add(index, selection);
-                }
-                selection.setManual(literal > 0);
+                getOrCreateBooleanSelection(Math.abs(literal)).setManual(literal > 0);
             }
         }
     }
@@ -319,19 +328,15 @@ public class Configuration implements Cloneable {
      * @param configuration the configuration to adopt
      */
     public void adopt(Configuration configuration) {
-        ListIterator<Selection<?>> it = configuration.selections.listIterator();
+        ListIterator<Selection<?>> it = configuration.getSelections().listIterator();
         while (it.hasNext()) {
             Selection<?> otherSelection = it.next();
             if (otherSelection != null) {
-                int adapedIndex = configuration.variableMap.adapt(it.previousIndex(), variableMap, true);
+                int adapedIndex = configuration.getVariableMap().adapt(it.previousIndex(), variableMap, true);
                 if (adapedIndex != 0) {
-                    for (int i = selections.size(); i <= adapedIndex; i++) {
-                        selections.add(null);
-                    }
-                    Selection<?> selection = selections.get(adapedIndex);
+                    Selection<?> selection = adapedIndex < selections.size() ? selections.get(adapedIndex) : null;
                     if (selection == null) {
-                        selection = otherSelection.clone();
-                        selections.add(adapedIndex, selection);
+                        setSelection(adapedIndex, otherSelection.clone());
                     } else {
                         selection.adopt(otherSelection);
                     }
@@ -353,30 +358,137 @@ public class Configuration implements Cloneable {
     }
 
     public void adapt(VariableMap newVariableMap) {
-        ArrayList<Selection<?>> newSelections = new ArrayList<>(selections.size());
-        ListIterator<Selection<?>> it = selections.listIterator();
+        ArrayList<Selection<?>> oldSelections = selections;
+        selections = new ArrayList<>(newVariableMap.maxIndex() + 1);
+        ListIterator<Selection<?>> it = oldSelections.listIterator();
         while (it.hasNext()) {
             Selection<?> otherSelection = it.next();
             if (otherSelection != null) {
                 int adapedIndex = variableMap.adapt(it.previousIndex(), newVariableMap, true);
                 if (adapedIndex != 0) {
-                    for (int i = selections.size(); i <= adapedIndex; i++) {
-                        newSelections.add(null);
-                    }
-                    newSelections.add(adapedIndex, otherSelection.clone());
+                    setSelection(adapedIndex, otherSelection);
                 }
             }
         }
-        selections.clear();
-        selections.addAll(newSelections);
-        newSelections.clear();
         this.variableMap = newVariableMap;
     }
 
+    /**
+     * Stores a selection at the given index, padding the selections with {@code null} if necessary.
+     * Replaces instead of inserting, so that the indices of the other selections do not change.
+     */
+    private void setSelection(int index, Selection<?> selection) {
+        for (int i = selections.size(); i <= index; i++) {
+            selections.add(null);
+        }
+        selections.set(index, selection);
+    }
+
+    private Selection<?> getOrCreateBooleanSelection(int index) {
+        Selection<?> selection = index < selections.size() ? selections.get(index) : null;
+        if (selection == null) {
+            selection = new Selection<>(Boolean.class);
+            setSelection(index, selection);
+        }
+        return selection;
+    }
+
     public List<Selection<?>> getSelections() {
         return Collections.unmodifiableList(selections);
     }
 
+    private Selection<?> getStoredSelection(int index) {
+        return index > 0 && index < selections.size() ? selections.get(index) : null;
+    }
+
+    /**
+     * Sets a value, creating a Boolean selection if the variable has none, as when adopting an assignment.
+     */
+    private void setValue(int index, Object value, boolean isManual) {
+        if (index <= 0) {
+            throw new IndexOutOfBoundsException("No selection for variable " + index);
+        }
+        Selection<?> selection = getStoredSelection(index);
+        if (selection == null) {
+            if (value == null) {
+                return;
+            }
+            selection = getOrCreateBooleanSelection(index);
+        }
+        if (isManual) {
+            selection.setManual(value);
+        } else {
+            selection.setAutomatic(value);
+        }
+    }
+
+    /**
+     * {@return the type of the variable with the given index, or {@code null} if it has no selection}
+     * Like the other index-based accessors, this does not create a {@link Selection}.
+     *
+     * @param index the index of the variable
+     */
+    public Class<?> getType(int index) {
+        Selection<?> selection = getStoredSelection(index);
+        return selection == null ? null : selection.getType();
+    }
+
+    /**
+     * {@return the combined automatic and manual value of the variable with the given index, or {@code null}}
+     *
+     * @param index the index of the variable
+     * @see Selection#getSelection()
+     */
+    public Object getValue(int index) {
+        Selection<?> selection = getStoredSelection(index);
+        return selection == null ? null : selection.getSelection();
+    }
+
+    /**
+     * {@return the manual value of the variable with the given index, or {@code null}}
+     *
+     * @param index the index of the variable
+     */
+    public Object getManual(int index) {
+        Selection<?> selection = getStoredSelection(index);
+        return selection == null ? null : selection.getManual();
+    }
+
+    /**
+     * {@return the automatic value of the variable with the given index, or {@code null}}
+     *
+     * @param index the index of the variable
+     */
+    public Object getAutomatic(int index) {
+        Selection<?> selection = getStoredSelection(index);
+        return selection == null ? null : selection.getAutomatic();
+    }
+
+    /**
+     * Sets the manual value of the variable with the given index.
+     * A variable without a selection gets a Boolean selection.
+     *
+     * @param index the index of the variable
+     * @param value the value
+     * @see Selection#setManual(Object)
+     */
+    public void setManual(int index, Object value) {
+        setValue(index, value, true);
+    }
+
+    /**
+     * Sets the automatic value of the variable with the given index.
+     * Setting {@code null} resets the automatic value.
+     * A variable without a selection gets a Boolean selection.
+     *
+     * @param index the index of the variable
+     * @param value the value
+     * @see Selection#setAutomatic(Object)
+     */
+    public void setAutomatic(int index, Object value) {
+        setValue(index, value, false);
+    }
+
     /**
      * {@return a list of all features that have a manual and no automatic value}
      */
@@ -412,6 +524,89 @@ public class Configuration implements Cloneable {
                 .map(selections::get);
     }
 
+    /**
+     * {@return the Boolean values of this configuration as an assignment for the variables of its variable map}
+     */
+    public BooleanAssignment toBooleanAssignment() {
+        return toBooleanAssignment(ValueKind.SELECTION, variableMap);
+    }
+
+    /**
+     * {@return the Boolean values of this configuration as an assignment for the variables of the given map}
+     * Variables that are not contained in the given variable map are omitted.
+     *
+     * @param variableMap the variable map of the assignment
+     */
+    public BooleanAssignment toBooleanAssignment(VariableMap variableMap) {
+        return toBooleanAssignment(ValueKind.SELECTION, variableMap);
+    }
+
+    /**
+     * {@return the manual Boolean values of this configuration as an assignment for the variables of the given map}
+     *
+     * @param variableMap the variable map of the assignment
+     */
+    public BooleanAssignment toManualBooleanAssignment(VariableMap variableMap) {
+        return toBooleanAssignment(ValueKind.MANUAL, variableMap);
+    }
+
+    /**
+     * {@return the automatic Boolean values of this configuration as an assignment for the variables of the given map}
+     *
+     * @param variableMap the variable map of the assignment
+     */
+    public BooleanAssignment toAutomaticBooleanAssignment(VariableMap variableMap) {
+        return toBooleanAssignment(ValueKind.AUTOMATIC, variableMap);
+    }
+
+    private BooleanAssignment toBooleanAssignment(ValueKind kind, VariableMap variableMap) {
+        // adopting an assignment can create selections beyond the variable map
+        int[] literals = new int[Math.max(this.variableMap.maxIndex(), selections.size() - 1)];
+        int count = writeLiterals(kind, variableMap, literals);
+        return new BooleanAssignment(count == literals.length ? literals : Arrays.copyOf(literals, count));
+    }
+
+    /**
+     * Writes the Boolean values of this configuration as literals into the given array.
+     * Does not allocate, so that the array can be reused in loops.
+     * Literals are written in the order of the variable map of this configuration.
+     * Non-Boolean values and variables that are not contained in the given variable map are omitted.
+     *
+     * @param kind which values to write
+     * @param variableMap the variable map of the literals
+     * @param literals the array to write into, which must have room for a literal for each variable of
+     *     the variable map of this configuration and each selection beyond it
+     * @return the number of written literals
+     */
+    public int writeLiterals(ValueKind kind, VariableMap variableMap, int[] literals) {
+        boolean isSameVariableMap = variableMap == this.variableMap;
+        int count = 0;
+        for (int i = 1; i < selections.size(); i++) {
+            Selection<?> selection = selections.get(i);
+            if (selection != null) {
+                Object value = getValue(selection, kind);
+                if (value instanceof Boolean) {
+                    int index = isSameVariableMap ? i : this.variableMap.adapt(i, variableMap, true);
+                    if (index != 0) {
+                        literals[count++] = (Boolean) value ? index : -index;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private static Object getValue(Selection<?> selection, ValueKind kind) {
+        switch (kind) {
+            case MANUAL:
+                return selection.getManual();
+            case AUTOMATIC:
+                return selection.getAutomatic();
+            default:
+                return selection.getSelection();
+        }
+    }
+
     /**
      * Turns all automatic into manual values.
      */
@@ -460,8 +655,27 @@ public class Configuration implements Cloneable {
         return new Configuration(this);
     }
 
+    /**
+     * {@return one line per variable in the format of FeatureIDE configuration files}
+     * Each line consists of a digit for the manual value, a digit for the automatic value, and the variable name,
+     * where 0 means deselected, 1 selected, 2 undefined, and 3 a non-Boolean value.
+     */
     @Override
     public String toString() {
-        return getSelectionStream().map(Selection::toString).collect(Collectors.joining("\n"));
+        StringBuilder builder = new StringBuilder();
+        for (String name : variableMap.getVariableNames()) {
+            int index = variableMap.get(name).get();
+            if (builder.length() > 0) {
+                builder.append('\n');
+            }
+            builder.append(getCode(getManual(index)))
+                    .append(getCode(getAutomatic(index)))
+                    .append(name);
+        }
+        return builder.toString();
+    }
+
+    private static char getCode(Object value) {
+        return value == null ? '2' : Boolean.TRUE.equals(value) ? '1' : Boolean.FALSE.equals(value) ? '0' : '3';
     }
 }
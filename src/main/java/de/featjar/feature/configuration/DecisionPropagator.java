@@ -0,0 +1,399 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.configuration;
+
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.structure.IFormula;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Computes the automatic values of a configuration from its manual values by unit propagation.
+ * The formula (e.g., from {@link de.featjar.feature.model.transformer.ComputeFormula}) is converted into clauses
+ * once, and each manual value is propagated incrementally using two watched literals per clause.
+ * All assignments are kept on a trail, such that decisions can be undone without recomputation.
+ * <p>
+ * Unit propagation is not complete, so some implied values may not be found and some contradicting decisions may
+ * only be detected later.
+ * Parts of the formula that cannot be converted into clauses (e.g., constraints on non-Boolean features) are
+ * ignored and available from {@link #getIgnoredFormulas()}.
+ * <p>
+ * The configuration must not be changed other than through this propagator while it is in use.
+ * Manual values that already exist are applied as decisions when the propagator is created,
+ * and those that contradict previous decisions are reset.
+ */
+public class DecisionPropagator {
+
+    /**
+     * The maximum number of clauses that a single conjunct of the formula may be converted into.
+     */
+    public static final int MAXIMUM_CLAUSE_COUNT = 1 << 20;
+
+    private static final byte UNDEFINED = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = -1;
+
+    private final Configuration configuration;
+    private final VariableMap variableMap;
+    private final int configurationVariableCount;
+    private final List<IFormula> ignoredFormulas = new ArrayList<>();
+
+    private final int[][] clauses;
+    private final int[][] watches;
+    private final int[] watchCounts;
+
+    private final byte[] values;
+    private final int[] trail;
+    private int trailSize;
+    private int propagationIndex;
+
+    private final int[] levelStarts;
+    private final int[] decisions;
+    private final int[] decisionLevels;
+    private int decisionLevel;
+    private boolean isConsistent = true;
+
+    /**
+     * Creates a propagator for the given formula and configuration.
+     * Resets all automatic values of the configuration and computes them from its manual values.
+     *
+     * @param formula the formula
+     * @param configuration the configuration
+     */
+    public DecisionPropagator(IFormula formula, Configuration configuration) {
+        this.configuration = configuration;
+        configurationVariableCount = configuration.getVariableMap().maxIndex();
+        variableMap = configuration.getVariableMap().clone();
+
+        List<int[]> clauseList = new ArrayList<>();
+        new ClauseEncoder(variableMap, MAXIMUM_CLAUSE_COUNT).encode(formula, clauseList, ignoredFormulas);
+
+        int variableCount = variableMap.maxIndex();
+        values = new byte[variableCount + 1];
+        trail = new int[variableCount];
+        levelStarts = new int[variableCount + 1];
+        decisions = new int[variableCount + 1];
+        decisionLevels = new int[variableCount + 1];
+        watches = new int[2 * variableCount + 2][];
+        watchCounts = new int[2 * variableCount + 2];
+
+        clauses = clauseList.toArray(new int[0][]);
+        for (int i = 0; i < clauses.length; i++) {
+            int[] clause = clauses[i];
+            if (clause.length == 0) {
+                isConsistent = false;
+            } else if (clause.length == 1) {
+                if (getValue(clause[0]) == FALSE) {
+                    isConsistent = false;
+                } else if (getValue(clause[0]) == UNDEFINED) {
+                    assign(clause[0]);
+                }
+            } else {
+                addWatch(clause[0], i);
+                addWatch(clause[1], i);
+            }
+        }
+        if (isConsistent) {
+            isConsistent = propagate();
+        }
+
+        configuration.resetAutomatic();
+        if (isConsistent) {
+            updateAutomatic(0, true);
+            for (int i = 1; i <= configurationVariableCount; i++) {
+                if (isBoolean(i)) {
+                    Object manual = configuration.getManual(i);
+                    if (manual != null && !decide(i, (Boolean) manual)) {
+                        configuration.setManual(i, null);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * {@return the configuration of this propagator}
+     */
+    public Configuration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * {@return the parts of the formula that were ignored, because they could not be converted into clauses}
+     */
+    public List<IFormula> getIgnoredFormulas() {
+        return Collections.unmodifiableList(ignoredFormulas);
+    }
+
+    /**
+     * {@return whether unit propagation found the formula to be satisfiable without any decisions}
+     * If not, no decisions are possible.
+     */
+    public boolean isConsistent() {
+        return isConsistent;
+    }
+
+    /**
+     * {@return the number of decisions that can be undone}
+     */
+    public int getDecisionCount() {
+        return decisionLevel;
+    }
+
+    /**
+     * Sets the manual value of a variable and updates all automatic values.
+     * Setting the value {@code null} retracts a previous decision for the variable;
+     * later decisions are then applied again, and those that are no longer possible are reset.
+     *
+     * @param name the name of the variable
+     * @param value the manual value
+     * @return whether the decision is possible, otherwise the configuration is unchanged
+     */
+    public boolean decide(String name, Boolean value) {
+        return decide(configuration.getVariableMap().get(name).orElseThrow(), value);
+    }
+
+    /**
+     * Sets the manual value of a variable and updates all automatic values.
+     *
+     * @param index the index of the variable in the variable map of the configuration
+     * @param value the manual value
+     * @return whether the decision is possible, otherwise the configuration is unchanged
+     * @see #decide(String, Boolean)
+     */
+    public boolean decide(int index, Boolean value) {
+        if (index <= 0 || index > configurationVariableCount) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for variable map");
+        }
+        if (value == null) {
+            retract(index);
+            return true;
+        }
+        if (!isConsistent) {
+            return false;
+        }
+        int literal = value ? index : -index;
+        if (decisionLevels[index] != 0) {
+            if (getValue(literal) == TRUE) {
+                return true;
+            }
+            // replace the previous decision for this variable
+            int[] laterDecisions = popDecisionsFrom(decisionLevels[index]);
+            if (!decide(literal)) {
+                replay(new int[] {-literal});
+                replay(laterDecisions);
+                return false;
+            }
+            replay(laterDecisions);
+            return true;
+        }
+        return decide(literal);
+    }
+
+    /**
+     * Undoes the most recent decision, resetting its manual value and all values it implied.
+     *
+     * @return whether there was a decision to undo
+     */
+    public boolean undo() {
+        if (decisionLevel == 0) {
+            return false;
+        }
+        backtrack(decisionLevel - 1);
+        return true;
+    }
+
+    private boolean decide(int literal) {
+        if (getValue(literal) == FALSE) {
+            return false;
+        }
+        int index = Math.abs(literal);
+        levelStarts[++decisionLevel] = trailSize;
+        decisions[decisionLevel] = literal;
+        decisionLevels[index] = decisionLevel;
+        if (getValue(literal) == UNDEFINED) {
+            assign(literal);
+            if (!propagate()) {
+                backtrack(decisionLevel - 1);
+                return false;
+            }
+        }
+        if (isBoolean(index)) {
+            configuration.setManual(index, literal > 0);
+        }
+        updateAutomatic(decisionLevel, false);
+        return true;
+    }
+
+    private void retract(int index) {
+        int level = decisionLevels[index];
+        if (level != 0) {
+            int[] laterDecisions = popDecisionsFrom(level);
+            replay(laterDecisions);
+        }
+    }
+
+    /**
+     * Undoes all decisions from the given level on and returns the decisions after this level.
+     */
+    private int[] popDecisionsFrom(int level) {
+        int[] laterDecisions = Arrays.copyOfRange(decisions, level + 1, decisionLevel + 1);
+        backtrack(level - 1);
+        return laterDecisions;
+    }
+
+    private void replay(int[] decisionLiterals) {
+        for (int literal : decisionLiterals) {
+            decide(literal);
+        }
+    }
+
+    private void backtrack(int level) {
+        for (int i = trailSize - 1; i >= levelStarts[level + 1]; i--) {
+            int index = Math.abs(trail[i]);
+            values[index] = UNDEFINED;
+            if (isBoolean(index)) {
+                configuration.setAutomatic(index, null);
+            }
+        }
+        for (int l = decisionLevel; l > level; l--) {
+            int index = Math.abs(decisions[l]);
+            decisionLevels[index] = 0;
+            if (isBoolean(index)) {
+                configuration.setManual(index, null);
+            }
+        }
+        trailSize = levelStarts[level + 1];
+        propagationIndex = trailSize;
+        decisionLevel = level;
+    }
+
+    /**
+     * Sets the automatic values for all assignments of the given level, except for the decision itself.
+     */
+    private void updateAutomatic(int level, boolean includeFirst) {
+        for (int i = includeFirst ? levelStarts[level] : levelStarts[level] + 1; i < trailSize; i++) {
+            int literal = trail[i];
+            int index = Math.abs(literal);
+            if (isBoolean(index)) {
+                Boolean value = literal > 0;
+                Object manual = configuration.getManual(index);
+                if (manual == null || manual.equals(value)) {
+                    configuration.setAutomatic(index, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@return whether the variable with the given index is a Boolean variable of the configuration}
+     * Auxiliary variables introduced by the clause encoding are not part of the configuration.
+     */
+    private boolean isBoolean(int index) {
+        return index <= configurationVariableCount && configuration.getType(index) == Boolean.class;
+    }
+
+    private byte getValue(int literal) {
+        byte value = values[Math.abs(literal)];
+        return literal > 0 ? value : (byte) -value;
+    }
+
+    private void assign(int literal) {
+        values[Math.abs(literal)] = literal > 0 ? TRUE : FALSE;
+        trail[trailSize++] = literal;
+    }
+
+    private static int getWatchIndex(int literal) {
+        return literal > 0 ? 2 * literal : -2 * literal + 1;
+    }
+
+    private void addWatch(int literal, int clauseIndex) {
+        int watchIndex = getWatchIndex(literal);
+        int[] watchList = watches[watchIndex];
+        if (watchList == null) {
+            watchList = watches[watchIndex] = new int[4];
+        } else if (watchCounts[watchIndex] == watchList.length) {
+            watchList = watches[watchIndex] = Arrays.copyOf(watchList, 2 * watchList.length);
+        }
+        watchList[watchCounts[watchIndex]++] = clauseIndex;
+    }
+
+    /**
+     * Propagates all assignments on the trail that were not propagated yet.
+     * For each clause, the first two literals are watched.
+     * When a watched literal becomes false, another non-false literal is watched instead,
+     * or, if there is none, the other watched literal is implied.
+     *
+     * @return {@code false} if a clause became false, {@code true} otherwise
+     */
+    private boolean propagate() {
+        while (propagationIndex < trailSize) {
+            int falseLiteral = -trail[propagationIndex++];
+            int watchIndex = getWatchIndex(falseLiteral);
+            int[] watchList = watches[watchIndex];
+            if (watchList == null) {
+                continue;
+            }
+            int watchCount = watchCounts[watchIndex];
+            int keptCount = 0;
+            for (int w = 0; w < watchCount; w++) {
+                int clauseIndex = watchList[w];
+                int[] clause = clauses[clauseIndex];
+                if (clause[0] == falseLiteral) {
+                    clause[0] = clause[1];
+                    clause[1] = falseLiteral;
+                }
+                int otherLiteral = clause[0];
+                if (getValue(otherLiteral) == TRUE) {
+                    watchList[keptCount++] = clauseIndex;
+                    continue;
+                }
+                boolean isMoved = false;
+                for (int k = 2; k < clause.length; k++) {
+                    if (getValue(clause[k]) != FALSE) {
+                        clause[1] = clause[k];
+                        clause[k] = falseLiteral;
+                        addWatch(clause[1], clauseIndex);
+                        isMoved = true;
+                        break;
+                    }
+                }
+                if (isMoved) {
+                    continue;
+                }
+                watchList[keptCount++] = clauseIndex;
+                if (getValue(otherLiteral) == FALSE) {
+                    while (++w < watchCount) {
+                        watchList[keptCount++] = watchList[w];
+                    }
+                    watchCounts[watchIndex] = keptCount;
+                    propagationIndex = trailSize;
+                    return false;
+                }
+                assign(otherLiteral);
+            }
+            watchCounts[watchIndex] = keptCount;
+        }
+        return true;
+    }
+}
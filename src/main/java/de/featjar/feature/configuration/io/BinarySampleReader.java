@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.configuration.io;
+
+import static de.featjar.feature.configuration.io.BinarySampleStore.COMPRESSION_DEFLATE;
+import static de.featjar.feature.configuration.io.BinarySampleStore.COMPRESSION_NONE;
+import static de.featjar.feature.configuration.io.BinarySampleStore.MAGIC;
+import static de.featjar.feature.configuration.io.BinarySampleStore.VERSION;
+
+import de.featjar.base.data.Problem;
+import de.featjar.base.data.Result;
+import de.featjar.base.io.format.ParseException;
+import de.featjar.feature.configuration.BooleanConfiguration;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Provides random access to the configurations of a file in the binary format of {@link BinarySampleStore}.
+ * Uncompressed blocks are mapped into memory when they are first accessed.
+ * Compressed blocks are decompressed on access, and only the most recently accessed one is kept.
+ * Reading is thread-safe.
+ */
+public class BinarySampleReader implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final VariableMap variableMap;
+    private final int size;
+    private final int blockSize;
+    private final int rowWords;
+    private final int rowBytes;
+    private final boolean compressed;
+    private final long[] blockOffsets;
+    private final int[] blockLengths;
+
+    private final ByteBuffer[] mappedBlocks;
+    private int inflatedBlockIndex = -1;
+    private ByteBuffer inflatedBlock;
+
+    /**
+     * Opens the given file.
+     * The returned reader must be closed.
+     *
+     * @param path the path of the file
+     * @return the reader
+     */
+    public static Result<BinarySampleReader> open(Path path) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            return Result.of(new BinarySampleReader(channel));
+        } catch (Exception e) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException closeException) {
+                    e.addSuppressed(closeException);
+                }
+            }
+            return Result.empty(new Problem(e));
+        }
+    }
+
+    private BinarySampleReader(FileChannel channel) throws IOException, ParseException {
+        this.channel = channel;
+        // the header is read through a buffered stream, so that only the blocks are mapped into memory
+        DataInputStream header =
+                new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(0))));
+        try {
+            byte[] magic = new byte[MAGIC.length()];
+            header.readFully(magic);
+            if (!MAGIC.equals(new String(magic, StandardCharsets.US_ASCII))) {
+                throw new ParseException("Not a binary sample!");
+            }
+            int version = header.readInt();
+            if (version != VERSION) {
+                throw new ParseException("Unsupported version " + version);
+            }
+
+            variableMap = new VariableMap();
+            int variableCount = header.readInt();
+            byte[] bytes = new byte[64];
+            for (int i = 0; i < variableCount; i++) {
+                int length = header.readInt();
+                if (bytes.length < length) {
+                    bytes = new byte[Math.max(length, 2 * bytes.length)];
+                }
+                header.readFully(bytes, 0, length);
+                variableMap.add(new String(bytes, 0, length, StandardCharsets.UTF_8));
+            }
+
+            size = header.readInt();
+            blockSize = header.readInt();
+            rowWords = header.readInt();
+            rowBytes = 2 * rowWords * Long.BYTES;
+            if (size < 0 || blockSize < 1 || rowWords != (variableCount >> 6) + 1) {
+                throw new ParseException("Invalid sample layout");
+            }
+            byte compression = header.readByte();
+            if (compression != COMPRESSION_NONE && compression != COMPRESSION_DEFLATE) {
+                throw new ParseException("Unsupported compression " + compression);
+            }
+            compressed = compression == COMPRESSION_DEFLATE;
+
+            int blockCount = header.readInt();
+            if (blockCount != (size + blockSize - 1) / blockSize) {
+                throw new ParseException("Unexpected number of blocks");
+            }
+            blockOffsets = new long[blockCount];
+            blockLengths = new int[blockCount];
+            for (int b = 0; b < blockCount; b++) {
+                blockOffsets[b] = header.readLong();
+                blockLengths[b] = header.readInt();
+            }
+        } catch (EOFException e) {
+            throw new ParseException("Truncated header");
+        }
+        mappedBlocks = compressed ? null : new ByteBuffer[blockOffsets.length];
+    }
+
+    /**
+     * {@return the variable map shared by all configurations in this file}
+     */
+    public VariableMap getVariableMap() {
+        return variableMap;
+    }
+
+    /**
+     * {@return the number of configurations in this file}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@return the value of a variable in a configuration, or {@code null} if the variable is undefined}
+     *
+     * @param configurationIndex the index of the configuration
+     * @param variableIndex the index of the variable in {@link #getVariableMap()}
+     */
+    public Boolean getValue(int configurationIndex, int variableIndex) {
+        Objects.checkIndex(variableIndex, variableMap.maxIndex() + 1);
+        ByteBuffer block = getBlock(configurationIndex);
+        int rowOffset = getRowOffset(configurationIndex);
+        int wordOffset = (variableIndex >> 6) * Long.BYTES;
+        long mask = 1L << variableIndex;
+        if ((block.getLong(rowOffset + wordOffset) & mask) != 0) {
+            return Boolean.TRUE;
+        } else if ((block.getLong(rowOffset + rowWords * Long.BYTES + wordOffset) & mask) != 0) {
+            return Boolean.FALSE;
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * {@return the configuration at the given index as an assignment for the variables of {@link #getVariableMap()}}
+     *
+     * @param index the index of the configuration
+     */
+    public BooleanAssignment getAssignment(int index) {
+        ByteBuffer block = getBlock(index);
+        int rowOffset = getRowOffset(index);
+        int[] literals = new int[variableMap.maxIndex()];
+        int literalCount = 0;
+        for (int w = 0; w < rowWords; w++) {
+            long selected = block.getLong(rowOffset + w * Long.BYTES);
+            long deselected = block.getLong(rowOffset + (rowWords + w) * Long.BYTES);
+            long defined = (selected | deselected) & (w == 0 ? ~1L : -1L);
+            while (defined != 0) {
+                int bit = Long.numberOfTrailingZeros(defined);
+                int variable = (w << 6) + bit;
+                literals[literalCount++] = (selected & (1L << bit)) != 0 ? variable : -variable;
+                defined &= defined - 1;
+            }
+        }
+        return new BooleanAssignment(Arrays.copyOf(literals, literalCount));
+    }
+
+    /**
+     * {@return the configuration at the given index}
+     * The configuration has its own copy of the variable map of this reader.
+     *
+     * @param index the index of the configuration
+     */
+    public BooleanConfiguration getConfiguration(int index) {
+        return new BooleanConfiguration(getAssignment(index), variableMap);
+    }
+
+    private int getRowOffset(int index) {
+        return (index % blockSize) * rowBytes;
+    }
+
+    private synchronized ByteBuffer getBlock(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        int blockIndex = index / blockSize;
+        int rowCount = Math.min(blockSize, size - blockIndex * blockSize);
+        try {
+            if (compressed) {
+                if (inflatedBlockIndex != blockIndex) {
+                    inflatedBlock = inflate(blockIndex, rowCount * rowBytes);
+                    inflatedBlockIndex = blockIndex;
+                }
+                return inflatedBlock;
+            } else {
+                ByteBuffer block = mappedBlocks[blockIndex];
+                if (block == null) {
+                    block = channel.map(
+                            FileChannel.MapMode.READ_ONLY, blockOffsets[blockIndex], blockLengths[blockIndex]);
+                    mappedBlocks[blockIndex] = block;
+                }
+                return block;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ByteBuffer inflate(int blockIndex, int length) throws IOException {
+        ByteBuffer source =
+                channel.map(FileChannel.MapMode.READ_ONLY, blockOffsets[blockIndex], blockLengths[blockIndex]);
+        byte[] compressedBytes = new byte[source.remaining()];
+        source.get(compressedBytes);
+        byte[] bytes = new byte[length];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressedBytes);
+            int inflatedLength = 0;
+            while (inflatedLength < length && !inflater.finished()) {
+                int count = inflater.inflate(bytes, inflatedLength, length - inflatedLength);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflatedLength += count;
+            }
+            if (inflatedLength != length) {
+                throw new IOException("Truncated block " + blockIndex);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        } finally {
+            inflater.end();
+        }
+        return ByteBuffer.wrap(bytes);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.configuration.io;
+
+import de.featjar.base.data.Result;
+import de.featjar.feature.configuration.Configuration;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes and reads large samples of Boolean configurations in a compact, versioned binary format.
+ * <p>
+ * A file starts with a header containing the names of all variables, which is shared by all configurations.
+ * Each configuration is stored as a row of two bit sets (selected and deselected variables),
+ * and rows are grouped into blocks of a fixed number of configurations.
+ * Blocks can optionally be compressed individually.
+ * Files are read through {@link BinarySampleReader}, which maps blocks into memory on demand,
+ * such that the i-th configuration can be accessed without decoding the other blocks.
+ * Thus, samples are written to and read from files directly instead of being parsed from an input
+ * like the {@link de.featjar.base.io.format.IFormat formats} of FeatJAR.
+ */
+public class BinarySampleStore {
+
+    static final String MAGIC = "FJCS";
+    static final int VERSION = 1;
+
+    static final byte COMPRESSION_NONE = 0;
+    static final byte COMPRESSION_DEFLATE = 1;
+
+    static final int BLOCK_ENTRY_BYTES = Long.BYTES + Integer.BYTES;
+
+    /**
+     * The default number of configurations per block.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    private final int blockSize;
+    private final boolean compress;
+
+    /**
+     * Creates a store that writes uncompressed blocks of {@link #DEFAULT_BLOCK_SIZE} configurations.
+     */
+    public BinarySampleStore() {
+        this(DEFAULT_BLOCK_SIZE, false);
+    }
+
+    /**
+     * Creates a store with the given block layout.
+     *
+     * @param blockSize the number of configurations per block
+     * @param compress whether blocks are compressed
+     */
+    public BinarySampleStore(int blockSize, boolean compress) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.blockSize = blockSize;
+        this.compress = compress;
+    }
+
+    public String getName() {
+        return "FeatJAR Binary Sample";
+    }
+
+    public String getFileExtension() {
+        return "fjcs";
+    }
+
+    /**
+     * Writes the given assignments to a file.
+     *
+     * @param assignments the assignments
+     * @param variableMap the variable map of the assignments
+     * @param path the path of the file
+     * @throws IOException if the file cannot be written
+     */
+    public void writeAssignments(List<? extends BooleanAssignment> assignments, VariableMap variableMap, Path path)
+            throws IOException {
+        new BinarySampleWriter(variableMap, blockSize, compress).writeAssignments(assignments, path);
+    }
+
+    /**
+     * Writes the selections of the given configurations to a file.
+     * Configurations with another variable map than the given one are adapted to it.
+     *
+     * @param configurations the configurations
+     * @param variableMap the variable map to write
+     * @param path the path of the file
+     * @throws IOException if the file cannot be written
+     */
+    public void writeConfigurations(
+            List<? extends Configuration> configurations, VariableMap variableMap, Path path) throws IOException {
+        new BinarySampleWriter(variableMap, blockSize, compress).writeConfigurations(configurations, path);
+    }
+
+    /**
+     * Opens a file for random access to its configurations.
+     * The returned reader must be closed.
+     *
+     * @param path the path of the file
+     * @return the reader
+     */
+    public Result<BinarySampleReader> open(Path path) {
+        return BinarySampleReader.open(path);
+    }
+}
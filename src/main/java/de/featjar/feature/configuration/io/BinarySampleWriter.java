@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.configuration.io;
+
+import static de.featjar.feature.configuration.io.BinarySampleStore.BLOCK_ENTRY_BYTES;
+import static de.featjar.feature.configuration.io.BinarySampleStore.COMPRESSION_DEFLATE;
+import static de.featjar.feature.configuration.io.BinarySampleStore.COMPRESSION_NONE;
+import static de.featjar.feature.configuration.io.BinarySampleStore.MAGIC;
+import static de.featjar.feature.configuration.io.BinarySampleStore.VERSION;
+
+import de.featjar.feature.configuration.Configuration;
+import de.featjar.feature.configuration.Configuration.Selection;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Writes samples in the binary format of {@link BinarySampleStore}.
+ * Variables are stored in the order of {@link VariableMap#getVariableNames()},
+ * such that the i-th name corresponds to column i + 1.
+ */
+public class BinarySampleWriter {
+
+    private final VariableMap variableMap;
+    private final List<String> names;
+    private final int[] columns;
+    private final int rowWords;
+    private final int rowBytes;
+    private final int blockSize;
+    private final boolean compress;
+
+    private final long[] selected;
+    private final long[] deselected;
+
+    public BinarySampleWriter(VariableMap variableMap, int blockSize, boolean compress) {
+        this.variableMap = variableMap;
+        this.compress = compress;
+        names = variableMap.getVariableNames();
+        columns = new int[variableMap.maxIndex() + 1];
+        for (int i = 0; i < names.size(); i++) {
+            columns[variableMap.get(names.get(i)).get()] = i + 1;
+        }
+        rowWords = (names.size() >> 6) + 1;
+        rowBytes = 2 * rowWords * Long.BYTES;
+        // a block is mapped as a whole, so it must not exceed the size of a byte buffer
+        this.blockSize = Math.max(1, Math.min(blockSize, Integer.MAX_VALUE / rowBytes));
+        selected = new long[rowWords];
+        deselected = new long[rowWords];
+    }
+
+    /**
+     * Writes the given assignments to a file.
+     *
+     * @param assignments the assignments, whose literals refer to the variable map of this writer
+     * @param path the path of the file
+     * @throws IOException if the file cannot be written
+     */
+    public void writeAssignments(List<? extends BooleanAssignment> assignments, Path path) throws IOException {
+        write(assignments.size(), path, i -> {
+            for (int literal : assignments.get(i).get()) {
+                if (literal > 0) {
+                    setBit(selected, columns[literal]);
+                } else if (literal < 0) {
+                    setBit(deselected, columns[-literal]);
+                }
+            }
+        });
+    }
+
+    /**
+     * Writes the selections of the given configurations to a file.
+     *
+     * @param configurations the configurations
+     * @param path the path of the file
+     * @throws IOException if the file cannot be written
+     */
+    public void writeConfigurations(List<? extends Configuration> configurations, Path path) throws IOException {
+        write(configurations.size(), path, i -> {
+            Configuration configuration = configurations.get(i);
+            VariableMap configurationVariableMap = configuration.getVariableMap();
+            List<Selection<?>> selections = configuration.getSelections();
+            for (int index = 1; index < selections.size(); index++) {
+                Selection<?> selection = selections.get(index);
+                if (selection != null) {
+                    Object value = selection.getSelection();
+                    if (value != null) {
+                        int adaptedIndex = configurationVariableMap == variableMap
+                                ? index
+                                : configurationVariableMap.adapt(index, variableMap, true);
+                        if (adaptedIndex > 0) {
+                            setBit(Boolean.TRUE.equals(value) ? selected : deselected, columns[adaptedIndex]);
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface RowEncoder {
+        void encode(int index);
+    }
+
+    private void write(int size, Path path, RowEncoder encoder) throws IOException {
+        int blockCount = (size + blockSize - 1) / blockSize;
+        long[] blockOffsets = new long[blockCount];
+        int[] blockLengths = new int[blockCount];
+
+        try (FileChannel channel = FileChannel.open(
+                path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, ByteBuffer.wrap(createHeader(size, blockCount)));
+            long blockTableOffset = channel.position();
+            channel.position(blockTableOffset + (long) blockCount * BLOCK_ENTRY_BYTES);
+
+            ByteBuffer block = ByteBuffer.allocate(Math.min(size, blockSize) * rowBytes);
+            Deflater deflater = compress ? new Deflater() : null;
+            byte[] compressedBlock = compress ? new byte[block.capacity() + 64] : null;
+            try {
+                for (int b = 0; b < blockCount; b++) {
+                    block.clear();
+                    int end = Math.min(size, (b + 1) * blockSize);
+                    for (int i = b * blockSize; i < end; i++) {
+                        Arrays.fill(selected, 0L);
+                        Arrays.fill(deselected, 0L);
+                        encoder.encode(i);
+                        for (long word : selected) {
+                            block.putLong(word);
+                        }
+                        for (long word : deselected) {
+                            block.putLong(word);
+                        }
+                    }
+                    block.flip();
+
+                    blockOffsets[b] = channel.position();
+                    if (compress) {
+                        deflater.reset();
+                        deflater.setInput(block.array(), 0, block.limit());
+                        deflater.finish();
+                        int length = 0;
+                        while (!deflater.finished()) {
+                            if (length == compressedBlock.length) {
+                                compressedBlock = Arrays.copyOf(compressedBlock, 2 * compressedBlock.length);
+                            }
+                            length += deflater.deflate(compressedBlock, length, compressedBlock.length - length);
+                        }
+                        blockLengths[b] = length;
+                        writeFully(channel, ByteBuffer.wrap(compressedBlock, 0, length));
+                    } else {
+                        blockLengths[b] = block.limit();
+                        writeFully(channel, block);
+                    }
+                }
+            } finally {
+                if (deflater != null) {
+                    deflater.end();
+                }
+            }
+
+            ByteBuffer blockTable = ByteBuffer.allocate(blockCount * BLOCK_ENTRY_BYTES);
+            for (int b = 0; b < blockCount; b++) {
+                blockTable.putLong(blockOffsets[b]);
+                blockTable.putInt(blockLengths[b]);
+            }
+            blockTable.flip();
+            channel.position(blockTableOffset);
+            writeFully(channel, blockTable);
+        }
+    }
+
+    private byte[] createHeader(int size, int blockCount) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.write(MAGIC.getBytes(StandardCharsets.US_ASCII));
+        out.writeInt(VERSION);
+        out.writeInt(names.size());
+        for (String name : names) {
+            byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(nameBytes.length);
+            out.write(nameBytes);
+        }
+        out.writeInt(size);
+        out.writeInt(blockSize);
+        out.writeInt(rowWords);
+        out.writeByte(compress ? COMPRESSION_DEFLATE : COMPRESSION_NONE);
+        out.writeInt(blockCount);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void setBit(long[] words, int column) {
+        words[column >> 6] |= 1L << column;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
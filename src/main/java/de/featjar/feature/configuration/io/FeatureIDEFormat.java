@@ -26,16 +26,33 @@ import de.featjar.base.data.Result;
 import de.featjar.base.io.format.IFormat;
 import de.featjar.base.io.format.ParseProblem;
 import de.featjar.base.io.input.AInputMapper;
+import de.featjar.feature.configuration.BooleanConfiguration;
 import de.featjar.feature.configuration.Configuration;
 import de.featjar.feature.configuration.Configuration.Selection;
 import de.featjar.feature.configuration.Configuration.SelectionNotPossibleException;
+import de.featjar.feature.model.IFeature;
+import de.featjar.feature.model.IFeatureModel;
+import de.featjar.formula.VariableMap;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Extended configuration format for FeatureIDE projects.<br> Lists all features and indicates the manual and automatic selection.
+ * <p>
+ * Parsed configurations are {@link BooleanConfiguration Boolean configurations}.
+ * If this format is bound to a variable map (or a feature model), all parsed configurations share this variable map
+ * and unknown features are reported as errors.
+ * Otherwise, each configuration gets its own variable map with the features listed in the parsed file.
  *
  * @author Sebastian Krieter
  */
@@ -43,6 +60,38 @@ public class FeatureIDEFormat implements IFormat<Configuration> {
 
     private static final String NEWLINE = System.lineSeparator();
 
+    private final VariableMap variableMap;
+
+    /**
+     * Creates a format that creates a new variable map for each parsed configuration.
+     */
+    public FeatureIDEFormat() {
+        variableMap = null;
+    }
+
+    /**
+     * Creates a format that binds all parsed configurations to the given variable map.
+     * The variable map must not be modified while configurations are parsed.
+     *
+     * @param variableMap the variable map
+     */
+    public FeatureIDEFormat(VariableMap variableMap) {
+        this.variableMap = Objects.requireNonNull(variableMap);
+    }
+
+    /**
+     * Creates a format that binds all parsed configurations to a variable map with the features of the given
+     * feature model.
+     *
+     * @param featureModel the feature model
+     */
+    public FeatureIDEFormat(IFeatureModel featureModel) {
+        variableMap = new VariableMap();
+        for (final IFeature feature : featureModel.getFeatures()) {
+            variableMap.add(feature.getName().get());
+        }
+    }
+
     /**
      * Parses a String representation of a FeatureIDE Format into a Configuration.
      *
@@ -51,62 +100,110 @@ public class FeatureIDEFormat implements IFormat<Configuration> {
      */
     @Override
     public Result<Configuration> parse(AInputMapper inputmapper) {
-        Configuration configuration = new Configuration();
+        return parse(() -> inputmapper.get().getReader());
+    }
+
+    /**
+     * Parses all configuration files with the {@link #getFileExtension() extension of this format}
+     * in the given directory in parallel.
+     * All parsed configurations share one variable map:
+     * the variable map this format is bound to, or else a new variable map with the features of all files.
+     *
+     * @param directory the directory
+     * @return the parsed configurations, ordered by their paths
+     */
+    public Result<Map<Path, Result<Configuration>>> parseDirectory(Path directory) {
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = files.filter(Files::isRegularFile)
+                    .filter(path -> path.getFileName().toString().endsWith(getFileExtension()))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (final IOException e) {
+            return Result.empty(new Problem(e));
+        }
+
+        List<Result<Configuration>> configurations =
+                paths.parallelStream().map(this::parse).collect(Collectors.toList());
+
+        if (variableMap == null) {
+            // merge the variables of all files, and then move all configurations to the merged variable map
+            VariableMap sharedVariableMap = new VariableMap();
+            for (Result<Configuration> configuration : configurations) {
+                if (configuration.isPresent()) {
+                    for (String name : configuration.get().getVariableMap().getVariableNames()) {
+                        if (sharedVariableMap.get(name).isEmpty()) {
+                            sharedVariableMap.add(name);
+                        }
+                    }
+                }
+            }
+            configurations.parallelStream()
+                    .filter(Result::isPresent)
+                    .forEach(configuration -> configuration.get().adapt(sharedVariableMap));
+        }
+
+        LinkedHashMap<Path, Result<Configuration>> configurationsByPath = new LinkedHashMap<>();
+        for (int i = 0; i < paths.size(); i++) {
+            configurationsByPath.put(paths.get(i), configurations.get(i));
+        }
+        return Result.of(configurationsByPath);
+    }
+
+    private Result<Configuration> parse(Path path) {
+        return parse(() -> Files.newBufferedReader(path, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Opens the reader of a configuration file.
+     */
+    @FunctionalInterface
+    private interface ReaderSupplier {
+        BufferedReader get() throws IOException;
+    }
+
+    /**
+     * Parses a configuration file.
+     * If reading fails, the configuration parsed so far is returned with the exception as a problem.
+     */
+    private Result<Configuration> parse(ReaderSupplier readerSupplier) {
+        VariableMap configurationVariableMap = variableMap != null ? variableMap : new VariableMap();
+        Configuration configuration = new BooleanConfiguration(configurationVariableMap);
         List<Problem> warnings = new ArrayList<>();
 
         String line = null;
         int lineNumber = 1;
-        try (BufferedReader reader = inputmapper.get().getReader(); ) {
+        try (BufferedReader reader = readerSupplier.get()) {
             while ((line = reader.readLine()) != null) {
                 if (line.startsWith("#")) {
                     continue;
                 }
                 line = line.trim();
                 if (!line.isEmpty()) {
-                    Boolean manual = null;
-                    Boolean automatic = null;
-                    try {
-                        switch (Integer.parseInt(line.substring(0, 1))) {
-                            case 0:
-                                manual = Boolean.FALSE;
-                                break;
-                            case 1:
-                                manual = Boolean.TRUE;
-                                break;
-                            case 2:
-                                break;
-                            default:
-                                warnings.add(new ParseProblem(line, Severity.WARNING, lineNumber));
-                                break;
-                        }
-                        switch (Integer.parseInt(line.substring(1, 2))) {
-                            case 0:
-                                automatic = Boolean.FALSE;
-                                break;
-                            case 1:
-                                automatic = Boolean.TRUE;
-                                break;
-                            case 2:
-                                break;
-                            default:
-                                warnings.add(new ParseProblem(line, Severity.WARNING, lineNumber));
-                                break;
+                    if (line.length() < 2) {
+                        warnings.add(new ParseProblem(line, Severity.WARNING, lineNumber));
+                    } else {
+                        Boolean manual = decodeSelection(line.charAt(0));
+                        Boolean automatic = decodeSelection(line.charAt(1));
+                        if (isInvalidSelectionCode(line.charAt(0)) || isInvalidSelectionCode(line.charAt(1))) {
+                            warnings.add(new ParseProblem(line, Severity.WARNING, lineNumber));
                         }
-                    } catch (final NumberFormatException e) {
-                        warnings.add(new ParseProblem(e, lineNumber));
-                    }
 
-                    final String name = line.substring(2);
+                        final String name = line.substring(2);
+                        if (variableMap == null && configurationVariableMap.get(name).isEmpty()) {
+                            configurationVariableMap.add(name);
+                        }
 
-                    final Result<Selection<?>> feature = configuration.getSelection(name);
-                    if (feature.isEmpty()) {
-                        warnings.add(new ParseProblem(name, Severity.ERROR, lineNumber));
-                    } else {
-                        try {
-                            feature.get().setManual(manual);
-                            feature.get().setAutomatic(automatic);
-                        } catch (final SelectionNotPossibleException e) {
-                            warnings.add(new ParseProblem(e, lineNumber));
+                        final Result<Selection<?>> feature = configuration.getSelection(name);
+                        if (feature.isEmpty()) {
+                            warnings.add(new ParseProblem(name, Severity.ERROR, lineNumber));
+                        } else {
+                            try {
+                                feature.get().setManual(manual);
+                                feature.get().setAutomatic(automatic);
+                            } catch (final SelectionNotPossibleException e) {
+                                warnings.add(new ParseProblem(e, lineNumber));
+                            }
                         }
                     }
                 }
@@ -119,6 +216,21 @@ public class FeatureIDEFormat implements IFormat<Configuration> {
         return Result.of(configuration, warnings);
     }
 
+    private static Boolean decodeSelection(char code) {
+        switch (code) {
+            case '0':
+                return Boolean.FALSE;
+            case '1':
+                return Boolean.TRUE;
+            default:
+                return null;
+        }
+    }
+
+    private static boolean isInvalidSelectionCode(char code) {
+        return code < '0' || code > '2';
+    }
+
     /**
      * Returns the String representation of a Configuration in the FeatureIDE Format.
      *
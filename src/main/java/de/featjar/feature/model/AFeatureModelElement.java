@@ -42,7 +42,13 @@ import java.util.Optional;
 public abstract class AFeatureModelElement implements IFeatureModelElement, IMutatableAttributable {
     protected final IFeatureModel featureModel;
     protected final IIdentifier identifier;
-    protected final LinkedHashMap<IAttribute<?>, Object> attributeValues;
+    protected LinkedHashMap<IAttribute<?>, Object> attributeValues;
+
+    /**
+     * Whether {@link #attributeValues} is shared with a clone of this element.
+     * A shared map is copied before it is changed, so that cloning does not copy attributes eagerly.
+     */
+    protected boolean isAttributeValuesShared;
 
     public AFeatureModelElement(IFeatureModel featureModel) {
         this.featureModel = Objects.requireNonNull(featureModel);
@@ -53,7 +59,20 @@ public abstract class AFeatureModelElement implements IFeatureModelElement, IMut
     protected AFeatureModelElement(AFeatureModelElement otherElement, IFeatureModel featureModel) {
         this.featureModel = featureModel;
         identifier = otherElement.getNewIdentifier();
-        attributeValues = otherElement.cloneAttributes();
+        attributeValues = otherElement.attributeValues;
+        isAttributeValuesShared = true;
+        otherElement.isAttributeValuesShared = true;
+    }
+
+    /**
+     * {@return the attribute values of this element for modification, copying them first if they are shared}
+     */
+    protected LinkedHashMap<IAttribute<?>, Object> getMutableAttributeValues() {
+        if (isAttributeValuesShared) {
+            attributeValues = new LinkedHashMap<>(attributeValues);
+            isAttributeValuesShared = false;
+        }
+        return attributeValues;
     }
 
     @Override
@@ -74,13 +93,29 @@ public abstract class AFeatureModelElement implements IFeatureModelElement, IMut
         }
         checkType(attribute, value);
         validate(attribute, value);
-        attributeValues.put(attribute, value);
+        getMutableAttributeValues().put(attribute, value);
+        fireAttributeChanged(attribute);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <S> S removeAttributeValue(Attribute<S> attribute) {
-        return (S) attributeValues.remove(attribute);
+        S value = (S) getMutableAttributeValues().remove(attribute);
+        if (value != null) {
+            fireAttributeChanged(attribute);
+        }
+        return value;
+    }
+
+    /**
+     * Notifies the feature model that an attribute value of this element was set or removed.
+     *
+     * @param attribute the changed attribute
+     */
+    protected void fireAttributeChanged(IAttribute<?> attribute) {
+        if (featureModel instanceof FeatureModel) {
+            ((FeatureModel) featureModel).fireElementEvent(FeatureModelEvent.Type.ATTRIBUTE_CHANGED, this, attribute);
+        }
     }
 
     @Override
@@ -0,0 +1,828 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model;
+
+import de.featjar.base.data.Attribute;
+import de.featjar.base.data.IAttribute;
+import de.featjar.base.data.Range;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ARootedTree;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.feature.model.FeatureTree.Group;
+import de.featjar.feature.model.IFeatureTree.IMutableFeatureTree;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A feature tree stored as a structure of arrays, intended for very large (e.g., generated) feature models.
+ * Each node is identified by an index and described by primitive arrays (parent, first child, last child,
+ * next sibling, parent group id, and feature cardinality bounds).
+ * Children groups are stored in arrays as well, and attributes of nodes are only stored if present.
+ * Thus, a node needs a few dozen bytes instead of the lists, ranges, and groups of a {@link FeatureTree}.
+ * <p>
+ * Nodes are accessible as {@link IFeatureTree} through {@link #getNode(int) views},
+ * which only hold their index and are created on first access.
+ * There is exactly one view per node, so views can be compared by identity, as other feature tree nodes.
+ * Large trees can be built without creating any views with {@link #addFeatureBelow(int, IFeature, int)}.
+ * Views support the mutators of {@link IMutableFeatureTree}, but the generic mutators of {@link ITree},
+ * such as {@code addChild} and {@code removeChild}, throw an {@link UnsupportedOperationException}.
+ * Cloning a view creates a mutable {@link FeatureTree}.
+ */
+public final class CompactFeatureTree {
+
+    private static final int NONE = -1;
+
+    private int size;
+    private int root;
+
+    private IFeature[] features;
+    private int[] parents;
+    private int[] firstChildren;
+    private int[] lastChildren;
+    private int[] nextSiblings;
+    private int[] parentGroupIDs;
+    private int[] lowerBounds;
+    private int[] upperBounds;
+    private int[] firstGroups;
+
+    // allocated and filled on first access, so that trees built through indices need no views at all
+    private Node[] views;
+
+    // children groups of a node are linked from firstGroups through nextGroups
+    private int groupCount;
+    private int[] groupLowerBounds;
+    private int[] groupUpperBounds;
+    private int[] nextGroups;
+
+    // groups are compared by identity, so each group is represented by a single object, created on first access
+    private Group[] groupViews;
+
+    private final HashMap<Integer, LinkedHashMap<IAttribute<?>, Object>> attributeValues = new HashMap<>();
+
+    /**
+     * Creates a compact feature tree with a single root node.
+     *
+     * @param rootFeature the feature of the root node
+     */
+    public CompactFeatureTree(IFeature rootFeature) {
+        this(rootFeature, 16);
+    }
+
+    /**
+     * Creates a compact feature tree with a single root node.
+     *
+     * @param rootFeature the feature of the root node
+     * @param expectedSize the expected number of nodes, used to avoid growing the arrays
+     */
+    public CompactFeatureTree(IFeature rootFeature, int expectedSize) {
+        int capacity = Math.max(expectedSize, 1);
+        features = new IFeature[capacity];
+        parents = new int[capacity];
+        firstChildren = new int[capacity];
+        lastChildren = new int[capacity];
+        nextSiblings = new int[capacity];
+        parentGroupIDs = new int[capacity];
+        lowerBounds = new int[capacity];
+        upperBounds = new int[capacity];
+        firstGroups = new int[capacity];
+        groupLowerBounds = new int[capacity];
+        groupUpperBounds = new int[capacity];
+        nextGroups = new int[capacity];
+        root = newNode(rootFeature);
+    }
+
+    /**
+     * {@return a compact copy of the given feature tree, including all its descendants}
+     * The copy is labeled with the same features.
+     *
+     * @param featureTree the feature tree
+     */
+    public static CompactFeatureTree of(IFeatureTree featureTree) {
+        CompactFeatureTree compactFeatureTree = new CompactFeatureTree(featureTree.getFeature());
+        ArrayDeque<IFeatureTree> originals = new ArrayDeque<>();
+        ArrayDeque<Integer> indices = new ArrayDeque<>();
+        originals.push(featureTree);
+        indices.push(compactFeatureTree.root);
+        while (!originals.isEmpty()) {
+            IFeatureTree original = originals.pop();
+            int index = indices.pop();
+            compactFeatureTree.copyNode(original, index);
+            for (IFeatureTree child : original.getChildren()) {
+                originals.push(child);
+                indices.push(compactFeatureTree.appendChild(index, child.getFeature(), child.getParentGroupID()));
+            }
+        }
+        return compactFeatureTree;
+    }
+
+    private void copyNode(IFeatureTree original, int index) {
+        lowerBounds[index] = original.getFeatureCardinalityLowerBound();
+        upperBounds[index] = original.getFeatureCardinalityUpperBound();
+        List<Group> groups = original.getChildrenGroups();
+        if (!groups.isEmpty()) {
+            Group firstGroup = groups.get(0);
+            int group = firstGroups[index];
+            groupLowerBounds[group] = firstGroup == null ? 0 : firstGroup.getLowerBound();
+            groupUpperBounds[group] = firstGroup == null ? Range.OPEN : firstGroup.getUpperBound();
+            for (int i = 1; i < groups.size(); i++) {
+                Group nextGroup = groups.get(i);
+                addGroup(
+                        index,
+                        nextGroup == null ? 0 : nextGroup.getLowerBound(),
+                        nextGroup == null ? Range.OPEN : nextGroup.getUpperBound());
+            }
+        }
+        Map<IAttribute<?>, Object> originalAttributeValues = original.getAttributes().orElse(null);
+        if (originalAttributeValues != null && !originalAttributeValues.isEmpty()) {
+            attributeValues.put(index, new LinkedHashMap<>(originalAttributeValues));
+        }
+    }
+
+    /**
+     * {@return the view of the root node}
+     */
+    public IFeatureTree getRoot() {
+        return getNode(root);
+    }
+
+    /**
+     * {@return the index of the root node}
+     */
+    public int getRootIndex() {
+        return root;
+    }
+
+    /**
+     * {@return the number of nodes created in this tree, including removed ones}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@return the view of the node with the given index}
+     *
+     * @param index the index of the node
+     */
+    public IFeatureTree getNode(int index) {
+        Objects.checkIndex(index, size);
+        if (views == null) {
+            views = new Node[features.length];
+        }
+        Node view = views[index];
+        if (view == null) {
+            view = new Node(index);
+            views[index] = view;
+        }
+        return view;
+    }
+
+    /**
+     * {@return the index of the given node, or -1 if it is not a node of this tree}
+     *
+     * @param featureTree the node
+     */
+    public int getIndex(IFeatureTree featureTree) {
+        return featureTree instanceof Node && ((Node) featureTree).getTree() == this
+                ? ((Node) featureTree).index
+                : NONE;
+    }
+
+    /**
+     * Adds a new node as the last child of the given node.
+     * No views are created, unless the given node is part of the feature tree of a feature model,
+     * which is then notified as by {@link IMutableFeatureTree#addFeatureBelow(IFeature, int, int)}.
+     *
+     * @param parentIndex the index of the parent node
+     * @param feature the feature of the new node
+     * @param groupID the id of the group of the parent node that contains the new node
+     * @return the index of the new node
+     */
+    public int addFeatureBelow(int parentIndex, IFeature feature, int groupID) {
+        Objects.checkIndex(parentIndex, size);
+        checkGroupID(parentIndex, groupID);
+        int index = appendChild(parentIndex, feature, groupID);
+        fireNodeAdded(parentIndex, index);
+        return index;
+    }
+
+    /**
+     * Notifies the feature model about a new node.
+     * Does nothing if the parent node is not part of the feature tree of the model.
+     */
+    private void fireNodeAdded(int parentIndex, int index) {
+        IFeatureModel featureModel = features[parentIndex].getFeatureModel();
+        if (featureModel instanceof FeatureModel
+                && ((FeatureModel) featureModel).isIndexedFeatureTree(getNode(parentIndex))) {
+            IFeatureTree newTree = getNode(index);
+            ((FeatureModel) featureModel).indexFeatureTreeNode(newTree);
+            ((FeatureModel) featureModel).fireEvent(FeatureModelEvent.Type.FEATURE_TREE_ADDED, newTree, null);
+        }
+    }
+
+    /**
+     * {@return the index of the parent of the given node, or -1 if it has no parent}
+     *
+     * @param index the index of the node
+     */
+    public int getParentIndex(int index) {
+        return parents[index];
+    }
+
+    /**
+     * {@return the index of the first child of the given node, or -1 if it has no children}
+     *
+     * @param index the index of the node
+     */
+    public int getFirstChildIndex(int index) {
+        return firstChildren[index];
+    }
+
+    /**
+     * {@return the index of the next sibling of the given node, or -1 if it is the last child}
+     *
+     * @param index the index of the node
+     */
+    public int getNextSiblingIndex(int index) {
+        return nextSiblings[index];
+    }
+
+    private int newNode(IFeature feature) {
+        Objects.requireNonNull(feature);
+        if (size == features.length) {
+            int capacity = size * 2;
+            features = Arrays.copyOf(features, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            firstChildren = Arrays.copyOf(firstChildren, capacity);
+            lastChildren = Arrays.copyOf(lastChildren, capacity);
+            nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+            parentGroupIDs = Arrays.copyOf(parentGroupIDs, capacity);
+            lowerBounds = Arrays.copyOf(lowerBounds, capacity);
+            upperBounds = Arrays.copyOf(upperBounds, capacity);
+            firstGroups = Arrays.copyOf(firstGroups, capacity);
+            if (views != null) {
+                views = Arrays.copyOf(views, capacity);
+            }
+        }
+        int index = size++;
+        features[index] = feature;
+        parents[index] = NONE;
+        firstChildren[index] = NONE;
+        lastChildren[index] = NONE;
+        nextSiblings[index] = NONE;
+        parentGroupIDs[index] = 0;
+        lowerBounds[index] = 0;
+        upperBounds[index] = 1;
+        firstGroups[index] = newGroup(0, Range.OPEN);
+        return index;
+    }
+
+    private int newGroup(int lowerBound, int upperBound) {
+        if (groupCount == nextGroups.length) {
+            int capacity = groupCount * 2;
+            groupLowerBounds = Arrays.copyOf(groupLowerBounds, capacity);
+            groupUpperBounds = Arrays.copyOf(groupUpperBounds, capacity);
+            nextGroups = Arrays.copyOf(nextGroups, capacity);
+            if (groupViews != null) {
+                groupViews = Arrays.copyOf(groupViews, capacity);
+            }
+        }
+        int group = groupCount++;
+        groupLowerBounds[group] = lowerBound;
+        groupUpperBounds[group] = upperBound;
+        nextGroups[group] = NONE;
+        return group;
+    }
+
+    private int addGroup(int index, int lowerBound, int upperBound) {
+        int group = newGroup(lowerBound, upperBound);
+        int groupID = 1;
+        int lastGroup = firstGroups[index];
+        while (nextGroups[lastGroup] != NONE) {
+            lastGroup = nextGroups[lastGroup];
+            groupID++;
+        }
+        nextGroups[lastGroup] = group;
+        return groupID;
+    }
+
+    private int getGroup(int index, int groupID) {
+        int group = firstGroups[index];
+        for (int i = 0; i < groupID && group != NONE; i++) {
+            group = nextGroups[group];
+        }
+        if (groupID < 0 || group == NONE) {
+            throw new IndexOutOfBoundsException(String.format("no group with id %d", groupID));
+        }
+        return group;
+    }
+
+    private Group getGroupView(int index, int group) {
+        if (groupViews == null) {
+            groupViews = new Group[groupLowerBounds.length];
+        }
+        Group groupView = groupViews[group];
+        if (groupView == null) {
+            groupView = new Group(getNode(index), Range.of(groupLowerBounds[group], groupUpperBounds[group]));
+            groupViews[group] = groupView;
+        }
+        return groupView;
+    }
+
+    private int getGroupCount(int index) {
+        int count = 0;
+        for (int group = firstGroups[index]; group != NONE; group = nextGroups[group]) {
+            count++;
+        }
+        return count;
+    }
+
+    private void checkGroupID(int parentIndex, int groupID) {
+        if (groupID < 0) throw new IllegalArgumentException(String.format("groupID must be positive (%d)", groupID));
+        if (groupID >= getGroupCount(parentIndex))
+            throw new IllegalArgumentException(
+                    String.format("groupID must be smaller than number of groups in parent feature (%d)", groupID));
+    }
+
+    private int appendChild(int parentIndex, IFeature feature, int groupID) {
+        int index = newNode(feature);
+        parents[index] = parentIndex;
+        parentGroupIDs[index] = groupID;
+        if (lastChildren[parentIndex] == NONE) {
+            firstChildren[parentIndex] = index;
+        } else {
+            nextSiblings[lastChildren[parentIndex]] = index;
+        }
+        lastChildren[parentIndex] = index;
+        return index;
+    }
+
+    private int insertChild(int parentIndex, int childPosition, IFeature feature, int groupID) {
+        if (childPosition < 0) {
+            throw new IndexOutOfBoundsException(childPosition);
+        }
+        if (childPosition == 0) {
+            if (firstChildren[parentIndex] == NONE) {
+                return appendChild(parentIndex, feature, groupID);
+            }
+            int index = newNode(feature);
+            parents[index] = parentIndex;
+            parentGroupIDs[index] = groupID;
+            nextSiblings[index] = firstChildren[parentIndex];
+            firstChildren[parentIndex] = index;
+            return index;
+        }
+        int previousSibling = firstChildren[parentIndex];
+        for (int i = 1; i < childPosition && previousSibling != NONE; i++) {
+            previousSibling = nextSiblings[previousSibling];
+        }
+        if (previousSibling == NONE) {
+            throw new IndexOutOfBoundsException(childPosition);
+        }
+        if (previousSibling == lastChildren[parentIndex]) {
+            return appendChild(parentIndex, feature, groupID);
+        }
+        int index = newNode(feature);
+        parents[index] = parentIndex;
+        parentGroupIDs[index] = groupID;
+        nextSiblings[index] = nextSiblings[previousSibling];
+        nextSiblings[previousSibling] = index;
+        return index;
+    }
+
+    private int getPreviousSibling(int index) {
+        int previousSibling = NONE;
+        for (int sibling = firstChildren[parents[index]]; sibling != index; sibling = nextSiblings[sibling]) {
+            previousSibling = sibling;
+        }
+        return previousSibling;
+    }
+
+    /**
+     * Replaces the given node in the children of its parent with the given other node,
+     * or with the given children, if the other node is {@code -1}.
+     */
+    private void replaceInParent(int index, int firstReplacement, int lastReplacement) {
+        int parentIndex = parents[index];
+        int previousSibling = getPreviousSibling(index);
+        int nextSibling = nextSiblings[index];
+        if (firstReplacement == NONE) {
+            firstReplacement = nextSibling;
+        } else {
+            nextSiblings[lastReplacement] = nextSibling;
+        }
+        if (previousSibling == NONE) {
+            firstChildren[parentIndex] = firstReplacement;
+        } else {
+            nextSiblings[previousSibling] = firstReplacement;
+        }
+        if (lastChildren[parentIndex] == index) {
+            lastChildren[parentIndex] = lastReplacement == NONE ? previousSibling : lastReplacement;
+        }
+        parents[index] = NONE;
+        nextSiblings[index] = NONE;
+    }
+
+    /**
+     * A view of a node of a {@link CompactFeatureTree}, which reads and writes the arrays of the tree.
+     */
+    private final class Node extends ARootedTree<IFeatureTree> implements IMutableFeatureTree {
+        private final int index;
+
+        private Node(int index) {
+            this.index = index;
+        }
+
+        private CompactFeatureTree getTree() {
+            return CompactFeatureTree.this;
+        }
+
+        @Override
+        public IFeature getFeature() {
+            return features[index];
+        }
+
+        @Override
+        public Result<IFeatureTree> getParent() {
+            int parent = parents[index];
+            return parent == NONE ? Result.empty() : Result.of(getNode(parent));
+        }
+
+        /**
+         * {@inheritDoc}
+         * The returned list reads the children from the arrays of the tree and reflects later changes.
+         */
+        @Override
+        public List<IFeatureTree> getChildren() {
+            return new AbstractList<>() {
+                // remembers the last accessed child, so that iterating the children is linear
+                private int position = -1;
+                private int child = NONE;
+
+                @Override
+                public IFeatureTree get(int childPosition) {
+                    Objects.checkIndex(childPosition, size());
+                    if (child == NONE || childPosition < position) {
+                        position = 0;
+                        child = firstChildren[index];
+                    }
+                    for (; position < childPosition; position++) {
+                        child = nextSiblings[child];
+                    }
+                    return getNode(child);
+                }
+
+                @Override
+                public int size() {
+                    return getChildrenCount();
+                }
+            };
+        }
+
+        @Override
+        public int getChildrenCount() {
+            int count = 0;
+            for (int child = firstChildren[index]; child != NONE; child = nextSiblings[child]) {
+                count++;
+            }
+            return count;
+        }
+
+        @Override
+        public boolean hasChildren() {
+            return firstChildren[index] != NONE;
+        }
+
+        @Override
+        public List<IFeatureTree> getChildren(int groupID) {
+            ArrayList<IFeatureTree> children = new ArrayList<>();
+            for (int child = firstChildren[index]; child != NONE; child = nextSiblings[child]) {
+                if (parentGroupIDs[child] == groupID) {
+                    children.add(getNode(child));
+                }
+            }
+            return children;
+        }
+
+        @Override
+        public List<Group> getChildrenGroups() {
+            ArrayList<Group> groups = new ArrayList<>(1);
+            for (int group = firstGroups[index]; group != NONE; group = nextGroups[group]) {
+                groups.add(getGroupView(index, group));
+            }
+            return Collections.unmodifiableList(groups);
+        }
+
+        @Override
+        public Optional<Group> getChildrenGroup(int groupID) {
+            return Optional.of(getGroupView(index, getGroup(index, groupID)));
+        }
+
+        @Override
+        public Optional<Group> getParentGroup() {
+            int parent = parents[index];
+            return parent == NONE ? Optional.empty() : getNode(parent).getChildrenGroup(parentGroupIDs[index]);
+        }
+
+        @Override
+        public int getParentGroupID() {
+            return parentGroupIDs[index];
+        }
+
+        @Override
+        public int getFeatureCardinalityLowerBound() {
+            return lowerBounds[index];
+        }
+
+        @Override
+        public int getFeatureCardinalityUpperBound() {
+            return upperBounds[index];
+        }
+
+        @Override
+        public Optional<Map<IAttribute<?>, Object>> getAttributes() {
+            LinkedHashMap<IAttribute<?>, Object> nodeAttributeValues = attributeValues.get(index);
+            return nodeAttributeValues == null
+                    ? Optional.empty()
+                    : Optional.of(Collections.unmodifiableMap(nodeAttributeValues));
+        }
+
+        @Override
+        public List<IFeatureTree> getRoots() {
+            return List.of(this);
+        }
+
+        @Override
+        public void setParentGroupID(int groupID) {
+            int parent = parents[index];
+            if (parent == NONE) throw new IllegalArgumentException("Cannot set groupID for root feature!");
+            checkGroupID(parent, groupID);
+            parentGroupIDs[index] = groupID;
+            fireEvent(FeatureModelEvent.Type.FEATURE_TREE_CHANGED, null);
+        }
+
+        @Override
+        public void setFeatureCardinality(Range featureCardinality) {
+            lowerBounds[index] = featureCardinality.getLowerBound();
+            upperBounds[index] = featureCardinality.getUpperBound();
+            fireEvent(FeatureModelEvent.Type.FEATURE_TREE_CHANGED, null);
+        }
+
+        @Override
+        public void makeMandatory() {
+            if (upperBounds[index] == 0) {
+                upperBounds[index] = 1;
+            }
+            lowerBounds[index] = 1;
+            fireEvent(FeatureModelEvent.Type.FEATURE_TREE_CHANGED, null);
+        }
+
+        @Override
+        public void makeOptional() {
+            lowerBounds[index] = 0;
+            fireEvent(FeatureModelEvent.Type.FEATURE_TREE_CHANGED, null);
+        }
+
+        @Override
+        public int addCardinalityGroup(int lowerBound, int upperBound) {
+            int groupID = addGroup(index, lowerBound, upperBound);
+            fireEvent(FeatureModelEvent.Type.FEATURE_TREE_CHANGED, null);
+            return groupID;
+        }
+
+        @Override
+        public void toCardinalityGroup(int groupID, int lowerBound, int upperBound) {
+            int group = getGroup(index, groupID);
+            groupLowerBounds[group] = lowerBound;
+            groupUpperBounds[group] = upperBound;
+            if (groupViews != null && groupViews[group] != null) {
+                groupViews[group].setBounds(lowerBound, upperBound);
+            }
+            fireEvent(FeatureModelEvent.Type.FEATURE_TREE_CHANGED, null);
+        }
+
+        @Override
+        public <S> void setAttributeValue(Attribute<S> attribute, S value) {
+            if (value == null) {
+                removeAttributeValue(attribute);
+                return;
+            }
+            checkType(attribute, value);
+            validate(attribute, value);
+            attributeValues.computeIfAbsent(index, k -> new LinkedHashMap<>()).put(attribute, value);
+            fireEvent(FeatureModelEvent.Type.ATTRIBUTE_CHANGED, attribute);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <S> S removeAttributeValue(Attribute<S> attribute) {
+            LinkedHashMap<IAttribute<?>, Object> nodeAttributeValues = attributeValues.get(index);
+            if (nodeAttributeValues == null) {
+                return null;
+            }
+            S value = (S) nodeAttributeValues.remove(attribute);
+            if (nodeAttributeValues.isEmpty()) {
+                attributeValues.remove(index);
+            }
+            if (value != null) {
+                fireEvent(FeatureModelEvent.Type.ATTRIBUTE_CHANGED, attribute);
+            }
+            return value;
+        }
+
+        @Override
+        public IFeatureTree addFeatureBelow(IFeature newFeature, int childPosition, int groupID) {
+            checkGroupID(index, groupID);
+            int newIndex = insertChild(index, childPosition, newFeature, groupID);
+            fireNodeAdded(index, newIndex);
+            return getNode(newIndex);
+        }
+
+        @Override
+        public IFeatureTree addFeatureAbove(IFeature newFeature) {
+            int newIndex = newNode(newFeature);
+            if (parents[index] == NONE) {
+                if (root == index) {
+                    root = newIndex;
+                }
+            } else {
+                parents[newIndex] = parents[index];
+                replaceInParent(index, newIndex, newIndex);
+            }
+            parents[index] = newIndex;
+            parentGroupIDs[index] = 0;
+            firstChildren[newIndex] = index;
+            lastChildren[newIndex] = index;
+            IFeatureTree newTree = getNode(newIndex);
+            FeatureModel featureModel = getIndexingFeatureModel();
+            if (featureModel != null && featureModel.isIndexedFeatureTree(this)) {
+                featureModel.indexFeatureTreeNode(newTree);
+                featureModel.fireEvent(FeatureModelEvent.Type.FEATURE_TREE_ADDED, newTree, null);
+            }
+            return newTree;
+        }
+
+        /**
+         * {@inheritDoc}
+         * As for a {@link FeatureTree}, the children groups of this node are appended to the groups of its parent,
+         * and the children of this node take its place in the children of its parent, keeping their group ids.
+         */
+        @Override
+        public void removeFromTree() {
+            int parent = parents[index];
+            if (parent == NONE) {
+                return;
+            }
+            FeatureModel featureModel = getIndexingFeatureModel();
+            boolean isIndexed = featureModel != null && featureModel.isIndexedFeatureTree(this);
+            if (featureModel != null) {
+                // deliver the events of moving the children and removing this node together
+                featureModel.beginBatch();
+            }
+            try {
+                for (int group = firstGroups[index]; group != NONE; group = nextGroups[group]) {
+                    addGroup(parent, groupLowerBounds[group], groupUpperBounds[group]);
+                }
+                for (int child = firstChildren[index]; child != NONE; child = nextSiblings[child]) {
+                    parents[child] = parent;
+                }
+                replaceInParent(index, firstChildren[index], lastChildren[index]);
+                firstChildren[index] = NONE;
+                lastChildren[index] = NONE;
+                if (featureModel != null) {
+                    featureModel.unindexFeatureTreeNode(this);
+                    if (isIndexed) {
+                        featureModel.fireEvent(FeatureModelEvent.Type.FEATURE_TREE_CHANGED, getNode(parent), null);
+                        featureModel.fireEvent(FeatureModelEvent.Type.FEATURE_TREE_REMOVED, this, null);
+                    }
+                }
+            } finally {
+                if (featureModel != null) {
+                    featureModel.endBatch();
+                }
+            }
+        }
+
+        @Override
+        public void setParent(IFeatureTree newParent) {
+            throw unsupported();
+        }
+
+        @Override
+        public void setChildren(List<? extends IFeatureTree> children) {
+            throw unsupported();
+        }
+
+        @Override
+        public void addChild(int childPosition, IFeatureTree newChild) {
+            throw unsupported();
+        }
+
+        @Override
+        public void addChild(IFeatureTree newChild) {
+            throw unsupported();
+        }
+
+        @Override
+        public void removeChild(IFeatureTree child) {
+            throw unsupported();
+        }
+
+        @Override
+        public IFeatureTree removeChild(int childPosition) {
+            throw unsupported();
+        }
+
+        @Override
+        public void replaceChild(IFeatureTree oldChild, IFeatureTree newChild) {
+            throw unsupported();
+        }
+
+        private UnsupportedOperationException unsupported() {
+            return new UnsupportedOperationException(
+                    "compact feature trees only support the mutators of IMutableFeatureTree");
+        }
+
+        private void fireEvent(FeatureModelEvent.Type type, IAttribute<?> attribute) {
+            FeatureModel featureModel = getIndexingFeatureModel();
+            if (featureModel != null && featureModel.isIndexedFeatureTree(this)) {
+                featureModel.fireEvent(type, this, attribute);
+            }
+        }
+
+        private FeatureModel getIndexingFeatureModel() {
+            IFeatureModel featureModel = features[index].getFeatureModel();
+            return featureModel instanceof FeatureModel ? (FeatureModel) featureModel : null;
+        }
+
+        /**
+         * {@return a mutable copy of this node}
+         * Thus, {@link de.featjar.base.tree.Trees#clone(ITree) cloning} a compact feature tree creates
+         * a {@link FeatureTree}.
+         */
+        @Override
+        public ITree<IFeatureTree> cloneNode() {
+            FeatureTree featureTree = new FeatureTree(getFeature());
+            featureTree.parentGroupID = parentGroupIDs[index];
+            featureTree.cardinality = Range.of(lowerBounds[index], upperBounds[index]);
+            featureTree.childrenGroups.clear();
+            for (int group = firstGroups[index]; group != NONE; group = nextGroups[group]) {
+                featureTree.childrenGroups.add(
+                        new Group(featureTree, Range.of(groupLowerBounds[group], groupUpperBounds[group])));
+            }
+            LinkedHashMap<IAttribute<?>, Object> nodeAttributeValues = attributeValues.get(index);
+            if (nodeAttributeValues != null) {
+                featureTree.attributeValues = new LinkedHashMap<>(nodeAttributeValues);
+            }
+            return featureTree;
+        }
+
+        @Override
+        public boolean equalsNode(IFeatureTree other) {
+            if (this == other) return true;
+            if (other == null || getClass() != other.getClass()) return false;
+            Node otherNode = (Node) other;
+            return parentGroupIDs[index] == otherNode.getParentGroupID()
+                    && lowerBounds[index] == otherNode.getFeatureCardinalityLowerBound()
+                    && upperBounds[index] == otherNode.getFeatureCardinalityUpperBound()
+                    && Objects.equals(features[index], otherNode.getFeature());
+        }
+
+        @Override
+        public int hashCodeNode() {
+            return Objects.hash(features[index], parentGroupIDs[index], lowerBounds[index], upperBounds[index]);
+        }
+
+        @Override
+        public String toString() {
+            return features[index].getName().orElse("");
+        }
+    }
+}
@@ -39,7 +39,8 @@ public class Constraint extends AFeatureModelElement implements IMutableConstrai
 
     protected Constraint(Constraint otherConstraint, IFeatureModel newFeatureModel) {
         super(otherConstraint, newFeatureModel);
-        setFormula(Trees.clone(otherConstraint.formula));
+        // the clone is not yet part of a feature model, so there is no index to update
+        formula = Trees.clone(otherConstraint.formula);
     }
 
     @Override
@@ -49,7 +50,7 @@ public class Constraint extends AFeatureModelElement implements IMutableConstrai
 
     @Override
     public Constraint clone(IFeatureModel newFeatureModel) {
-        return new Constraint(this);
+        return new Constraint(this, newFeatureModel);
     }
 
     @Override
@@ -69,16 +70,22 @@ public class Constraint extends AFeatureModelElement implements IMutableConstrai
 
     @Override
     public void setFormula(IFormula formula) {
+        IFormula oldFormula = this.formula;
         this.formula = formula;
+        if (featureModel instanceof FeatureModel) {
+            ((FeatureModel) featureModel).updateConstraintFormula(this, oldFormula, formula);
+        }
     }
 
     @Override
     public void setName(String name) {
-        attributeValues.put(Attributes.NAME, name);
+        getMutableAttributeValues().put(Attributes.NAME, name);
+        fireAttributeChanged(Attributes.NAME);
     }
 
     @Override
     public void setDescription(String description) {
-        attributeValues.put(Attributes.DESCRIPTION, description);
+        getMutableAttributeValues().put(Attributes.DESCRIPTION, description);
+        fireAttributeChanged(Attributes.DESCRIPTION);
     }
 }
@@ -20,6 +20,8 @@
  */
 package de.featjar.feature.model;
 
+import de.featjar.base.data.Attribute;
+import de.featjar.base.data.IAttribute;
 import de.featjar.base.data.Result;
 import de.featjar.feature.model.IFeature.IMutableFeature;
 
@@ -47,7 +49,7 @@ public class Feature extends AFeatureModelElement implements IMutableFeature {
 
     @Override
     public Feature clone(IFeatureModel newFeatureModel) {
-        return new Feature(this);
+        return new Feature(this, newFeatureModel);
     }
 
     @Override
@@ -63,6 +65,9 @@ public class Feature extends AFeatureModelElement implements IMutableFeature {
     @Override
     public void setType(Class<?> type) {
         this.type = type;
+        if (featureModel instanceof FeatureModel) {
+            ((FeatureModel) featureModel).fireElementEvent(FeatureModelEvent.Type.FEATURE_CHANGED, this, null);
+        }
     }
 
     @Override
@@ -70,13 +75,54 @@ public class Feature extends AFeatureModelElement implements IMutableFeature {
         return String.format("Feature{name=%s}", getName().orElse(""));
     }
 
+    @Override
+    public <S> void setAttributeValue(Attribute<S> attribute, S value) {
+        if (Attributes.NAME.equals(attribute)) {
+            String oldName = getName().orElse(null);
+            super.setAttributeValue(attribute, value);
+            updateFeatureName(oldName);
+        } else {
+            super.setAttributeValue(attribute, value);
+        }
+    }
+
+    @Override
+    public <S> S removeAttributeValue(Attribute<S> attribute) {
+        if (Attributes.NAME.equals(attribute)) {
+            String oldName = getName().orElse(null);
+            S value = super.removeAttributeValue(attribute);
+            updateFeatureName(oldName);
+            return value;
+        } else {
+            return super.removeAttributeValue(attribute);
+        }
+    }
+
     @Override
     public void setName(String name) {
-        attributeValues.put(Attributes.NAME, name);
+        String oldName = getName().orElse(null);
+        getMutableAttributeValues().put(Attributes.NAME, name);
+        updateFeatureName(oldName);
+    }
+
+    private void updateFeatureName(String oldName) {
+        if (featureModel instanceof FeatureModel) {
+            ((FeatureModel) featureModel).updateFeatureName(this, oldName, getName().orElse(null));
+        }
+        // notify only after the name index was updated
+        super.fireAttributeChanged(Attributes.NAME);
+    }
+
+    @Override
+    protected void fireAttributeChanged(IAttribute<?> attribute) {
+        if (!Attributes.NAME.equals(attribute)) {
+            super.fireAttributeChanged(attribute);
+        }
     }
 
     @Override
     public void setDescription(String description) {
-        attributeValues.put(Attributes.DESCRIPTION, description);
+        getMutableAttributeValues().put(Attributes.DESCRIPTION, description);
+        fireAttributeChanged(Attributes.DESCRIPTION);
     }
 }
@@ -30,11 +30,15 @@ import de.featjar.base.data.identifier.UUIDIdentifier;
 import de.featjar.base.tree.Trees;
 import de.featjar.feature.model.IFeatureModel.IMutableFeatureModel;
 import de.featjar.formula.structure.IFormula;
+import de.featjar.formula.structure.term.value.Variable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -48,8 +52,73 @@ public class FeatureModel implements IMutableFeatureModel, IMutatableAttributabl
     protected final LinkedHashMap<IIdentifier, IFeature> features;
     protected final LinkedHashMap<IIdentifier, IConstraint> constraints;
 
+    /**
+     * Index from feature names to features, kept in sync by {@link #addFeature(String)},
+     * {@link #removeFeature(IFeature)}, and renaming of features.
+     * For duplicate names, the first added feature is indexed.
+     */
+    protected final HashMap<String, IFeature> featureNames;
+
+    protected boolean hasDuplicateFeatureNames;
+
+    /**
+     * Index from feature identifiers to the nodes of the feature tree labeled with them.
+     * Kept in sync by the root mutators of this model and by
+     * {@link IFeatureTree.IMutableFeatureTree#addFeatureBelow(IFeature, int, int)},
+     * {@link IFeatureTree.IMutableFeatureTree#addFeatureAbove(IFeature)}, and
+     * {@link IFeatureTree.IMutableFeatureTree#removeFromTree()}, and, for a {@link FeatureTree},
+     * by the generic tree mutators, such as {@link FeatureTree#addChild(IFeatureTree)}.
+     */
+    protected final HashMap<IIdentifier, IFeatureTree> featureTrees;
+
+    /**
+     * Index from variable names to the constraints whose formula references them.
+     * Kept in sync by {@link #addConstraint(IFormula)}, {@link #removeConstraint(IConstraint)}, and
+     * {@link Constraint#setFormula(IFormula)}.
+     */
+    protected final HashMap<String, LinkedHashSet<IConstraint>> referencingConstraints;
+
     protected final LinkedHashMap<IAttribute<?>, Object> attributeValues;
 
+    /**
+     * Number of mutations of this model and its elements, see {@link #getModificationCount()}.
+     */
+    protected long modificationCount;
+
+    /**
+     * Registered listeners, {@code null} until the first listener is added.
+     * As long as there are no listeners, mutations do not allocate any events.
+     */
+    protected ArrayList<IFeatureModelListener> listeners;
+
+    protected int batchDepth;
+    protected ArrayList<FeatureModelEvent> batchedEvents;
+
+    /**
+     * A structural hash together with the modification count it was computed for.
+     * Immutable, so that it can be published to concurrent readers through a single volatile field.
+     */
+    private static final class StructuralHash {
+        private final long hash;
+        private final long modificationCount;
+
+        private StructuralHash(long hash, long modificationCount) {
+            this.hash = hash;
+            this.modificationCount = modificationCount;
+        }
+    }
+
+    /**
+     * The last computed structural hash, {@code null} until it is first requested.
+     */
+    private volatile StructuralHash structuralHash;
+
+    /**
+     * The hashes of the elements of this model, invalidated with each event,
+     * so that the structural hash is updated by only hashing changed elements.
+     */
+    private final FeatureModelStructure.HashCache structuralHashCache = new FeatureModelStructure.HashCache();
+
     public FeatureModel() {
         this(UUIDIdentifier.newInstance());
     }
@@ -59,28 +128,93 @@ public class FeatureModel implements IMutableFeatureModel, IMutatableAttributabl
         featureTreeRoots = new ArrayList<>(1);
         features = Maps.empty();
         constraints = Maps.empty();
+        featureNames = new HashMap<>();
+        featureTrees = new HashMap<>();
+        referencingConstraints = new HashMap<>();
         attributeValues = new LinkedHashMap<>(4);
     }
 
     protected FeatureModel(FeatureModel otherFeatureModel) {
         identifier = otherFeatureModel.getNewIdentifier();
 
-        featureTreeRoots = new ArrayList<>(otherFeatureModel.featureTreeRoots.size());
-        otherFeatureModel.featureTreeRoots.stream().forEach(t -> featureTreeRoots.add(Trees.clone(t)));
-
         features = new LinkedHashMap<>((int) (otherFeatureModel.features.size() * 1.5));
-        otherFeatureModel.features.entrySet().stream()
-                .map(e -> e.getValue().clone(this))
-                .forEach(f -> features.put(f.getIdentifier(), f));
+        HashMap<IIdentifier, IFeature> clonedFeatures =
+                new HashMap<>((int) (otherFeatureModel.features.size() * 1.5));
+        for (IFeature feature : otherFeatureModel.features.values()) {
+            IFeature clonedFeature = feature.clone(this);
+            features.put(clonedFeature.getIdentifier(), clonedFeature);
+            clonedFeatures.put(feature.getIdentifier(), clonedFeature);
+        }
+        featureNames = new HashMap<>((int) (features.size() * 1.5));
+        features.values().forEach(f -> indexFeatureName(f, f.getName().orElse(null)));
+
+        featureTreeRoots = new ArrayList<>(otherFeatureModel.featureTreeRoots.size());
+        otherFeatureModel.featureTreeRoots.stream()
+                .forEach(t -> featureTreeRoots.add(cloneFeatureTree(t, clonedFeatures)));
+        featureTrees = new HashMap<>((int) (otherFeatureModel.featureTrees.size() * 1.5));
+        featureTreeRoots.forEach(this::indexFeatureTree);
 
         constraints = new LinkedHashMap<>((int) (otherFeatureModel.constraints.size() * 1.5));
-        otherFeatureModel.constraints.entrySet().stream()
-                .map(e -> e.getValue().clone(this))
-                .forEach(c -> constraints.put(c.getIdentifier(), c));
+        HashMap<IIdentifier, IConstraint> clonedConstraints =
+                new HashMap<>((int) (otherFeatureModel.constraints.size() * 1.5));
+        for (IConstraint constraint : otherFeatureModel.constraints.values()) {
+            IConstraint clonedConstraint = constraint.clone(this);
+            constraints.put(clonedConstraint.getIdentifier(), clonedConstraint);
+            clonedConstraints.put(constraint.getIdentifier(), clonedConstraint);
+        }
+        // cloned formulas reference the same variables, so the index can be copied instead of traversing them
+        referencingConstraints = new HashMap<>((int) (otherFeatureModel.referencingConstraints.size() * 1.5));
+        otherFeatureModel.referencingConstraints.forEach((name, constraintsWithName) -> {
+            LinkedHashSet<IConstraint> clonedConstraintsWithName =
+                    new LinkedHashSet<>((int) (constraintsWithName.size() * 1.5));
+            constraintsWithName.forEach(c -> clonedConstraintsWithName.add(clonedConstraints.get(c.getIdentifier())));
+            referencingConstraints.put(name, clonedConstraintsWithName);
+        });
 
         attributeValues = otherFeatureModel.cloneAttributes();
     }
 
+    /**
+     * Clones a feature tree and labels the cloned nodes with the corresponding cloned features.
+     */
+    private static IFeatureTree cloneFeatureTree(IFeatureTree featureTree, Map<IIdentifier, IFeature> clonedFeatures) {
+        if (!(featureTree instanceof FeatureTree)) {
+            return Trees.clone(featureTree);
+        }
+        FeatureTree clonedRoot = cloneFeatureTreeNode((FeatureTree) featureTree, clonedFeatures);
+        ArrayDeque<FeatureTree> originals = new ArrayDeque<>();
+        ArrayDeque<FeatureTree> clones = new ArrayDeque<>();
+        originals.push((FeatureTree) featureTree);
+        clones.push(clonedRoot);
+        while (!originals.isEmpty()) {
+            FeatureTree original = originals.pop();
+            FeatureTree clone = clones.pop();
+            for (IFeatureTree child : original.getChildren()) {
+                if (child instanceof FeatureTree) {
+                    FeatureTree clonedChild = cloneFeatureTreeNode((FeatureTree) child, clonedFeatures);
+                    clone.attachChild(clonedChild);
+                    originals.push((FeatureTree) child);
+                    clones.push(clonedChild);
+                } else {
+                    clone.attachChild(Trees.clone(child));
+                }
+            }
+        }
+        return clonedRoot;
+    }
+
+    private static FeatureTree cloneFeatureTreeNode(
+            FeatureTree featureTree, Map<IIdentifier, IFeature> clonedFeatures) {
+        IFeature feature = featureTree.getFeature();
+        return new FeatureTree(featureTree, clonedFeatures.getOrDefault(feature.getIdentifier(), feature));
+    }
+
+    /**
+     * {@return a copy of this feature model}
+     * Copies all features, constraints, constraint formulas, and feature tree nodes, which takes linear time.
+     * Only the attribute maps of features and constraints are copied on write,
+     * that is, they are shared with the clone until either side changes an attribute.
+     */
     @Override
     public FeatureModel clone() {
         return new FeatureModel(this);
@@ -150,12 +284,17 @@ public class FeatureModel implements IMutableFeatureModel, IMutatableAttributabl
         checkType(attribute, value);
         validate(attribute, value);
         attributeValues.put(attribute, value);
+        fireEvent(FeatureModelEvent.Type.ATTRIBUTE_CHANGED, this, attribute);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <S> S removeAttributeValue(Attribute<S> attribute) {
-        return (S) attributeValues.remove(attribute);
+        S value = (S) attributeValues.remove(attribute);
+        if (value != null) {
+            fireEvent(FeatureModelEvent.Type.ATTRIBUTE_CHANGED, this, attribute);
+        }
+        return value;
     }
 
     @Override
@@ -184,30 +323,39 @@ public class FeatureModel implements IMutableFeatureModel, IMutatableAttributabl
     @Override
     public void setName(String name) {
         attributeValues.put(Attributes.NAME, name);
+        fireEvent(FeatureModelEvent.Type.ATTRIBUTE_CHANGED, this, Attributes.NAME);
     }
 
     @Override
     public void setDescription(String description) {
         attributeValues.put(Attributes.DESCRIPTION, description);
+        fireEvent(FeatureModelEvent.Type.ATTRIBUTE_CHANGED, this, Attributes.DESCRIPTION);
     }
 
     @Override
     public IFeatureTree addFeatureTreeRoot(IFeature feature) {
         FeatureTree newTree = new FeatureTree(feature);
         featureTreeRoots.add(newTree);
+        indexFeatureTree(newTree);
+        fireEvent(FeatureModelEvent.Type.FEATURE_TREE_ADDED, newTree, null);
         return newTree;
     }
 
     @Override
     public void addFeatureTreeRoot(IFeatureTree featureTree) {
         featureTreeRoots.add(featureTree);
+        indexFeatureTree(featureTree);
+        fireEvent(FeatureModelEvent.Type.FEATURE_TREE_ADDED, featureTree, null);
     }
 
     @Override
     public void removeFeatureTreeRoot(IFeature feature) {
         for (Iterator<IFeatureTree> it = featureTreeRoots.listIterator(); it.hasNext(); ) {
-            if (it.next().getFeature().equals(feature)) {
+            IFeatureTree featureTree = it.next();
+            if (featureTree.getFeature().equals(feature)) {
                 it.remove();
+                unindexFeatureTree(featureTree);
+                fireEvent(FeatureModelEvent.Type.FEATURE_TREE_REMOVED, featureTree, null);
             }
         }
     }
@@ -217,21 +365,158 @@ public class FeatureModel implements IMutableFeatureModel, IMutatableAttributabl
         for (Iterator<IFeatureTree> it = featureTreeRoots.listIterator(); it.hasNext(); ) {
             if (it.next() == featureTree) {
                 it.remove();
+                unindexFeatureTree(featureTree);
+                fireEvent(FeatureModelEvent.Type.FEATURE_TREE_REMOVED, featureTree, null);
             }
         }
     }
 
+    @Override
+    public Result<IFeatureTree> getFeatureTree(IFeature feature) {
+        Objects.requireNonNull(feature);
+        return Result.ofNullable(featureTrees.get(feature.getIdentifier()));
+    }
+
+    @Override
+    public Result<IFeatureTree> getFeatureTree(String name) {
+        Objects.requireNonNull(name);
+        return getFeature(name).flatMap(this::getFeatureTree);
+    }
+
+    @Override
+    public Result<IFeature> getTreeFeature(IIdentifier identifier) {
+        Objects.requireNonNull(identifier);
+        return Result.ofNullable(featureTrees.get(identifier)).map(IFeatureTree::getFeature);
+    }
+
+    @Override
+    public Result<IFeature> getTreeFeature(String name) {
+        return getFeatureTree(name).map(IFeatureTree::getFeature);
+    }
+
+    @Override
+    public boolean hasTreeFeature(IIdentifier identifier) {
+        return featureTrees.containsKey(identifier);
+    }
+
+    /**
+     * {@return whether the given node is the indexed feature tree of its feature}
+     *
+     * @param featureTree the feature tree node
+     */
+    protected boolean isIndexedFeatureTree(IFeatureTree featureTree) {
+        return featureTrees.get(featureTree.getFeature().getIdentifier()) == featureTree;
+    }
+
+    /**
+     * Adds the given feature tree and all its descendants to the feature tree index.
+     *
+     * @param featureTree the feature tree
+     */
+    protected void indexFeatureTree(IFeatureTree featureTree) {
+        Trees.preOrderStream(featureTree).forEach(this::indexFeatureTreeNode);
+    }
+
+    /**
+     * Removes the given feature tree and all its descendants from the feature tree index.
+     *
+     * @param featureTree the feature tree
+     */
+    protected void unindexFeatureTree(IFeatureTree featureTree) {
+        Trees.preOrderStream(featureTree).forEach(this::unindexFeatureTreeNode);
+    }
+
+    /**
+     * Adds the given node, but not its descendants, to the feature tree index.
+     *
+     * @param featureTree the feature tree node
+     */
+    protected void indexFeatureTreeNode(IFeatureTree featureTree) {
+        featureTrees.putIfAbsent(featureTree.getFeature().getIdentifier(), featureTree);
+    }
+
+    /**
+     * Removes the given node, but not its descendants, from the feature tree index.
+     *
+     * @param featureTree the feature tree node
+     */
+    protected void unindexFeatureTreeNode(IFeatureTree featureTree) {
+        if (isIndexedFeatureTree(featureTree)) {
+            featureTrees.remove(featureTree.getFeature().getIdentifier());
+        }
+    }
+
     @Override
     public IConstraint addConstraint(IFormula formula) {
         IConstraint newConstraint = new Constraint(this, Trees.clone(formula));
         constraints.put(newConstraint.getIdentifier(), newConstraint);
+        indexConstraintFormula(newConstraint, newConstraint.getFormula());
+        fireEvent(FeatureModelEvent.Type.CONSTRAINT_ADDED, newConstraint, null);
         return newConstraint;
     }
 
     @Override
     public boolean removeConstraint(IConstraint constraint) {
         Objects.requireNonNull(constraint);
-        return constraints.remove(constraint.getIdentifier()) != null;
+        IConstraint removedConstraint = constraints.remove(constraint.getIdentifier());
+        if (removedConstraint == null) {
+            return false;
+        }
+        unindexConstraintFormula(removedConstraint, removedConstraint.getFormula());
+        fireEvent(FeatureModelEvent.Type.CONSTRAINT_REMOVED, removedConstraint, null);
+        return true;
+    }
+
+    @Override
+    public LinkedHashSet<IConstraint> getReferencingConstraints(IFeature feature) {
+        Objects.requireNonNull(feature);
+        String name = feature.getName().orElse(null);
+        if (name == null || featureNames.get(name) != feature) {
+            return new LinkedHashSet<>();
+        }
+        LinkedHashSet<IConstraint> constraintsWithName = referencingConstraints.get(name);
+        return constraintsWithName == null ? new LinkedHashSet<>() : new LinkedHashSet<>(constraintsWithName);
+    }
+
+    /**
+     * Updates the constraint index after the formula of a constraint has been replaced.
+     * Does nothing if the constraint is not part of this feature model.
+     *
+     * @param constraint the constraint
+     * @param oldFormula the previous formula
+     * @param newFormula the new formula
+     */
+    protected void updateConstraintFormula(IConstraint constraint, IFormula oldFormula, IFormula newFormula) {
+        if (constraints.get(constraint.getIdentifier()) != constraint) {
+            return;
+        }
+        unindexConstraintFormula(constraint, oldFormula);
+        indexConstraintFormula(constraint, newFormula);
+        fireEvent(FeatureModelEvent.Type.CONSTRAINT_CHANGED, constraint, null);
+    }
+
+    private void indexConstraintFormula(IConstraint constraint, IFormula formula) {
+        if (formula != null) {
+            formula.getVariableStream()
+                    .map(Variable::getName)
+                    .forEach(name -> referencingConstraints
+                            .computeIfAbsent(name, k -> new LinkedHashSet<>())
+                            .add(constraint));
+        }
+    }
+
+    private void unindexConstraintFormula(IConstraint constraint, IFormula formula) {
+        if (formula != null) {
+            formula.getVariableStream().map(Variable::getName).forEach(name -> {
+                LinkedHashSet<IConstraint> constraintsWithName = referencingConstraints.get(name);
+                if (constraintsWithName != null) {
+                    constraintsWithName.remove(constraint);
+                    if (constraintsWithName.isEmpty()) {
+                        referencingConstraints.remove(name);
+                    }
+                }
+            });
+        }
     }
 
     @Override
@@ -240,12 +525,53 @@ public class FeatureModel implements IMutableFeatureModel, IMutatableAttributabl
         Feature feature = new Feature(this);
         feature.setName(name);
         features.put(feature.getIdentifier(), feature);
+        indexFeatureName(feature, name);
+        fireEvent(FeatureModelEvent.Type.FEATURE_ADDED, feature, null);
         return feature;
     }
 
     @Override
     public boolean removeFeature(IFeature feature) {
-        return features.remove(feature.getIdentifier()) != null;
+        IFeature removedFeature = features.remove(feature.getIdentifier());
+        if (removedFeature == null) {
+            return false;
+        }
+        unindexFeatureName(removedFeature, removedFeature.getName().orElse(null));
+        fireEvent(FeatureModelEvent.Type.FEATURE_REMOVED, removedFeature, null);
+        return true;
+    }
+
+    /**
+     * Updates the name index after a feature of this model was renamed.
+     * Called by {@link Feature} whenever its {@link Attributes#NAME name} attribute changes.
+     *
+     * @param feature the renamed feature
+     * @param oldName the previous name
+     * @param newName the new name
+     */
+    protected void updateFeatureName(IFeature feature, String oldName, String newName) {
+        if (!Objects.equals(oldName, newName) && features.containsKey(feature.getIdentifier())) {
+            unindexFeatureName(feature, oldName);
+            indexFeatureName(feature, newName);
+        }
+    }
+
+    private void indexFeatureName(IFeature feature, String name) {
+        if (name != null) {
+            IFeature indexedFeature = featureNames.putIfAbsent(name, feature);
+            if (indexedFeature != null && !indexedFeature.equals(feature)) {
+                hasDuplicateFeatureNames = true;
+            }
+        }
+    }
+
+    private void unindexFeatureName(IFeature feature, String name) {
+        if (name != null && featureNames.remove(name, feature) && hasDuplicateFeatureNames) {
+            features.values().stream()
+                    .filter(f -> f.getName().valueEquals(name))
+                    .findFirst()
+                    .ifPresent(f -> featureNames.put(name, f));
+        }
     }
 
     @Override
@@ -255,10 +581,7 @@ public class FeatureModel implements IMutableFeatureModel, IMutatableAttributabl
 
     @Override
     public Result<IFeature> getFeature(String name) {
-        return Result.ofOptional(features.entrySet().stream()
-                .map(e -> e.getValue())
-                .filter(f -> f.getName().valueEquals(name))
-                .findFirst());
+        return Result.ofNullable(featureNames.get(name));
     }
 
     @Override
@@ -270,4 +593,99 @@ public class FeatureModel implements IMutableFeatureModel, IMutatableAttributabl
     public boolean hasFeature(IFeature feature) {
         return features.containsKey(feature.getIdentifier());
     }
+
+    @Override
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
+    @Override
+    public long getStructuralHash() {
+        long currentModificationCount = modificationCount;
+        StructuralHash currentStructuralHash = structuralHash;
+        if (currentStructuralHash == null || currentStructuralHash.modificationCount != currentModificationCount) {
+            currentStructuralHash = new StructuralHash(structuralHashCache.hash(this), currentModificationCount);
+            structuralHash = currentStructuralHash;
+        }
+        return currentStructuralHash.hash;
+    }
+
+    @Override
+    public void addListener(IFeatureModelListener listener) {
+        Objects.requireNonNull(listener);
+        if (listeners == null) {
+            listeners = new ArrayList<>(2);
+        }
+        listeners.add(listener);
+    }
+
+    @Override
+    public boolean removeListener(IFeatureModelListener listener) {
+        return listeners != null && listeners.remove(listener);
+    }
+
+    @Override
+    public void beginBatch() {
+        batchDepth++;
+    }
+
+    @Override
+    public void endBatch() {
+        if (batchDepth == 0) {
+            throw new IllegalStateException("no batch was started");
+        }
+        if (--batchDepth == 0 && batchedEvents != null && !batchedEvents.isEmpty()) {
+            List<FeatureModelEvent> events = new ArrayList<>(batchedEvents);
+            batchedEvents.clear();
+            notifyListeners(events);
+        }
+    }
+
+    /**
+     * Records a mutation of this feature model and notifies the listeners, unless a batch is running.
+     * An event is only created if there is at least one listener.
+     *
+     * @param type the type of the mutation
+     * @param source the changed element
+     * @param attribute the changed attribute, if any
+     */
+    protected void fireEvent(FeatureModelEvent.Type type, Object source, IAttribute<?> attribute) {
+        modificationCount++;
+        structuralHashCache.invalidate(type, source);
+        if (listeners == null || listeners.isEmpty()) {
+            return;
+        }
+        FeatureModelEvent event = new FeatureModelEvent(this, type, source, attribute);
+        if (batchDepth > 0) {
+            if (batchedEvents == null) {
+                batchedEvents = new ArrayList<>();
+            }
+            batchedEvents.add(event);
+        } else {
+            notifyListeners(List.of(event));
+        }
+    }
+
+    /**
+     * Records a mutation of a feature or constraint.
+     * Does nothing if the element is not part of this feature model.
+     *
+     * @param type the type of the mutation
+     * @param element the changed element
+     * @param attribute the changed attribute, if any
+     */
+    protected void fireElementEvent(
+            FeatureModelEvent.Type type, IFeatureModelElement element, IAttribute<?> attribute) {
+        IIdentifier elementIdentifier = element.getIdentifier();
+        if (features.get(elementIdentifier) == element || constraints.get(elementIdentifier) == element) {
+            fireEvent(type, element, attribute);
+        }
+    }
+
+    private void notifyListeners(List<FeatureModelEvent> events) {
+        List<FeatureModelEvent> unmodifiableEvents = Collections.unmodifiableList(events);
+        for (IFeatureModelListener listener : new ArrayList<>(listeners)) {
+            listener.onChange(unmodifiableEvents);
+        }
+    }
 }
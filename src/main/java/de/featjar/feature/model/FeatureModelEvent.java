@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model;
+
+import de.featjar.base.data.IAttribute;
+import de.featjar.base.data.Result;
+import java.util.Objects;
+
+/**
+ * Describes a single mutation of a {@link FeatureModel} or one of its elements.
+ * Events are only created if the feature model has at least one {@link IFeatureModelListener listener}.
+ */
+public final class FeatureModelEvent {
+
+    /**
+     * The kind of mutation.
+     */
+    public enum Type {
+        /** A feature was added, the source is the {@link IFeature}. */
+        FEATURE_ADDED,
+        /** A feature was removed, the source is the {@link IFeature}. */
+        FEATURE_REMOVED,
+        /** The type of a feature was changed, the source is the {@link IFeature}. */
+        FEATURE_CHANGED,
+        /** A constraint was added, the source is the {@link IConstraint}. */
+        CONSTRAINT_ADDED,
+        /** A constraint was removed, the source is the {@link IConstraint}. */
+        CONSTRAINT_REMOVED,
+        /** The formula of a constraint was replaced, the source is the {@link IConstraint}. */
+        CONSTRAINT_CHANGED,
+        /** A node was added to the feature tree, the source is the added {@link IFeatureTree}. */
+        FEATURE_TREE_ADDED,
+        /** A node was removed from the feature tree, the source is the removed {@link IFeatureTree}. */
+        FEATURE_TREE_REMOVED,
+        /**
+         * The cardinality, groups, group membership, or children of a node were changed,
+         * the source is the {@link IFeatureTree}.
+         */
+        FEATURE_TREE_CHANGED,
+        /**
+         * An attribute value was set or removed, the source is the {@link IFeatureModel}, {@link IFeature},
+         * {@link IConstraint}, or {@link IFeatureTree}.
+         */
+        ATTRIBUTE_CHANGED
+    }
+
+    private final IFeatureModel featureModel;
+    private final Type type;
+    private final Object source;
+    private final IAttribute<?> attribute;
+
+    public FeatureModelEvent(IFeatureModel featureModel, Type type, Object source, IAttribute<?> attribute) {
+        this.featureModel = Objects.requireNonNull(featureModel);
+        this.type = Objects.requireNonNull(type);
+        this.source = Objects.requireNonNull(source);
+        this.attribute = attribute;
+    }
+
+    public IFeatureModel getFeatureModel() {
+        return featureModel;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * {@return the changed element}
+     * Its class depends on the {@link #getType() type} of this event.
+     */
+    public Object getSource() {
+        return source;
+    }
+
+    /**
+     * {@return the changed attribute, present only for events of type {@link Type#ATTRIBUTE_CHANGED}}
+     */
+    public Result<IAttribute<?>> getAttribute() {
+        return Result.ofNullable(attribute);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FeatureModelEvent{type=%s, source=%s}", type, source);
+    }
+}
@@ -0,0 +1,486 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model;
+
+import de.featjar.base.data.IAttributable;
+import de.featjar.base.data.IAttribute;
+import de.featjar.base.tree.Trees;
+import de.featjar.feature.model.FeatureTree.Group;
+import de.featjar.formula.structure.IExpression;
+import de.featjar.formula.structure.IFormula;
+import de.featjar.formula.structure.connective.And;
+import de.featjar.formula.structure.connective.BiImplies;
+import de.featjar.formula.structure.connective.Or;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Structural hashing and comparison of feature models.
+ * Two feature models are structurally equal if they have the same features (by name, type, and attributes),
+ * the same feature trees (by features, cardinalities, groups, and attributes), and the same constraints
+ * (by formula and attributes), regardless of identifiers and of the order of features and constraints.
+ * Formulas are compared regardless of the order of the operands of commutative connectives
+ * ({@link And}, {@link Or}, and {@link BiImplies}).
+ * The hash of a feature tree is computed bottom-up from the hashes of its children, like a Merkle tree.
+ */
+public final class FeatureModelStructure {
+
+    /**
+     * Caches the hashes of the feature tree nodes, features, and constraints of a feature model,
+     * so that the structural hash can be updated after a mutation by only hashing the changed elements.
+     * A changed feature tree node invalidates the hashes of its ancestors.
+     * Kept up to date by the events of {@link FeatureModel}.
+     */
+    static final class HashCache {
+        private final IdentityHashMap<IFeatureTree, Long> subtreeHashes = new IdentityHashMap<>();
+        private final IdentityHashMap<IFeatureModelElement, Long> elementHashes = new IdentityHashMap<>();
+        private final Set<IFeatureModelElement> changedElements = Collections.newSetFromMap(new IdentityHashMap<>());
+        private volatile boolean isInitialized;
+        private long featuresHash;
+        private long constraintsHash;
+
+        /**
+         * {@return the structural hash of the given feature model, hashing only elements changed since the last call}
+         *
+         * @param featureModel the feature model whose events were passed to this cache
+         */
+        synchronized long hash(IFeatureModel featureModel) {
+            if (!isInitialized) {
+                featuresHash = 0;
+                constraintsHash = 0;
+                featureModel.getFeatures().forEach(this::addElement);
+                featureModel.getConstraints().forEach(this::addElement);
+                isInitialized = true;
+            } else {
+                for (IFeatureModelElement element : changedElements) {
+                    if (element instanceof IFeature
+                            ? featureModel.hasFeature((IFeature) element)
+                            : featureModel.hasConstraint((IConstraint) element)) {
+                        addElement(element);
+                    }
+                }
+            }
+            changedElements.clear();
+            return FeatureModelStructure.hash(featureModel.getRoots(), subtreeHashes, featuresHash, constraintsHash);
+        }
+
+        /**
+         * Invalidates the hashes affected by a mutation.
+         * Does nothing until the first hash was computed, without taking the lock of this cache.
+         *
+         * @param type the type of the mutation
+         * @param source the changed element
+         */
+        void invalidate(FeatureModelEvent.Type type, Object source) {
+            if (isInitialized) {
+                invalidateHashes(type, source);
+            }
+        }
+
+        private synchronized void invalidateHashes(FeatureModelEvent.Type type, Object source) {
+            switch (type) {
+                case FEATURE_TREE_ADDED:
+                case FEATURE_TREE_CHANGED:
+                    invalidateTree((IFeatureTree) source);
+                    break;
+                case FEATURE_TREE_REMOVED:
+                    Trees.preOrderStream((IFeatureTree) source).forEach(subtreeHashes::remove);
+                    break;
+                default:
+                    if (source instanceof IFeatureTree) {
+                        invalidateTree((IFeatureTree) source);
+                    } else if (source instanceof IFeature || source instanceof IConstraint) {
+                        invalidateElement((IFeatureModelElement) source);
+                        if (source instanceof IFeature) {
+                            // the feature trees are labeled with the names of the features
+                            ((IFeature) source).getFeatureTree().ifPresent(this::invalidateTree);
+                        }
+                    }
+                    break;
+            }
+        }
+
+        private void addElement(IFeatureModelElement element) {
+            if (element instanceof IFeature) {
+                long hash = hashFeature((IFeature) element);
+                elementHashes.put(element, hash);
+                featuresHash += hash;
+            } else {
+                long hash = hashConstraint((IConstraint) element);
+                elementHashes.put(element, hash);
+                constraintsHash += hash;
+            }
+        }
+
+        private void invalidateElement(IFeatureModelElement element) {
+            Long hash = elementHashes.remove(element);
+            if (hash != null) {
+                if (element instanceof IFeature) {
+                    featuresHash -= hash;
+                } else {
+                    constraintsHash -= hash;
+                }
+            }
+            changedElements.add(element);
+        }
+
+        private void invalidateTree(IFeatureTree featureTree) {
+            subtreeHashes.remove(featureTree);
+            // ancestors of a node without a hash have no hash either
+            for (IFeatureTree node = featureTree.getParent().orElse(null);
+                    node != null && subtreeHashes.remove(node) != null;
+                    node = node.getParent().orElse(null)) {}
+        }
+    }
+
+    private FeatureModelStructure() {}
+
+    /**
+     * {@return the structural hash of the given feature model}
+     * Structurally equal feature models have the same hash.
+     *
+     * @param featureModel the feature model
+     */
+    public static long hash(IFeatureModel featureModel) {
+        // features and constraints are unordered
+        long featuresHash = 0;
+        for (IFeature feature : featureModel.getFeatures()) {
+            featuresHash += hashFeature(feature);
+        }
+        long constraintsHash = 0;
+        for (IConstraint constraint : featureModel.getConstraints()) {
+            constraintsHash += hashConstraint(constraint);
+        }
+        return hash(featureModel.getRoots(), null, featuresHash, constraintsHash);
+    }
+
+    private static long hash(
+            List<? extends IFeatureTree> roots,
+            Map<IFeatureTree, Long> subtreeHashes,
+            long featuresHash,
+            long constraintsHash) {
+        long hash = 1;
+        for (IFeatureTree root : roots) {
+            hash = combine(hash, hash(root, subtreeHashes));
+        }
+        return mix(combine(combine(hash, featuresHash), constraintsHash));
+    }
+
+    /**
+     * {@return the structural hash of the given feature tree, including all its descendants}
+     *
+     * @param featureTree the feature tree
+     */
+    public static long hash(IFeatureTree featureTree) {
+        return hash(featureTree, null);
+    }
+
+    /**
+     * Hashes a feature tree, reusing and storing the hashes of subtrees in the given map, if any.
+     */
+    private static long hash(IFeatureTree featureTree, Map<IFeatureTree, Long> subtreeHashes) {
+        Long cachedHash = subtreeHashes == null ? null : subtreeHashes.get(featureTree);
+        if (cachedHash != null) {
+            return cachedHash;
+        }
+        // children are hashed before their parent without recursion
+        ArrayDeque<IFeatureTree> nodes = new ArrayDeque<>();
+        ArrayDeque<Integer> childIndices = new ArrayDeque<>();
+        ArrayDeque<Long> hashes = new ArrayDeque<>();
+        nodes.push(featureTree);
+        childIndices.push(0);
+        hashes.push(hashNode(featureTree));
+        long hash = 0;
+        while (!nodes.isEmpty()) {
+            IFeatureTree node = nodes.peek();
+            int childIndex = childIndices.pop();
+            List<? extends IFeatureTree> children = node.getChildren();
+            if (childIndex < children.size()) {
+                childIndices.push(childIndex + 1);
+                IFeatureTree child = children.get(childIndex);
+                Long childHash = subtreeHashes == null ? null : subtreeHashes.get(child);
+                if (childHash != null) {
+                    hashes.push(combine(hashes.pop(), childHash));
+                } else {
+                    nodes.push(child);
+                    childIndices.push(0);
+                    hashes.push(hashNode(child));
+                }
+            } else {
+                nodes.pop();
+                hash = mix(hashes.pop());
+                if (subtreeHashes != null) {
+                    subtreeHashes.put(node, hash);
+                }
+                if (!hashes.isEmpty()) {
+                    hashes.push(combine(hashes.pop(), hash));
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * {@return the structural hash of the given formula}
+     * The hash does not depend on the order of the operands of commutative connectives.
+     *
+     * @param formula the formula
+     */
+    public static long hash(IFormula formula) {
+        return hashExpression(formula);
+    }
+
+    /**
+     * {@return whether the given feature models are structurally equal}
+     *
+     * @param featureModel1 the first feature model
+     * @param featureModel2 the second feature model
+     */
+    public static boolean equals(IFeatureModel featureModel1, IFeatureModel featureModel2) {
+        if (featureModel1 == featureModel2) {
+            return true;
+        }
+        if (featureModel1.getNumberOfFeatures() != featureModel2.getNumberOfFeatures()
+                || featureModel1.getNumberOfConstraints() != featureModel2.getNumberOfConstraints()) {
+            return false;
+        }
+        List<IFeatureTree> roots1 = featureModel1.getRoots();
+        List<IFeatureTree> roots2 = featureModel2.getRoots();
+        if (roots1.size() != roots2.size()) {
+            return false;
+        }
+        for (int i = 0; i < roots1.size(); i++) {
+            if (!equals(roots1.get(i), roots2.get(i))) {
+                return false;
+            }
+        }
+
+        HashMap<List<Object>, Integer> features = new HashMap<>();
+        featureModel1.getFeatures().forEach(f -> features.merge(describe(f), 1, Integer::sum));
+        for (IFeature feature : featureModel2.getFeatures()) {
+            if (features.merge(describe(feature), -1, Integer::sum) < 0) {
+                return false;
+            }
+        }
+        HashMap<List<Object>, Integer> constraints = new HashMap<>();
+        featureModel1.getConstraints().forEach(c -> constraints.merge(describe(c), 1, Integer::sum));
+        for (IConstraint constraint : featureModel2.getConstraints()) {
+            if (constraints.merge(describe(constraint), -1, Integer::sum) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@return whether the given feature trees are structurally equal, including all their descendants}
+     *
+     * @param featureTree1 the first feature tree
+     * @param featureTree2 the second feature tree
+     */
+    public static boolean equals(IFeatureTree featureTree1, IFeatureTree featureTree2) {
+        ArrayDeque<IFeatureTree> nodes1 = new ArrayDeque<>();
+        ArrayDeque<IFeatureTree> nodes2 = new ArrayDeque<>();
+        nodes1.add(featureTree1);
+        nodes2.add(featureTree2);
+        while (!nodes1.isEmpty()) {
+            IFeatureTree node1 = nodes1.poll();
+            IFeatureTree node2 = nodes2.poll();
+            if (!equalsNode(node1, node2)) {
+                return false;
+            }
+            nodes1.addAll(node1.getChildren());
+            nodes2.addAll(node2.getChildren());
+        }
+        return true;
+    }
+
+    private static boolean equalsNode(IFeatureTree node1, IFeatureTree node2) {
+        return node1.getChildrenCount() == node2.getChildrenCount()
+                && node1.getFeatureCardinalityLowerBound() == node2.getFeatureCardinalityLowerBound()
+                && node1.getFeatureCardinalityUpperBound() == node2.getFeatureCardinalityUpperBound()
+                && node1.getParentGroupID() == node2.getParentGroupID()
+                && Objects.equals(
+                        node1.getFeature().getName().orElse(null),
+                        node2.getFeature().getName().orElse(null))
+                && equalsGroups(node1.getChildrenGroups(), node2.getChildrenGroups())
+                && Objects.equals(getAttributes(node1), getAttributes(node2));
+    }
+
+    private static boolean equalsGroups(List<Group> groups1, List<Group> groups2) {
+        if (groups1.size() != groups2.size()) {
+            return false;
+        }
+        for (int i = 0; i < groups1.size(); i++) {
+            Group group1 = groups1.get(i);
+            Group group2 = groups2.get(i);
+            if (group1 == null || group2 == null) {
+                if (group1 != group2) {
+                    return false;
+                }
+            } else if (group1.getLowerBound() != group2.getLowerBound()
+                    || group1.getUpperBound() != group2.getUpperBound()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hashNode(IFeatureTree node) {
+        long hash = Objects.hashCode(node.getFeature().getName().orElse(null));
+        hash = combine(hash, node.getFeatureCardinalityLowerBound());
+        hash = combine(hash, node.getFeatureCardinalityUpperBound());
+        hash = combine(hash, node.getParentGroupID());
+        for (Group group : node.getChildrenGroups()) {
+            hash = group == null
+                    ? combine(hash, 0)
+                    : combine(combine(hash, group.getLowerBound()), group.getUpperBound());
+        }
+        return combine(hash, getAttributes(node).hashCode());
+    }
+
+    private static List<Object> describe(IFeature feature) {
+        return List.of(String.valueOf(feature.getType()), getAttributes(feature));
+    }
+
+    private static List<Object> describe(IConstraint constraint) {
+        return List.of(new NormalizedFormula(constraint.getFormula()), getAttributes(constraint));
+    }
+
+    /**
+     * Compares a formula regardless of the order of the operands of commutative connectives.
+     */
+    private static final class NormalizedFormula {
+        private final IFormula formula;
+        private final int hashCode;
+
+        private NormalizedFormula(IFormula formula) {
+            this.formula = formula;
+            hashCode = Long.hashCode(hashExpression(formula));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            NormalizedFormula other = (NormalizedFormula) o;
+            return hashCode == other.hashCode && equalsExpression(formula, other.formula);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static boolean isCommutative(IExpression expression) {
+        return expression instanceof And || expression instanceof Or || expression instanceof BiImplies;
+    }
+
+    private static long hashExpression(IExpression expression) {
+        long hash = expression.hashCodeNode();
+        List<? extends IExpression> children = expression.getChildren();
+        if (isCommutative(expression)) {
+            // sums of mixed hashes do not depend on the order of the operands
+            long childrenHash = 0;
+            for (IExpression child : children) {
+                childrenHash += mix(hashExpression(child));
+            }
+            return combine(hash, childrenHash);
+        }
+        for (IExpression child : children) {
+            hash = combine(hash, hashExpression(child));
+        }
+        return hash;
+    }
+
+    private static boolean equalsExpression(IExpression expression1, IExpression expression2) {
+        if (!expression1.equalsNode(expression2)) {
+            return false;
+        }
+        List<? extends IExpression> children1 = expression1.getChildren();
+        List<? extends IExpression> children2 = expression2.getChildren();
+        if (children1.size() != children2.size()) {
+            return false;
+        }
+        if (!isCommutative(expression1)) {
+            for (int i = 0; i < children1.size(); i++) {
+                if (!equalsExpression(children1.get(i), children2.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        // each operand must be matched by a distinct operand of the other expression
+        boolean[] isMatched = new boolean[children2.size()];
+        for (IExpression child1 : children1) {
+            boolean hasMatch = false;
+            for (int i = 0; i < children2.size() && !hasMatch; i++) {
+                if (!isMatched[i] && equalsExpression(child1, children2.get(i))) {
+                    isMatched[i] = true;
+                    hasMatch = true;
+                }
+            }
+            if (!hasMatch) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hashFeature(IFeature feature) {
+        return mix(combine(Objects.hashCode(feature.getType()), hashAttributes(feature)));
+    }
+
+    private static long hashConstraint(IConstraint constraint) {
+        return mix(combine(hashExpression(constraint.getFormula()), hashAttributes(constraint)));
+    }
+
+    private static long hashAttributes(IFeatureModelElement element) {
+        return getAttributes(element).hashCode();
+    }
+
+    private static Map<IAttribute<?>, Object> getAttributes(IAttributable element) {
+        return element.getAttributes().orElse(Map.of());
+    }
+
+    private static long combine(long hash, long value) {
+        return 31 * hash + value;
+    }
+
+    /**
+     * Spreads the bits of a hash (finalizer of MurmurHash3), so that sums of hashes do not collide easily.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
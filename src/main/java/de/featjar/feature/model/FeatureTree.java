@@ -28,31 +28,56 @@ import de.featjar.base.tree.structure.ITree;
 import de.featjar.feature.model.IFeatureTree.IMutableFeatureTree;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 public class FeatureTree extends ARootedTree<IFeatureTree> implements IMutableFeatureTree {
 
-    public final class Group {
+    /**
+     * A group of children of a feature tree node, with a cardinality that bounds how many of its children
+     * may be selected.
+     */
+    public static final class Group {
+        private final IFeatureTree featureTree;
         private Range groupCardinality;
 
-        private Group(int lowerBound, int upperBound) {
+        private Group(IFeatureTree featureTree, int lowerBound, int upperBound) {
+            this.featureTree = Objects.requireNonNull(featureTree);
             this.groupCardinality = Range.of(lowerBound, upperBound);
         }
 
+        /**
+         * Creates a group that does not belong to any feature tree node, so it has no group siblings.
+         *
+         * @param groupRange the group cardinality
+         */
         public Group(Range groupRange) {
+            this.featureTree = null;
             this.groupCardinality = Range.copy(groupRange);
         }
 
-        private Group(Group otherGroup) {
+        /**
+         * Creates a group of children of the given feature tree node.
+         *
+         * @param featureTree the feature tree node whose children are grouped
+         * @param groupRange the group cardinality
+         */
+        public Group(IFeatureTree featureTree, Range groupRange) {
+            this.featureTree = Objects.requireNonNull(featureTree);
+            this.groupCardinality = Range.copy(groupRange);
+        }
+
+        private Group(IFeatureTree featureTree, Group otherGroup) {
+            this.featureTree = Objects.requireNonNull(featureTree);
             this.groupCardinality = Range.copy(otherGroup.groupCardinality);
         }
 
-        private void setBounds(int lowerBound, int upperBound) {
+        void setBounds(int lowerBound, int upperBound) {
             groupCardinality.setBounds(lowerBound, upperBound);
         }
 
@@ -85,12 +110,8 @@ public class FeatureTree extends ARootedTree<IFeatureTree> implements IMutableFe
         }
 
         public List<IFeatureTree> getGroupSiblings() {
-            IFeatureTree parent = getParent().orElse(null);
-            return (parent == null)
-                    ? List.of()
-                    : parent.getChildren().stream()
-                            .filter(t -> t.getParentGroupID() == parentGroupID)
-                            .collect(Collectors.toList());
+            IFeatureTree parent = featureTree == null ? null : featureTree.getParent().orElse(null);
+            return (parent == null) ? List.of() : parent.getChildren(featureTree.getParentGroupID());
         }
 
         @Override
@@ -105,7 +126,16 @@ public class FeatureTree extends ARootedTree<IFeatureTree> implements IMutableFe
 
         @Override
         protected Group clone() {
-            return new Group(this);
+            return new Group(featureTree, this);
+        }
+
+        /**
+         * {@return a copy of this group for the given feature tree node}
+         *
+         * @param featureTree the feature tree node whose children are grouped by the copy
+         */
+        Group clone(IFeatureTree featureTree) {
+            return new Group(featureTree, this);
         }
 
         @Override
@@ -123,19 +153,29 @@ public class FeatureTree extends ARootedTree<IFeatureTree> implements IMutableFe
 
     protected LinkedHashMap<IAttribute<?>, Object> attributeValues;
 
+    /**
+     * The children of each group, in the order of {@link #getChildren()}.
+     * Updated by every mutator that adds or removes children or changes their group.
+     */
+    protected ArrayList<ArrayList<IFeatureTree>> groupChildren = new ArrayList<>(1);
+
     protected FeatureTree(IFeature feature) {
         this.feature = Objects.requireNonNull(feature);
         cardinality = Range.of(0, 1);
         childrenGroups = new ArrayList<>(1);
-        childrenGroups.add(new Group(Range.atLeast(0)));
+        childrenGroups.add(new Group(this, Range.atLeast(0)));
     }
 
     protected FeatureTree(FeatureTree otherFeatureTree) {
-        feature = otherFeatureTree.feature;
+        this(otherFeatureTree, otherFeatureTree.feature);
+    }
+
+    protected FeatureTree(FeatureTree otherFeatureTree, IFeature feature) {
+        this.feature = Objects.requireNonNull(feature);
         parentGroupID = otherFeatureTree.parentGroupID;
         cardinality = otherFeatureTree.cardinality.clone();
         childrenGroups = new ArrayList<>(otherFeatureTree.childrenGroups.size());
-        otherFeatureTree.childrenGroups.stream().map(Group::clone).forEach(childrenGroups::add);
+        otherFeatureTree.childrenGroups.stream().map(g -> g.clone(this)).forEach(childrenGroups::add);
         attributeValues = otherFeatureTree.cloneAttributes();
     }
 
@@ -166,9 +206,173 @@ public class FeatureTree extends ARootedTree<IFeatureTree> implements IMutableFe
 
     @Override
     public List<IFeatureTree> getChildren(int groupID) {
-        return getChildren().stream()
-                .filter(c -> c.getParentGroupID() == groupID)
-                .collect(Collectors.toList());
+        return groupID >= 0 && groupID < groupChildren.size()
+                ? Collections.unmodifiableList(groupChildren.get(groupID))
+                : List.of();
+    }
+
+    private ArrayList<IFeatureTree> getGroupChildren(int groupID) {
+        while (groupChildren.size() <= groupID) {
+            groupChildren.add(new ArrayList<>());
+        }
+        return groupChildren.get(groupID);
+    }
+
+    /**
+     * Inserts the child at the given index of the children into the list of its group,
+     * behind all children of the group with a smaller index.
+     */
+    private void addGroupChild(int index, IFeatureTree child) {
+        int groupID = child.getParentGroupID();
+        ArrayList<IFeatureTree> siblings = getGroupChildren(groupID);
+        List<IFeatureTree> children = getChildren();
+        if (index == children.size() - 1) {
+            siblings.add(child);
+        } else {
+            int position = 0;
+            for (int i = 0; i < index; i++) {
+                if (children.get(i).getParentGroupID() == groupID) {
+                    position++;
+                }
+            }
+            siblings.add(position, child);
+        }
+    }
+
+    private void removeGroupChild(IFeatureTree child) {
+        int groupID = child.getParentGroupID();
+        if (groupID >= 0 && groupID < groupChildren.size()) {
+            ArrayList<IFeatureTree> siblings = groupChildren.get(groupID);
+            for (int i = 0; i < siblings.size(); i++) {
+                if (siblings.get(i) == child) {
+                    siblings.remove(i);
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void addChild(int index, IFeatureTree newChild) {
+        attachChild(index, newChild);
+        childAdded(newChild);
+    }
+
+    @Override
+    public void addChild(IFeatureTree newChild) {
+        attachChild(newChild);
+        childAdded(newChild);
+    }
+
+    @Override
+    public void removeChild(IFeatureTree child) {
+        detachChild(child);
+        childRemoved(child);
+    }
+
+    @Override
+    public IFeatureTree removeChild(int index) {
+        IFeatureTree child = detachChild(index);
+        childRemoved(child);
+        return child;
+    }
+
+    @Override
+    public void replaceChild(IFeatureTree oldChild, IFeatureTree newChild) {
+        exchangeChild(oldChild, newChild);
+        childRemoved(oldChild);
+        childAdded(newChild);
+    }
+
+    @Override
+    public void setChildren(List<? extends IFeatureTree> children) {
+        Set<IFeatureTree> oldChildren = Collections.newSetFromMap(new IdentityHashMap<>());
+        oldChildren.addAll(getChildren());
+        super.setChildren(children);
+        groupChildren.clear();
+        for (IFeatureTree child : getChildren()) {
+            getGroupChildren(child.getParentGroupID()).add(child);
+        }
+        fireEvent(FeatureModelEvent.Type.FEATURE_TREE_CHANGED, null);
+        for (IFeatureTree child : getChildren()) {
+            if (!oldChildren.remove(child)) {
+                childAdded(child);
+            }
+        }
+        for (IFeatureTree oldChild : oldChildren) {
+            childRemoved(oldChild);
+        }
+    }
+
+    /**
+     * Adds a child without notifying the feature model.
+     * All changes of the children end up in {@link #setChildren(List)} or one of the following methods,
+     * which also update the children of the affected groups.
+     */
+    void attachChild(int index, IFeatureTree newChild) {
+        super.addChild(index, newChild);
+        addGroupChild(index, newChild);
+    }
+
+    void attachChild(IFeatureTree newChild) {
+        super.addChild(newChild);
+        addGroupChild(getChildrenCount() - 1, newChild);
+    }
+
+    void detachChild(IFeatureTree child) {
+        super.removeChild(child);
+        removeGroupChild(child);
+    }
+
+    IFeatureTree detachChild(int index) {
+        IFeatureTree child = super.removeChild(index);
+        removeGroupChild(child);
+        return child;
+    }
+
+    void exchangeChild(IFeatureTree oldChild, IFeatureTree newChild) {
+        int index = getChildIndex(oldChild).orElseThrow();
+        super.replaceChild(oldChild, newChild);
+        removeGroupChild(oldChild);
+        addGroupChild(index, newChild);
+    }
+
+    /**
+     * Notifies the feature model about a child added by a generic tree mutator.
+     * A child that is not yet part of the feature tree of the model is indexed together with its descendants.
+     * Does nothing if this node is not part of the feature tree of the model.
+     */
+    private void childAdded(IFeatureTree child) {
+        FeatureModel featureModel = getIndexingFeatureModel();
+        if (featureModel != null && featureModel.isIndexedFeatureTree(this)) {
+            if (featureModel.isIndexedFeatureTree(child)) {
+                featureModel.fireEvent(FeatureModelEvent.Type.FEATURE_TREE_CHANGED, this, null);
+            } else {
+                featureModel.indexFeatureTree(child);
+                featureModel.fireEvent(FeatureModelEvent.Type.FEATURE_TREE_ADDED, child, null);
+            }
+        }
+    }
+
+    /**
+     * Notifies the feature model about a child removed by a generic tree mutator.
+     * The child is removed from the index together with its descendants.
+     * Does nothing if this node is not part of the feature tree of the model.
+     */
+    private void childRemoved(IFeatureTree child) {
+        FeatureModel featureModel = getIndexingFeatureModel();
+        if (featureModel != null && featureModel.isIndexedFeatureTree(this)) {
+            featureModel.beginBatch();
+            try {
+                featureModel.fireEvent(FeatureModelEvent.Type.FEATURE_TREE_CHANGED, this, null);
+                if (featureModel.isIndexedFeatureTree(child)) {
+                    featureModel.unindexFeatureTree(child);
+                    featureModel.fireEvent(FeatureModelEvent.Type.FEATURE_TREE_REMOVED, child, null);
+                }
+            } finally {
+                featureModel.endBatch();
+            }
+        }
     }
 
     @Override
@@ -218,28 +422,36 @@ public class FeatureTree extends ARootedTree<IFeatureTree> implements IMutableFe
 
     @Override
     public int addCardinalityGroup(int lowerBound, int upperBound) {
-        childrenGroups.add(new Group(lowerBound, upperBound));
+        childrenGroups.add(new Group(this, lowerBound, upperBound));
+        fireEvent(FeatureModelEvent.Type.FEATURE_TREE_CHANGED, null);
         return childrenGroups.size() - 1;
     }
 
     @Override
     public int addCardinalityGroup(Range groupRange) {
-        childrenGroups.add(new Group(groupRange));
+        childrenGroups.add(new Group(this, groupRange));
+        fireEvent(FeatureModelEvent.Type.FEATURE_TREE_CHANGED, null);
         return childrenGroups.size() - 1;
     }
 
     public void setParentGroupID(int groupID) {
         if (parent == null) throw new IllegalArgumentException("Cannot set groupID for root feature!");
-        if (groupID < 0) throw new IllegalArgumentException(String.format("groupID must be positive (%d)", groupID));
-        if (groupID >= parent.getChildrenGroups().size())
-            throw new IllegalArgumentException(
-                    String.format("groupID must be smaller than number of groups in parent feature (%d)", groupID));
-        this.parentGroupID = groupID;
+        checkGroupID(parent, groupID);
+        if (parent instanceof FeatureTree) {
+            FeatureTree featureTree = (FeatureTree) parent;
+            featureTree.removeGroupChild(this);
+            this.parentGroupID = groupID;
+            featureTree.addGroupChild(featureTree.getChildIndex(this).orElseThrow(), this);
+        } else {
+            this.parentGroupID = groupID;
+        }
+        fireEvent(FeatureModelEvent.Type.FEATURE_TREE_CHANGED, null);
     }
 
     @Override
     public void setFeatureCardinality(Range featureCardinality) {
         this.cardinality = Range.copy(featureCardinality);
+        fireEvent(FeatureModelEvent.Type.FEATURE_TREE_CHANGED, null);
     }
 
     @Override
@@ -249,11 +461,13 @@ public class FeatureTree extends ARootedTree<IFeatureTree> implements IMutableFe
         } else {
             cardinality.setLowerBound(1);
         }
+        fireEvent(FeatureModelEvent.Type.FEATURE_TREE_CHANGED, null);
     }
 
     @Override
     public void makeOptional() {
         cardinality.setLowerBound(0);
+        fireEvent(FeatureModelEvent.Type.FEATURE_TREE_CHANGED, null);
     }
 
     @Override
@@ -268,6 +482,7 @@ public class FeatureTree extends ARootedTree<IFeatureTree> implements IMutableFe
             attributeValues = new LinkedHashMap<>();
         }
         attributeValues.put(attribute, value);
+        fireEvent(FeatureModelEvent.Type.ATTRIBUTE_CHANGED, attribute);
     }
 
     @Override
@@ -276,7 +491,95 @@ public class FeatureTree extends ARootedTree<IFeatureTree> implements IMutableFe
         if (attributeValues == null) {
             attributeValues = new LinkedHashMap<>();
         }
-        return (S) attributeValues.remove(attribute);
+        S value = (S) attributeValues.remove(attribute);
+        if (value != null) {
+            fireEvent(FeatureModelEvent.Type.ATTRIBUTE_CHANGED, attribute);
+        }
+        return value;
+    }
+
+    @Override
+    public IFeatureTree addFeatureBelow(IFeature newFeature, int index, int groupID) {
+        checkGroupID(this, groupID);
+        FeatureTree newTree = new FeatureTree(newFeature);
+        newTree.parentGroupID = groupID;
+        addChild(index, newTree);
+        return newTree;
+    }
+
+    @Override
+    public IFeatureTree addFeatureAbove(IFeature newFeature) {
+        if (!(parent == null || parent instanceof FeatureTree)) {
+            return IMutableFeatureTree.super.addFeatureAbove(newFeature);
+        }
+        FeatureModel featureModel = getIndexingFeatureModel();
+        boolean isIndexed = featureModel != null && featureModel.isIndexedFeatureTree(this);
+        FeatureTree newTree = new FeatureTree(newFeature);
+        if (parent != null) {
+            ((FeatureTree) parent).exchangeChild(this, newTree);
+        }
+        parentGroupID = 0;
+        newTree.attachChild(this);
+        if (isIndexed) {
+            featureModel.fireEvent(FeatureModelEvent.Type.FEATURE_TREE_CHANGED, this, null);
+            featureModel.indexFeatureTreeNode(newTree);
+            featureModel.fireEvent(FeatureModelEvent.Type.FEATURE_TREE_ADDED, newTree, null);
+        }
+        return newTree;
+    }
+
+    @Override
+    public void removeFromTree() {
+        if (!(parent instanceof FeatureTree)) {
+            IMutableFeatureTree.super.removeFromTree();
+            return;
+        }
+        FeatureTree formerParent = (FeatureTree) parent;
+        FeatureModel featureModel = getIndexingFeatureModel();
+        boolean isIndexed = featureModel != null && featureModel.isIndexedFeatureTree(this);
+        int childIndex = formerParent.getChildIndex(this).orElseThrow();
+        formerParent.detachChild(this);
+        // TODO improve group handling, probably needs slicing
+        for (Group group : childrenGroups) {
+            formerParent.childrenGroups.add(group.clone(formerParent));
+        }
+        for (IFeatureTree child : new ArrayList<>(getChildren())) {
+            formerParent.attachChild(childIndex++, child);
+        }
+        if (isIndexed) {
+            // deliver the events of moving the children and removing this node together
+            featureModel.beginBatch();
+            try {
+                featureModel.unindexFeatureTreeNode(this);
+                featureModel.fireEvent(FeatureModelEvent.Type.FEATURE_TREE_CHANGED, formerParent, null);
+                featureModel.fireEvent(FeatureModelEvent.Type.FEATURE_TREE_REMOVED, this, null);
+            } finally {
+                featureModel.endBatch();
+            }
+        }
+    }
+
+    private static void checkGroupID(IFeatureTree parent, int groupID) {
+        if (groupID < 0) throw new IllegalArgumentException(String.format("groupID must be positive (%d)", groupID));
+        if (groupID >= parent.getChildrenGroups().size())
+            throw new IllegalArgumentException(
+                    String.format("groupID must be smaller than number of groups in parent feature (%d)", groupID));
+    }
+
+    /**
+     * Notifies the feature model about a change of this node.
+     * Does nothing if this node is not part of the feature tree of the model.
+     */
+    private void fireEvent(FeatureModelEvent.Type type, IAttribute<?> attribute) {
+        FeatureModel featureModel = getIndexingFeatureModel();
+        if (featureModel != null && featureModel.isIndexedFeatureTree(this)) {
+            featureModel.fireEvent(type, this, attribute);
+        }
+    }
+
+    private FeatureModel getIndexingFeatureModel() {
+        IFeatureModel featureModel = feature.getFeatureModel();
+        return featureModel instanceof FeatureModel ? (FeatureModel) featureModel : null;
     }
 
     @Override
@@ -284,6 +587,7 @@ public class FeatureTree extends ARootedTree<IFeatureTree> implements IMutableFe
         Group group = getChildrenGroups().get(groupID);
         if (group != null) {
             group.setBounds(lowerBound, upperBound);
+            fireEvent(FeatureModelEvent.Type.FEATURE_TREE_CHANGED, null);
         }
     }
 }
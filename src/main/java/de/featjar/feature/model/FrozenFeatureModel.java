@@ -0,0 +1,705 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model;
+
+import de.featjar.base.data.IAttribute;
+import de.featjar.base.data.Range;
+import de.featjar.base.data.Result;
+import de.featjar.base.data.identifier.IIdentifier;
+import de.featjar.base.tree.Trees;
+import de.featjar.base.tree.structure.ARootedTree;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.feature.model.FeatureTree.Group;
+import de.featjar.formula.structure.IFormula;
+import de.featjar.formula.structure.term.value.Variable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * An immutable snapshot of a feature model, created by {@link IFeatureModel#freeze()}.
+ * All indices are built once, so that a frozen feature model can be read by any number of threads
+ * without synchronization.
+ * The nodes of all feature trees are stored in breadth-first order, such that the children of each node
+ * are adjacent, and their structure is kept in flat arrays instead of per-node lists.
+ * Feature names are interned, and the formulas of constraints are copied.
+ * Features, constraints, and feature tree nodes keep the identifiers of the elements they were created from.
+ * All mutators throw an {@link UnsupportedOperationException}.
+ * Cloning a feature tree node of a frozen feature model creates a mutable {@link FeatureTree}.
+ */
+public final class FrozenFeatureModel implements IFeatureModel {
+
+    private final IIdentifier identifier;
+    private final Map<IAttribute<?>, Object> attributeValues;
+
+    private final List<IFeature> features;
+    private final List<IConstraint> constraints;
+    private final HashMap<IIdentifier, IFeature> featureIndex;
+    private final HashMap<String, IFeature> featureNames;
+    private final HashMap<IIdentifier, IConstraint> constraintIndex;
+    private final HashMap<String, IConstraint[]> referencingConstraints;
+
+    private final List<IFeatureTree> roots;
+    private final HashMap<IIdentifier, IFeatureTree> featureTrees;
+
+    // structure of the feature tree nodes, indexed by their breadth-first position
+    private final IFeatureTree[] nodes;
+    private final IFeature[] nodeFeatures;
+    private final int[] parents;
+    private final int[] firstChildren;
+    private final int[] childrenCounts;
+    private final int[] parentGroupIDs;
+    private final int[] lowerBounds;
+    private final int[] upperBounds;
+    private final Map<IAttribute<?>, Object>[] nodeAttributeValues;
+
+    // children groups of node i are groups[firstGroups[i]] to groups[firstGroups[i + 1] - 1]
+    private final Group[] groups;
+    private final int[] firstGroups;
+
+    private volatile Long structuralHash;
+
+    /**
+     * Creates a frozen copy of the given feature model.
+     *
+     * @param featureModel the feature model
+     */
+    @SuppressWarnings("unchecked")
+    FrozenFeatureModel(IFeatureModel featureModel) {
+        identifier = featureModel.getIdentifier();
+        attributeValues = freezeAttributes(featureModel.cloneAttributes());
+
+        Collection<IFeature> originalFeatures = featureModel.getFeatures();
+        IFeature[] frozenFeatures = new IFeature[originalFeatures.size()];
+        featureIndex = new HashMap<>((int) (frozenFeatures.length * 1.5));
+        featureNames = new HashMap<>((int) (frozenFeatures.length * 1.5));
+        int featureIndexCounter = 0;
+        for (IFeature feature : originalFeatures) {
+            IFeature frozenFeature = new FrozenFeature(feature);
+            frozenFeatures[featureIndexCounter++] = frozenFeature;
+            featureIndex.put(frozenFeature.getIdentifier(), frozenFeature);
+            String name = frozenFeature.getName().orElse(null);
+            if (name != null) {
+                featureNames.putIfAbsent(name, frozenFeature);
+            }
+        }
+        features = Collections.unmodifiableList(Arrays.asList(frozenFeatures));
+
+        Collection<IConstraint> originalConstraints = featureModel.getConstraints();
+        IConstraint[] frozenConstraints = new IConstraint[originalConstraints.size()];
+        constraintIndex = new HashMap<>((int) (frozenConstraints.length * 1.5));
+        HashMap<String, ArrayList<IConstraint>> constraintsByName = new HashMap<>();
+        int constraintIndexCounter = 0;
+        for (IConstraint constraint : originalConstraints) {
+            IConstraint frozenConstraint = new FrozenConstraint(constraint);
+            frozenConstraints[constraintIndexCounter++] = frozenConstraint;
+            constraintIndex.put(frozenConstraint.getIdentifier(), frozenConstraint);
+            IFormula formula = frozenConstraint.getFormula();
+            if (formula != null) {
+                formula.getVariableStream().map(Variable::getName).distinct().forEach(name -> constraintsByName
+                        .computeIfAbsent(name, k -> new ArrayList<>(2))
+                        .add(frozenConstraint));
+            }
+        }
+        constraints = Collections.unmodifiableList(Arrays.asList(frozenConstraints));
+        referencingConstraints = new HashMap<>((int) (constraintsByName.size() * 1.5));
+        constraintsByName.forEach((name, constraintsWithName) ->
+                referencingConstraints.put(name, constraintsWithName.toArray(new IConstraint[0])));
+
+        // lay out all nodes in breadth-first order, so that siblings are adjacent
+        ArrayList<IFeatureTree> originalNodes = new ArrayList<>(frozenFeatures.length);
+        List<IFeatureTree> originalRoots = featureModel.getRoots();
+        originalNodes.addAll(originalRoots);
+        for (int i = 0; i < originalNodes.size(); i++) {
+            originalNodes.addAll(originalNodes.get(i).getChildren());
+        }
+
+        int nodeCount = originalNodes.size();
+        nodes = new IFeatureTree[nodeCount];
+        nodeFeatures = new IFeature[nodeCount];
+        parents = new int[nodeCount];
+        firstChildren = new int[nodeCount];
+        childrenCounts = new int[nodeCount];
+        parentGroupIDs = new int[nodeCount];
+        lowerBounds = new int[nodeCount];
+        upperBounds = new int[nodeCount];
+        nodeAttributeValues = new Map[nodeCount];
+        firstGroups = new int[nodeCount + 1];
+        ArrayList<Group> frozenGroups = new ArrayList<>(nodeCount);
+        featureTrees = new HashMap<>((int) (nodeCount * 1.5));
+        Arrays.fill(parents, -1);
+
+        int firstChild = originalRoots.size();
+        for (int i = 0; i < nodeCount; i++) {
+            IFeatureTree originalNode = originalNodes.get(i);
+            FrozenFeatureTree node = new FrozenFeatureTree(i);
+            nodes[i] = node;
+            IFeature feature = originalNode.getFeature();
+            IFeature frozenFeature = featureIndex.get(feature.getIdentifier());
+            nodeFeatures[i] = frozenFeature != null ? frozenFeature : new FrozenFeature(feature);
+            featureTrees.putIfAbsent(feature.getIdentifier(), node);
+
+            int childrenCount = originalNode.getChildrenCount();
+            firstChildren[i] = firstChild;
+            childrenCounts[i] = childrenCount;
+            for (int j = firstChild; j < firstChild + childrenCount; j++) {
+                parents[j] = i;
+            }
+            firstChild += childrenCount;
+            parentGroupIDs[i] = originalNode.getParentGroupID();
+            lowerBounds[i] = originalNode.getFeatureCardinalityLowerBound();
+            upperBounds[i] = originalNode.getFeatureCardinalityUpperBound();
+            nodeAttributeValues[i] = freezeAttributes(originalNode.cloneAttributes());
+
+            firstGroups[i] = frozenGroups.size();
+            for (Group group : originalNode.getChildrenGroups()) {
+                frozenGroups.add(group == null ? null : group.clone(node));
+            }
+        }
+        firstGroups[nodeCount] = frozenGroups.size();
+        groups = frozenGroups.toArray(new Group[0]);
+        roots = Collections.unmodifiableList(Arrays.asList(nodes).subList(0, originalRoots.size()));
+    }
+
+    private static Map<IAttribute<?>, Object> freezeAttributes(Map<IAttribute<?>, Object> attributeValues) {
+        if (attributeValues == null || attributeValues.isEmpty()) {
+            return null;
+        }
+        LinkedHashMap<IAttribute<?>, Object> frozenAttributeValues = new LinkedHashMap<>(attributeValues);
+        frozenAttributeValues.computeIfPresent(Attributes.NAME, (attribute, name) -> ((String) name).intern());
+        return Collections.unmodifiableMap(frozenAttributeValues);
+    }
+
+    private static UnsupportedOperationException frozen() {
+        return new UnsupportedOperationException("frozen feature models cannot be mutated");
+    }
+
+    /**
+     * {@inheritDoc}
+     * As this feature model cannot change, it is returned itself.
+     */
+    @Override
+    public FrozenFeatureModel clone() {
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     * As this feature model is already frozen, it is returned itself.
+     */
+    @Override
+    public FrozenFeatureModel freeze() {
+        return this;
+    }
+
+    @Override
+    public IMutableFeatureModel mutate() {
+        throw frozen();
+    }
+
+    @Override
+    public FrozenFeatureModel getFeatureModel() {
+        return this;
+    }
+
+    @Override
+    public IIdentifier getIdentifier() {
+        return identifier;
+    }
+
+    @Override
+    public Optional<Map<IAttribute<?>, Object>> getAttributes() {
+        return Optional.of(attributeValues == null ? Map.of() : attributeValues);
+    }
+
+    @Override
+    public Collection<IFeature> getFeatures() {
+        return features;
+    }
+
+    @Override
+    public int getNumberOfFeatures() {
+        return features.size();
+    }
+
+    @Override
+    public Result<IFeature> getFeature(IIdentifier identifier) {
+        return Result.of(featureIndex.get(Objects.requireNonNull(identifier)));
+    }
+
+    @Override
+    public Result<IFeature> getFeature(String name) {
+        return Result.ofNullable(featureNames.get(name));
+    }
+
+    @Override
+    public boolean hasFeature(IIdentifier identifier) {
+        return featureIndex.containsKey(identifier);
+    }
+
+    @Override
+    public boolean hasFeature(IFeature feature) {
+        return featureIndex.containsKey(feature.getIdentifier());
+    }
+
+    @Override
+    public Collection<IConstraint> getConstraints() {
+        return constraints;
+    }
+
+    @Override
+    public Result<IConstraint> getConstraint(IIdentifier identifier) {
+        return Result.of(constraintIndex.get(Objects.requireNonNull(identifier)));
+    }
+
+    @Override
+    public boolean hasConstraint(IIdentifier identifier) {
+        return constraintIndex.containsKey(identifier);
+    }
+
+    @Override
+    public boolean hasConstraint(IConstraint constraint) {
+        return constraintIndex.containsKey(constraint.getIdentifier());
+    }
+
+    @Override
+    public int getNumberOfConstraints() {
+        return constraints.size();
+    }
+
+    @Override
+    public LinkedHashSet<IConstraint> getReferencingConstraints(IFeature feature) {
+        Objects.requireNonNull(feature);
+        String name = feature.getName().orElse(null);
+        if (name == null || featureNames.get(name) != feature) {
+            return new LinkedHashSet<>();
+        }
+        IConstraint[] constraintsWithName = referencingConstraints.get(name);
+        return constraintsWithName == null
+                ? new LinkedHashSet<>()
+                : new LinkedHashSet<>(Arrays.asList(constraintsWithName));
+    }
+
+    @Override
+    public List<IFeatureTree> getRoots() {
+        return roots;
+    }
+
+    @Override
+    public Result<IFeatureTree> getFeatureTree(IFeature feature) {
+        Objects.requireNonNull(feature);
+        return Result.ofNullable(featureTrees.get(feature.getIdentifier()));
+    }
+
+    @Override
+    public Result<IFeatureTree> getFeatureTree(String name) {
+        Objects.requireNonNull(name);
+        return getFeature(name).flatMap(this::getFeatureTree);
+    }
+
+    @Override
+    public Result<IFeature> getTreeFeature(IIdentifier identifier) {
+        Objects.requireNonNull(identifier);
+        return Result.ofNullable(featureTrees.get(identifier)).map(IFeatureTree::getFeature);
+    }
+
+    @Override
+    public Result<IFeature> getTreeFeature(String name) {
+        return getFeatureTree(name).map(IFeatureTree::getFeature);
+    }
+
+    @Override
+    public boolean hasTreeFeature(IIdentifier identifier) {
+        return featureTrees.containsKey(identifier);
+    }
+
+    @Override
+    public long getModificationCount() {
+        return 0;
+    }
+
+    @Override
+    public long getStructuralHash() {
+        // racy, but idempotent, initialization
+        Long hash = structuralHash;
+        if (hash == null) {
+            hash = FeatureModelStructure.hash(this);
+            structuralHash = hash;
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return getIdentifier().equals(((FrozenFeatureModel) o).getIdentifier());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getIdentifier());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder featureString = new StringBuilder();
+        for (IFeatureTree root : roots) {
+            featureString.append(root.print());
+            featureString.append('\n');
+        }
+        return String.format(
+                "FrozenFeatureModel{features=%s, constraints=%s}", featureString.toString(), constraints.toString());
+    }
+
+    /**
+     * A feature of a frozen feature model.
+     */
+    private final class FrozenFeature implements IFeature {
+        private final IIdentifier identifier;
+        private final Class<?> type;
+        private final Map<IAttribute<?>, Object> attributeValues;
+
+        private FrozenFeature(IFeature feature) {
+            identifier = feature.getIdentifier();
+            type = feature.getType();
+            attributeValues = freezeAttributes(feature.cloneAttributes());
+        }
+
+        @Override
+        public FrozenFeatureModel getFeatureModel() {
+            return FrozenFeatureModel.this;
+        }
+
+        @Override
+        public IIdentifier getIdentifier() {
+            return identifier;
+        }
+
+        @Override
+        public Optional<Map<IAttribute<?>, Object>> getAttributes() {
+            return Optional.of(attributeValues == null ? Map.of() : attributeValues);
+        }
+
+        @Override
+        public Result<IFeatureTree> getFeatureTree() {
+            return FrozenFeatureModel.this.getFeatureTree(this);
+        }
+
+        @Override
+        public Class<?> getType() {
+            return type;
+        }
+
+        @Override
+        public IFeature clone() {
+            return this;
+        }
+
+        @Override
+        public Feature clone(IFeatureModel newFeatureModel) {
+            Feature feature = new Feature(newFeatureModel);
+            feature.type = type;
+            if (attributeValues != null) {
+                feature.attributeValues.putAll(attributeValues);
+            }
+            return feature;
+        }
+
+        @Override
+        public IMutableFeature mutate() {
+            throw frozen();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            return identifier.equals(((FrozenFeature) o).identifier);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(identifier);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Feature{name=%s}", getName().orElse(""));
+        }
+    }
+
+    /**
+     * A constraint of a frozen feature model.
+     * Its formula is a copy of the formula of the constraint it was created from.
+     */
+    private final class FrozenConstraint implements IConstraint {
+        private final IIdentifier identifier;
+        private final IFormula formula;
+        private final Map<IAttribute<?>, Object> attributeValues;
+
+        private FrozenConstraint(IConstraint constraint) {
+            identifier = constraint.getIdentifier();
+            formula = Trees.clone(constraint.getFormula());
+            attributeValues = freezeAttributes(constraint.cloneAttributes());
+        }
+
+        @Override
+        public FrozenFeatureModel getFeatureModel() {
+            return FrozenFeatureModel.this;
+        }
+
+        @Override
+        public IIdentifier getIdentifier() {
+            return identifier;
+        }
+
+        @Override
+        public Optional<Map<IAttribute<?>, Object>> getAttributes() {
+            return Optional.of(attributeValues == null ? Map.of() : attributeValues);
+        }
+
+        @Override
+        public IFormula getFormula() {
+            return formula;
+        }
+
+        @Override
+        public IConstraint clone() {
+            return this;
+        }
+
+        @Override
+        public Constraint clone(IFeatureModel newFeatureModel) {
+            Constraint constraint = new Constraint(newFeatureModel, Trees.clone(formula));
+            if (attributeValues != null) {
+                constraint.attributeValues.putAll(attributeValues);
+            }
+            return constraint;
+        }
+
+        @Override
+        public IMutableConstraint mutate() {
+            throw frozen();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            return identifier.equals(((FrozenConstraint) o).identifier);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(identifier);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Constraint{formula=%s}", formula);
+        }
+    }
+
+    /**
+     * A feature tree node of a frozen feature model.
+     * Its parent, children, and groups are read from the arrays of the feature model,
+     * and all generic tree mutators throw an {@link UnsupportedOperationException}.
+     */
+    private final class FrozenFeatureTree extends ARootedTree<IFeatureTree> implements IFeatureTree {
+        private final int index;
+
+        private FrozenFeatureTree(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public IFeature getFeature() {
+            return nodeFeatures[index];
+        }
+
+        @Override
+        public Result<IFeatureTree> getParent() {
+            int parent = parents[index];
+            return parent < 0 ? Result.empty() : Result.of(nodes[parent]);
+        }
+
+        @Override
+        public List<IFeatureTree> getChildren() {
+            int firstChild = firstChildren[index];
+            return Collections.unmodifiableList(
+                    Arrays.asList(nodes).subList(firstChild, firstChild + childrenCounts[index]));
+        }
+
+        @Override
+        public int getChildrenCount() {
+            return childrenCounts[index];
+        }
+
+        @Override
+        public boolean hasChildren() {
+            return childrenCounts[index] > 0;
+        }
+
+        @Override
+        public List<IFeatureTree> getChildren(int groupID) {
+            int firstChild = firstChildren[index];
+            int lastChild = firstChild + childrenCounts[index];
+            ArrayList<IFeatureTree> children = new ArrayList<>();
+            for (int i = firstChild; i < lastChild; i++) {
+                if (parentGroupIDs[i] == groupID) {
+                    children.add(nodes[i]);
+                }
+            }
+            return children;
+        }
+
+        @Override
+        public List<Group> getChildrenGroups() {
+            return Collections.unmodifiableList(
+                    Arrays.asList(groups).subList(firstGroups[index], firstGroups[index + 1]));
+        }
+
+        @Override
+        public Optional<Group> getChildrenGroup(int groupID) {
+            return Optional.ofNullable(getChildrenGroups().get(groupID));
+        }
+
+        @Override
+        public Optional<Group> getParentGroup() {
+            int parent = parents[index];
+            return parent < 0 ? Optional.empty() : nodes[parent].getChildrenGroup(parentGroupIDs[index]);
+        }
+
+        @Override
+        public int getParentGroupID() {
+            return parentGroupIDs[index];
+        }
+
+        @Override
+        public int getFeatureCardinalityLowerBound() {
+            return lowerBounds[index];
+        }
+
+        @Override
+        public int getFeatureCardinalityUpperBound() {
+            return upperBounds[index];
+        }
+
+        @Override
+        public Optional<Map<IAttribute<?>, Object>> getAttributes() {
+            return Optional.ofNullable(nodeAttributeValues[index]);
+        }
+
+        @Override
+        public List<IFeatureTree> getRoots() {
+            return List.of(this);
+        }
+
+        @Override
+        public IMutableFeatureTree mutate() {
+            throw frozen();
+        }
+
+        @Override
+        public void setParent(IFeatureTree newParent) {
+            throw frozen();
+        }
+
+        @Override
+        public void setChildren(List<? extends IFeatureTree> children) {
+            throw frozen();
+        }
+
+        @Override
+        public void addChild(int childIndex, IFeatureTree newChild) {
+            throw frozen();
+        }
+
+        @Override
+        public void addChild(IFeatureTree newChild) {
+            throw frozen();
+        }
+
+        @Override
+        public void removeChild(IFeatureTree child) {
+            throw frozen();
+        }
+
+        @Override
+        public IFeatureTree removeChild(int childIndex) {
+            throw frozen();
+        }
+
+        @Override
+        public void replaceChild(IFeatureTree oldChild, IFeatureTree newChild) {
+            throw frozen();
+        }
+
+        /**
+         * {@return a mutable copy of this node}
+         * Thus, {@link de.featjar.base.tree.Trees#clone(ITree) cloning} a frozen feature tree creates
+         * a mutable feature tree.
+         */
+        @Override
+        public ITree<IFeatureTree> cloneNode() {
+            FeatureTree featureTree = new FeatureTree(getFeature());
+            featureTree.parentGroupID = parentGroupIDs[index];
+            featureTree.cardinality = Range.of(lowerBounds[index], upperBounds[index]);
+            featureTree.childrenGroups.clear();
+            for (Group group : getChildrenGroups()) {
+                featureTree.childrenGroups.add(group == null ? null : group.clone(featureTree));
+            }
+            if (nodeAttributeValues[index] != null) {
+                featureTree.attributeValues = new LinkedHashMap<>(nodeAttributeValues[index]);
+            }
+            return featureTree;
+        }
+
+        @Override
+        public boolean equalsNode(IFeatureTree other) {
+            if (this == other) return true;
+            if (other == null || getClass() != other.getClass()) return false;
+            FrozenFeatureTree otherFeatureTree = (FrozenFeatureTree) other;
+            return getParentGroupID() == otherFeatureTree.getParentGroupID()
+                    && Objects.equals(getFeature(), otherFeatureTree.getFeature())
+                    && Objects.equals(getChildrenGroups(), otherFeatureTree.getChildrenGroups());
+        }
+
+        @Override
+        public int hashCodeNode() {
+            return Objects.hash(getFeature(), getParentGroupID(), getChildrenGroups());
+        }
+
+        @Override
+        public String toString() {
+            return getFeature().getName().orElse("");
+        }
+    }
+}
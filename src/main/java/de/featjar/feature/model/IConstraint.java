@@ -21,10 +21,12 @@
 package de.featjar.feature.model;
 
 import de.featjar.base.data.*;
+import de.featjar.base.tree.Trees;
 import de.featjar.feature.model.mixins.IHasCommonAttributes;
 import de.featjar.formula.structure.IFormula;
 import de.featjar.formula.structure.term.value.Variable;
 import java.util.LinkedHashSet;
+import java.util.function.Consumer;
 
 /**
  * A constraint describes some restriction on the valid configurations represented by a {@link FeatureModel}.
@@ -67,6 +69,19 @@ public interface IConstraint extends IFeatureModelElement, IHasCommonAttributes
     static interface IMutableConstraint extends IConstraint, IHasMutableCommonAttributes {
         void setFormula(IFormula formula);
 
+        /**
+         * Modifies the formula of this constraint.
+         * The modifier is applied to a copy of the formula, which then replaces the formula,
+         * so that the feature model is notified as by {@link #setFormula(IFormula)}.
+         *
+         * @param modifier the modifier
+         */
+        default void modifyFormula(Consumer<? super IFormula> modifier) {
+            IFormula formula = Trees.clone(getFormula());
+            modifier.accept(formula);
+            setFormula(formula);
+        }
+
         default void remove() {
             getFeatureModel().mutate().removeConstraint(this);
         }
@@ -75,12 +90,23 @@ public interface IConstraint extends IFeatureModelElement, IHasCommonAttributes
             setAttributeValue(Attributes.TAGS, tags);
         }
 
+        // the tag set may be shared with clones of this constraint, so it is replaced instead of modified
         default boolean addTag(String tag) {
-            return getTags().add(tag);
+            LinkedHashSet<String> tags = new LinkedHashSet<>(getTags());
+            boolean isAdded = tags.add(tag);
+            if (isAdded) {
+                setTags(tags);
+            }
+            return isAdded;
         }
 
         default boolean removeTag(String tag) {
-            return getTags().remove(tag);
+            LinkedHashSet<String> tags = new LinkedHashSet<>(getTags());
+            boolean isRemoved = tags.remove(tag);
+            if (isRemoved) {
+                setTags(tags);
+            }
+            return isRemoved;
         }
     }
 }
@@ -65,6 +65,50 @@ public interface IFeatureModel extends IFeatureModelElement, IHasCommonAttribute
 
     boolean hasFeature(IFeature feature);
 
+    /**
+     * {@return the number of mutations of this feature model and its elements so far,
+     * or {@code -1} if this feature model does not count its mutations}
+     * Can be used by caches to cheaply check whether a feature model changed since it was last seen.
+     * If the count is {@code -1}, the feature model must be assumed to have changed.
+     */
+    default long getModificationCount() {
+        return -1;
+    }
+
+    /**
+     * {@return a hash of the structure of this feature model}
+     * Structurally equal feature models have the same hash, regardless of their identifiers.
+     *
+     * @see FeatureModelStructure#hash(IFeatureModel)
+     */
+    default long getStructuralHash() {
+        return FeatureModelStructure.hash(this);
+    }
+
+    /**
+     * {@return whether this feature model is structurally equal to the given one}
+     * Compares the structural hashes first, so that different feature models are usually rejected quickly.
+     *
+     * @param featureModel the other feature model
+     * @see FeatureModelStructure#equals(IFeatureModel, IFeatureModel)
+     */
+    default boolean structurallyEquals(IFeatureModel featureModel) {
+        return this == featureModel
+                || (getStructuralHash() == featureModel.getStructuralHash()
+                        && FeatureModelStructure.equals(this, featureModel));
+    }
+
+    /**
+     * {@return an immutable snapshot of this feature model}
+     * The snapshot does not reflect later mutations of this feature model
+     * and can be read concurrently without synchronization.
+     *
+     * @see FrozenFeatureModel
+     */
+    default FrozenFeatureModel freeze() {
+        return new FrozenFeatureModel(this);
+    }
+
     default IMutableFeatureModel mutate() {
         return (IMutableFeatureModel) this;
     }
@@ -86,5 +130,33 @@ public interface IFeatureModel extends IFeatureModelElement, IHasCommonAttribute
         void removeFeatureTreeRoot(IFeatureTree featureTree);
 
         void removeFeatureTreeRoot(IFeature feature);
+
+        /**
+         * Registers a listener that is notified about all subsequent mutations.
+         *
+         * @param listener the listener
+         */
+        void addListener(IFeatureModelListener listener);
+
+        /**
+         * Unregisters a listener.
+         *
+         * @param listener the listener
+         * @return whether the listener was registered
+         */
+        boolean removeListener(IFeatureModelListener listener);
+
+        /**
+         * Starts a batch of mutations.
+         * Until the matching call of {@link #endBatch()}, events are collected and not delivered to listeners.
+         * Batches may be nested.
+         */
+        void beginBatch();
+
+        /**
+         * Ends a batch of mutations started by {@link #beginBatch()}.
+         * When the outermost batch ends, all collected events are delivered to the listeners at once.
+         */
+        void endBatch();
     }
 }
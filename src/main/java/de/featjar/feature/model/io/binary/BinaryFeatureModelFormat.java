@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.io.binary;
+
+import de.featjar.base.data.Problem;
+import de.featjar.base.data.Result;
+import de.featjar.base.io.format.IFormat;
+import de.featjar.base.io.input.AInputMapper;
+import de.featjar.base.io.input.InputHeader;
+import de.featjar.feature.model.IFeatureModel;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/**
+ * Parses and writes feature models from and to a compact, versioned binary format.
+ * The format consists of a string table, typed attribute columns, a preorder encoding of the feature tree,
+ * and constraints in postfix notation.
+ * As the format is binary, it cannot be serialized to a string.
+ * Use {@link #write(IFeatureModel, OutputStream)} or {@link #write(IFeatureModel, Path)} for writing and
+ * {@link #parse(Path)} for loading a file through a memory-mapped channel.
+ * Inputs that are backed by a file are memory-mapped as well, other inputs are read into an array.
+ * Empty children group slots cannot be encoded, so feature trees containing them are rejected when writing.
+ */
+public class BinaryFeatureModelFormat implements IFormat<IFeatureModel> {
+
+    static final String MAGIC = "FJFM";
+    static final int VERSION = 1;
+
+    static final int NO_STRING = -1;
+
+    static final byte TYPE_STRING = 0;
+    static final byte TYPE_BOOLEAN = 1;
+    static final byte TYPE_INTEGER = 2;
+    static final byte TYPE_LONG = 3;
+    static final byte TYPE_FLOAT = 4;
+    static final byte TYPE_DOUBLE = 5;
+    static final byte TYPE_STRING_SET = 6;
+
+    static final byte OP_LITERAL = 0;
+    static final byte OP_NEGATIVE_LITERAL = 1;
+    static final byte OP_NOT = 2;
+    static final byte OP_AND = 3;
+    static final byte OP_OR = 4;
+    static final byte OP_IMPLIES = 5;
+    static final byte OP_BI_IMPLIES = 6;
+    static final byte OP_AT_MOST = 7;
+    static final byte OP_TRUE = 8;
+    static final byte OP_FALSE = 9;
+
+    @Override
+    public String getName() {
+        return "FeatJAR Binary";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "fjfm";
+    }
+
+    @Override
+    public boolean supportsParse() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsContent(InputHeader inputHeader) {
+        return supportsParse() && inputHeader.get().startsWith(MAGIC);
+    }
+
+    @Override
+    public Result<IFeatureModel> parse(AInputMapper inputMapper) {
+        try {
+            InputStream inputStream = inputMapper.get().getInputStream();
+            if (inputStream instanceof FileInputStream) {
+                return new BinaryFeatureModelParser().parse(((FileInputStream) inputStream).getChannel());
+            }
+            return new BinaryFeatureModelParser().parse(inputStream.readAllBytes());
+        } catch (IOException e) {
+            return Result.empty(new Problem(e));
+        }
+    }
+
+    public Result<IFeatureModel> parse(Path path) {
+        return new BinaryFeatureModelParser().parse(path);
+    }
+
+    public void write(IFeatureModel featureModel, OutputStream outputStream) throws IOException {
+        new BinaryFeatureModelWriter().write(featureModel, outputStream);
+    }
+
+    public void write(IFeatureModel featureModel, Path path) throws IOException {
+        new BinaryFeatureModelWriter().write(featureModel, path);
+    }
+}
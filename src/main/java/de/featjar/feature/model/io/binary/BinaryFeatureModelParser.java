@@ -0,0 +1,357 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.io.binary;
+
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.MAGIC;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.NO_STRING;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.OP_AND;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.OP_AT_MOST;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.OP_BI_IMPLIES;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.OP_FALSE;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.OP_IMPLIES;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.OP_LITERAL;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.OP_NEGATIVE_LITERAL;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.OP_NOT;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.OP_OR;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.OP_TRUE;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.TYPE_BOOLEAN;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.TYPE_DOUBLE;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.TYPE_FLOAT;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.TYPE_INTEGER;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.TYPE_LONG;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.TYPE_STRING;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.TYPE_STRING_SET;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.VERSION;
+
+import de.featjar.base.data.Attribute;
+import de.featjar.base.data.IAttributable;
+import de.featjar.base.data.Problem;
+import de.featjar.base.data.Range;
+import de.featjar.base.data.Result;
+import de.featjar.base.data.identifier.Identifiers;
+import de.featjar.base.io.format.ParseException;
+import de.featjar.base.tree.Trees;
+import de.featjar.feature.model.FeatureModel;
+import de.featjar.feature.model.IConstraint;
+import de.featjar.feature.model.IFeature;
+import de.featjar.feature.model.IFeatureModel;
+import de.featjar.feature.model.IFeatureTree;
+import de.featjar.feature.model.io.AttributeIO;
+import de.featjar.formula.structure.Expressions;
+import de.featjar.formula.structure.IFormula;
+import de.featjar.formula.structure.connective.And;
+import de.featjar.formula.structure.connective.AtMost;
+import de.featjar.formula.structure.connective.BiImplies;
+import de.featjar.formula.structure.connective.Implies;
+import de.featjar.formula.structure.connective.Not;
+import de.featjar.formula.structure.connective.Or;
+import de.featjar.formula.structure.predicate.Literal;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Parses feature models from the binary format of {@link BinaryFeatureModelFormat}.
+ */
+public class BinaryFeatureModelParser {
+
+    private ByteBuffer buffer;
+    private String[] strings;
+
+    /**
+     * Parses the given file by mapping it into memory.
+     *
+     * @param path the path of the file
+     * @return the parsed feature model
+     */
+    public Result<IFeatureModel> parse(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return parse(channel);
+        } catch (IOException e) {
+            return Result.empty(new Problem(e));
+        }
+    }
+
+    /**
+     * Parses the given file channel from its current position to its end by mapping it into memory.
+     * The channel can be closed afterwards.
+     *
+     * @param channel the file channel
+     * @return the parsed feature model
+     * @throws IOException if the channel cannot be mapped
+     */
+    public Result<IFeatureModel> parse(FileChannel channel) throws IOException {
+        long position = channel.position();
+        return parse(channel.map(FileChannel.MapMode.READ_ONLY, position, channel.size() - position));
+    }
+
+    public Result<IFeatureModel> parse(byte[] bytes) {
+        return parse(ByteBuffer.wrap(bytes));
+    }
+
+    public Result<IFeatureModel> parse(ByteBuffer byteBuffer) {
+        buffer = byteBuffer.duplicate();
+        try {
+            return Result.of(parseFeatureModel());
+        } catch (ParseException | RuntimeException e) {
+            return Result.empty(new Problem(e));
+        } finally {
+            buffer = null;
+            strings = null;
+        }
+    }
+
+    private IFeatureModel parseFeatureModel() throws ParseException {
+        byte[] magic = new byte[MAGIC.length()];
+        buffer.get(magic);
+        if (!MAGIC.equals(new String(magic, StandardCharsets.US_ASCII))) {
+            throw new ParseException("Not a binary feature model!");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new ParseException("Unsupported version " + version);
+        }
+        parseStrings();
+
+        FeatureModel featureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+        parseAttributeColumns(new IAttributable[] {featureModel});
+
+        IFeature[] features = new IFeature[buffer.getInt()];
+        for (int i = 0; i < features.length; i++) {
+            IFeature feature = featureModel.mutate().addFeature(getString());
+            String typeString = getString();
+            if (typeString != null) {
+                feature.mutate().setType(AttributeIO.getType(typeString).orElse(Boolean.class));
+            }
+            features[i] = feature;
+        }
+        parseAttributeColumns(features);
+
+        int rootCount = buffer.getInt();
+        IFeatureTree[] nodes = new IFeatureTree[buffer.getInt()];
+        int[] remainingChildren = new int[nodes.length];
+        ArrayDeque<Integer> openNodes = new ArrayDeque<>();
+        for (int i = 0; i < nodes.length; i++) {
+            IFeature feature = features[buffer.getInt()];
+            int lowerBound = buffer.getInt();
+            int upperBound = buffer.getInt();
+            int parentGroupID = buffer.getInt();
+
+            while (!openNodes.isEmpty() && remainingChildren[openNodes.peek()] == 0) {
+                openNodes.pop();
+            }
+            IFeatureTree node;
+            if (openNodes.isEmpty()) {
+                if (rootCount-- == 0) {
+                    throw new ParseException("Unexpected number of feature tree roots");
+                }
+                node = featureModel.mutate().addFeatureTreeRoot(feature);
+            } else {
+                int parentIndex = openNodes.peek();
+                remainingChildren[parentIndex]--;
+                IFeatureTree parent = nodes[parentIndex];
+                node = parent.mutate().addFeatureBelow(feature, parent.getChildrenCount(), parentGroupID);
+            }
+            node.mutate().setFeatureCardinality(Range.of(lowerBound, upperBound));
+
+            int groupCount = buffer.getInt();
+            for (int g = 0; g < groupCount; g++) {
+                int groupLowerBound = buffer.getInt();
+                int groupUpperBound = buffer.getInt();
+                if (g == 0) {
+                    node.mutate().toCardinalityGroup(0, groupLowerBound, groupUpperBound);
+                } else {
+                    node.mutate().addCardinalityGroup(groupLowerBound, groupUpperBound);
+                }
+            }
+            remainingChildren[i] = buffer.getInt();
+            openNodes.push(i);
+            nodes[i] = node;
+        }
+        if (rootCount != 0) {
+            throw new ParseException("Unexpected number of feature tree roots");
+        }
+        parseAttributeColumns(nodes);
+
+        IConstraint[] constraints = new IConstraint[buffer.getInt()];
+        for (int i = 0; i < constraints.length; i++) {
+            constraints[i] = featureModel.mutate().addConstraint(parseFormula());
+        }
+        parseAttributeColumns(constraints);
+
+        return featureModel;
+    }
+
+    private void parseStrings() {
+        strings = new String[buffer.getInt()];
+        byte[] bytes = new byte[64];
+        for (int i = 0; i < strings.length; i++) {
+            int length = buffer.getInt();
+            if (buffer.hasArray()) {
+                strings[i] = new String(
+                        buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+            } else {
+                if (bytes.length < length) {
+                    bytes = new byte[Math.max(length, 2 * bytes.length)];
+                }
+                buffer.get(bytes, 0, length);
+                strings[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    private IFormula parseFormula() throws ParseException {
+        int length = buffer.getInt();
+        ArrayDeque<IFormula> stack = new ArrayDeque<>();
+        for (int i = 0; i < length; i++) {
+            byte operation = buffer.get();
+            switch (operation) {
+                case OP_LITERAL:
+                    stack.push(new Literal(getString()));
+                    break;
+                case OP_NEGATIVE_LITERAL:
+                    stack.push(new Literal(false, getString()));
+                    break;
+                case OP_NOT:
+                    stack.push(new Not(stack.pop()));
+                    break;
+                case OP_AND:
+                    stack.push(new And(popChildren(stack, buffer.getInt())));
+                    break;
+                case OP_OR:
+                    stack.push(new Or(popChildren(stack, buffer.getInt())));
+                    break;
+                case OP_IMPLIES: {
+                    IFormula right = stack.pop();
+                    stack.push(new Implies(stack.pop(), right));
+                    break;
+                }
+                case OP_BI_IMPLIES: {
+                    IFormula right = stack.pop();
+                    stack.push(new BiImplies(stack.pop(), right));
+                    break;
+                }
+                case OP_AT_MOST: {
+                    int maximum = buffer.getInt();
+                    stack.push(new AtMost(maximum, popChildren(stack, buffer.getInt())));
+                    break;
+                }
+                case OP_TRUE:
+                    stack.push(Trees.clone(Expressions.True));
+                    break;
+                case OP_FALSE:
+                    stack.push(Trees.clone(Expressions.False));
+                    break;
+                default:
+                    throw new ParseException("Unknown formula operation " + operation);
+            }
+        }
+        if (stack.size() != 1) {
+            throw new ParseException("Malformed constraint formula");
+        }
+        return stack.pop();
+    }
+
+    private static List<IFormula> popChildren(ArrayDeque<IFormula> stack, int count) {
+        IFormula[] children = new IFormula[count];
+        for (int i = count - 1; i >= 0; i--) {
+            children[i] = stack.pop();
+        }
+        return Arrays.asList(children);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void parseAttributeColumns(IAttributable[] elements) throws ParseException {
+        int columnCount = buffer.getInt();
+        for (int i = 0; i < columnCount; i++) {
+            String namespace = getString();
+            String name = getString();
+            byte typeTag = buffer.get();
+            Attribute<?> parsedAttribute = new Attribute<>(namespace, name, getType(typeTag));
+            Attribute<Object> attribute = (Attribute<Object>) parsedAttribute;
+            int entryCount = buffer.getInt();
+            for (int j = 0; j < entryCount; j++) {
+                IAttributable element = elements[buffer.getInt()];
+                element.mutate().setAttributeValue(attribute, parseValue(typeTag));
+            }
+        }
+    }
+
+    private Object parseValue(byte typeTag) throws ParseException {
+        switch (typeTag) {
+            case TYPE_STRING:
+                return getString();
+            case TYPE_BOOLEAN:
+                return buffer.get() != 0;
+            case TYPE_INTEGER:
+                return buffer.getInt();
+            case TYPE_LONG:
+                return buffer.getLong();
+            case TYPE_FLOAT:
+                return buffer.getFloat();
+            case TYPE_DOUBLE:
+                return buffer.getDouble();
+            case TYPE_STRING_SET:
+                int size = buffer.getInt();
+                LinkedHashSet<String> set = new LinkedHashSet<>((int) (size * 1.5));
+                for (int i = 0; i < size; i++) {
+                    set.add(getString());
+                }
+                return set;
+            default:
+                throw new ParseException("Unknown attribute type " + typeTag);
+        }
+    }
+
+    private static Class<?> getType(byte typeTag) throws ParseException {
+        switch (typeTag) {
+            case TYPE_STRING:
+                return String.class;
+            case TYPE_BOOLEAN:
+                return Boolean.class;
+            case TYPE_INTEGER:
+                return Integer.class;
+            case TYPE_LONG:
+                return Long.class;
+            case TYPE_FLOAT:
+                return Float.class;
+            case TYPE_DOUBLE:
+                return Double.class;
+            case TYPE_STRING_SET:
+                return LinkedHashSet.class;
+            default:
+                throw new ParseException("Unknown attribute type " + typeTag);
+        }
+    }
+
+    private String getString() {
+        int index = buffer.getInt();
+        return index == NO_STRING ? null : strings[index];
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.io.binary;
+
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.MAGIC;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.NO_STRING;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.OP_AND;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.OP_AT_MOST;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.OP_BI_IMPLIES;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.OP_FALSE;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.OP_IMPLIES;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.OP_LITERAL;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.OP_NEGATIVE_LITERAL;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.OP_NOT;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.OP_OR;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.OP_TRUE;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.TYPE_BOOLEAN;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.TYPE_DOUBLE;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.TYPE_FLOAT;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.TYPE_INTEGER;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.TYPE_LONG;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.TYPE_STRING;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.TYPE_STRING_SET;
+import static de.featjar.feature.model.io.binary.BinaryFeatureModelFormat.VERSION;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.data.IAttributable;
+import de.featjar.base.data.IAttribute;
+import de.featjar.base.tree.Trees;
+import de.featjar.feature.model.Attributes;
+import de.featjar.feature.model.FeatureTree.Group;
+import de.featjar.feature.model.IConstraint;
+import de.featjar.feature.model.IFeature;
+import de.featjar.feature.model.IFeatureModel;
+import de.featjar.feature.model.IFeatureTree;
+import de.featjar.feature.model.io.AttributeIO;
+import de.featjar.formula.structure.Expressions;
+import de.featjar.formula.structure.IExpression;
+import de.featjar.formula.structure.IFormula;
+import de.featjar.formula.structure.connective.And;
+import de.featjar.formula.structure.connective.AtMost;
+import de.featjar.formula.structure.connective.BiImplies;
+import de.featjar.formula.structure.connective.Implies;
+import de.featjar.formula.structure.connective.Not;
+import de.featjar.formula.structure.connective.Or;
+import de.featjar.formula.structure.predicate.Literal;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+
+/**
+ * Writes feature models to the binary format of {@link BinaryFeatureModelFormat}.
+ * The body is encoded first, collecting all strings in a table,
+ * which is then written in front of the body.
+ */
+public class BinaryFeatureModelWriter {
+
+    private final HashMap<String, Integer> stringIndices = new HashMap<>();
+    private final ArrayList<String> strings = new ArrayList<>();
+
+    public void write(IFeatureModel featureModel, Path path) throws IOException {
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(path))) {
+            write(featureModel, outputStream);
+        }
+    }
+
+    public void write(IFeatureModel featureModel, OutputStream outputStream) throws IOException {
+        stringIndices.clear();
+        strings.clear();
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream bodyOutput = new DataOutputStream(body);
+        writeBody(featureModel, bodyOutput);
+        bodyOutput.flush();
+
+        DataOutputStream output = new DataOutputStream(outputStream);
+        output.write(MAGIC.getBytes(StandardCharsets.US_ASCII));
+        output.writeInt(VERSION);
+        output.writeInt(strings.size());
+        for (String string : strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+        body.writeTo(output);
+        output.flush();
+    }
+
+    private void writeBody(IFeatureModel featureModel, DataOutputStream output) throws IOException {
+        writeAttributeColumns(List.of(featureModel), output);
+
+        Collection<IFeature> features = featureModel.getFeatures();
+        IdentityHashMap<IFeature, Integer> featureIndices = new IdentityHashMap<>();
+        output.writeInt(features.size());
+        for (IFeature feature : features) {
+            featureIndices.put(feature, featureIndices.size());
+            output.writeInt(getStringIndex(feature.getName().orElse("")));
+            output.writeInt(
+                    getStringIndex(AttributeIO.getTypeString(feature.getType()).orElse(null)));
+        }
+        writeAttributeColumns(features, output);
+
+        List<IFeatureTree> treeNodes = new ArrayList<>();
+        List<IFeatureTree> roots = featureModel.getRoots();
+        output.writeInt(roots.size());
+        for (IFeatureTree root : roots) {
+            Trees.preOrderStream(root).forEach(treeNodes::add);
+        }
+        output.writeInt(treeNodes.size());
+        for (IFeatureTree node : treeNodes) {
+            Integer featureIndex = featureIndices.get(node.getFeature());
+            if (featureIndex == null) {
+                throw new IOException("Feature tree contains feature that is not part of the feature model: "
+                        + node.getFeature());
+            }
+            output.writeInt(featureIndex);
+            output.writeInt(node.getFeatureCardinalityLowerBound());
+            output.writeInt(node.getFeatureCardinalityUpperBound());
+            output.writeInt(node.getParentGroupID());
+            List<Group> groups = node.getChildrenGroups();
+            output.writeInt(groups.size());
+            for (Group group : groups) {
+                if (group == null) {
+                    throw new IOException("Feature tree contains an empty children group: " + node.getFeature());
+                }
+                output.writeInt(group.getLowerBound());
+                output.writeInt(group.getUpperBound());
+            }
+            output.writeInt(node.getChildrenCount());
+        }
+        writeAttributeColumns(treeNodes, output);
+
+        Collection<IConstraint> constraints = featureModel.getConstraints();
+        output.writeInt(constraints.size());
+        for (IConstraint constraint : constraints) {
+            writeFormula(constraint.getFormula(), output);
+        }
+        writeAttributeColumns(constraints, output);
+    }
+
+    /**
+     * Writes the given formula in postfix notation.
+     * First, the number of operations is written.
+     * Then, each operation is written as its opcode, followed by the index of the variable name for literals,
+     * the number of children for conjunctions and disjunctions,
+     * and the maximum and the number of children for at-most formulas.
+     */
+    private void writeFormula(IFormula formula, DataOutputStream output) throws IOException {
+        ArrayList<IFormula> postfix = new ArrayList<>();
+        ArrayDeque<IFormula> stack = new ArrayDeque<>();
+        stack.push(formula);
+        while (!stack.isEmpty()) {
+            IFormula node = stack.pop();
+            postfix.add(node);
+            if (!(node instanceof Literal)) {
+                for (IExpression child : node.getChildren()) {
+                    stack.push((IFormula) child);
+                }
+            }
+        }
+        output.writeInt(postfix.size());
+        for (int i = postfix.size() - 1; i >= 0; i--) {
+            IFormula node = postfix.get(i);
+            if (node instanceof Literal) {
+                Literal literal = (Literal) node;
+                output.writeByte(literal.isPositive() ? OP_LITERAL : OP_NEGATIVE_LITERAL);
+                output.writeInt(getStringIndex(literal.getFirstChild().get().getName()));
+            } else if (node instanceof Not) {
+                output.writeByte(OP_NOT);
+            } else if (node instanceof And) {
+                output.writeByte(OP_AND);
+                output.writeInt(node.getChildrenCount());
+            } else if (node instanceof Or) {
+                output.writeByte(OP_OR);
+                output.writeInt(node.getChildrenCount());
+            } else if (node instanceof BiImplies) {
+                output.writeByte(OP_BI_IMPLIES);
+            } else if (node instanceof Implies) {
+                output.writeByte(OP_IMPLIES);
+            } else if (node instanceof AtMost) {
+                output.writeByte(OP_AT_MOST);
+                output.writeInt(((AtMost) node).getMaximum());
+                output.writeInt(node.getChildrenCount());
+            } else if (Expressions.True.equals(node)) {
+                output.writeByte(OP_TRUE);
+            } else if (Expressions.False.equals(node)) {
+                output.writeByte(OP_FALSE);
+            } else {
+                throw new IOException("Unsupported formula element " + node);
+            }
+        }
+    }
+
+    /**
+     * Writes all attribute values of the given elements column by column.
+     * Each column holds the values of one attribute for all elements that have a value for it.
+     * Feature names are stored separately and therefore skipped.
+     */
+    private void writeAttributeColumns(Collection<? extends IAttributable> elements, DataOutputStream output)
+            throws IOException {
+        LinkedHashMap<IAttribute<?>, List<Object>> columns = new LinkedHashMap<>();
+        int elementIndex = 0;
+        for (IAttributable element : elements) {
+            Optional<Map<IAttribute<?>, Object>> attributes = element.getAttributes();
+            if (attributes.isPresent()) {
+                for (Entry<IAttribute<?>, Object> entry : attributes.get().entrySet()) {
+                    IAttribute<?> attribute = entry.getKey();
+                    if (element instanceof IFeature && Attributes.NAME.equals(attribute)) {
+                        continue;
+                    }
+                    if (getTypeTag(attribute.getType()) < 0) {
+                        FeatJAR.log().warning("Skipping attribute %s with unsupported type", attribute);
+                        continue;
+                    }
+                    List<Object> column = columns.computeIfAbsent(attribute, a -> new ArrayList<>());
+                    column.add(elementIndex);
+                    column.add(entry.getValue());
+                }
+            }
+            elementIndex++;
+        }
+
+        output.writeInt(columns.size());
+        for (Entry<IAttribute<?>, List<Object>> column : columns.entrySet()) {
+            IAttribute<?> attribute = column.getKey();
+            byte typeTag = getTypeTag(attribute.getType());
+            List<Object> entries = column.getValue();
+            output.writeInt(getStringIndex(attribute.getNamespace()));
+            output.writeInt(getStringIndex(attribute.getName()));
+            output.writeByte(typeTag);
+            output.writeInt(entries.size() / 2);
+            for (int i = 0; i < entries.size(); i += 2) {
+                output.writeInt((Integer) entries.get(i));
+                writeValue(typeTag, entries.get(i + 1), output);
+            }
+        }
+    }
+
+    private void writeValue(byte typeTag, Object value, DataOutputStream output) throws IOException {
+        switch (typeTag) {
+            case TYPE_STRING:
+                output.writeInt(getStringIndex((String) value));
+                break;
+            case TYPE_BOOLEAN:
+                output.writeBoolean((Boolean) value);
+                break;
+            case TYPE_INTEGER:
+                output.writeInt((Integer) value);
+                break;
+            case TYPE_LONG:
+                output.writeLong((Long) value);
+                break;
+            case TYPE_FLOAT:
+                output.writeFloat((Float) value);
+                break;
+            case TYPE_DOUBLE:
+                output.writeDouble((Double) value);
+                break;
+            case TYPE_STRING_SET:
+                Collection<?> set = (Collection<?>) value;
+                output.writeInt(set.size());
+                for (Object string : set) {
+                    output.writeInt(getStringIndex(String.valueOf(string)));
+                }
+                break;
+            default:
+                throw new IllegalStateException(String.valueOf(typeTag));
+        }
+    }
+
+    static byte getTypeTag(Class<?> type) {
+        if (String.class.equals(type)) {
+            return TYPE_STRING;
+        } else if (Boolean.class.equals(type)) {
+            return TYPE_BOOLEAN;
+        } else if (Integer.class.equals(type)) {
+            return TYPE_INTEGER;
+        } else if (Long.class.equals(type)) {
+            return TYPE_LONG;
+        } else if (Float.class.equals(type)) {
+            return TYPE_FLOAT;
+        } else if (Double.class.equals(type)) {
+            return TYPE_DOUBLE;
+        } else if (LinkedHashSet.class.equals(type)) {
+            return TYPE_STRING_SET;
+        }
+        return -1;
+    }
+
+    private int getStringIndex(String string) {
+        if (string == null) {
+            return NO_STRING;
+        }
+        Integer index = stringIndices.get(string);
+        if (index == null) {
+            index = strings.size();
+            stringIndices.put(string, index);
+            strings.add(string);
+        }
+        return index;
+    }
+}
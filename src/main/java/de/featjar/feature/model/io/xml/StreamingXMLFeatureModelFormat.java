@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.io.xml;
+
+import de.featjar.base.data.Result;
+import de.featjar.base.io.format.IFormat;
+import de.featjar.base.io.input.AInputMapper;
+import de.featjar.base.io.input.InputHeader;
+import de.featjar.feature.model.IFeatureModel;
+import de.featjar.formula.io.xml.AXMLFeatureModelParser;
+
+/**
+ * Parses and writes feature models from and to FeatureIDE XML files using {@link StreamingXMLFeatureModelParser}
+ * and {@link StreamingXMLFeatureModelWriter}, which do not build a DOM and are therefore suited for very large files.
+ * Serializing produces the same document as {@link XMLFeatureModelFormat}.
+ */
+public class StreamingXMLFeatureModelFormat implements IFormat<IFeatureModel> {
+
+    @Override
+    public String getName() {
+        return "FeatureIDE (Streaming)";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "xml";
+    }
+
+    @Override
+    public boolean supportsParse() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsWrite() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsContent(InputHeader inputHeader) {
+        return supportsParse()
+                && AXMLFeatureModelParser.inputHeaderPattern
+                        .matcher(inputHeader.get())
+                        .find();
+    }
+
+    @Override
+    public Result<IFeatureModel> parse(AInputMapper inputMapper) {
+        return new StreamingXMLFeatureModelParser().parse(inputMapper);
+    }
+
+    @Override
+    public Result<String> serialize(IFeatureModel object) {
+        return new StreamingXMLFeatureModelWriter().serialize(object);
+    }
+}
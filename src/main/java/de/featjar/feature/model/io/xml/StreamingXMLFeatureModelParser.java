@@ -0,0 +1,593 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.io.xml;
+
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.ABSTRACT;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.ALT;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.AND;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.ATMOST1;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.COMMENT;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.COMMENTS;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.CONJ;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.CONSTRAINTS;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.DATA_TYPE;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.DESCRIPTION;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.DISJ;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.EQ;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.EXT_FEATURE_MODEL;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.FEATURE;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.FEATURE_MODEL;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.HIDDEN;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.IMP;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.KEY;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.MANDATORY;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.NAME;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.NAMESPACE_TAG;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.NOT;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.OR;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.PROPERTIES;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.PROPERTY;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.RULE;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.STRUCT;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.TAGS;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.VALUE;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.VAR;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.data.Attribute;
+import de.featjar.base.data.Problem;
+import de.featjar.base.data.Result;
+import de.featjar.base.data.Sets;
+import de.featjar.base.data.identifier.Identifiers;
+import de.featjar.base.io.format.ParseException;
+import de.featjar.base.io.format.ParseProblem;
+import de.featjar.base.io.input.AInputMapper;
+import de.featjar.feature.model.FeatureModel;
+import de.featjar.feature.model.IConstraint;
+import de.featjar.feature.model.IFeature;
+import de.featjar.feature.model.IFeatureModel;
+import de.featjar.feature.model.IFeatureModelElement;
+import de.featjar.feature.model.IFeatureTree;
+import de.featjar.feature.model.io.AttributeIO;
+import de.featjar.formula.structure.IFormula;
+import de.featjar.formula.structure.connective.And;
+import de.featjar.formula.structure.connective.AtMost;
+import de.featjar.formula.structure.connective.BiImplies;
+import de.featjar.formula.structure.connective.Implies;
+import de.featjar.formula.structure.connective.Not;
+import de.featjar.formula.structure.connective.Or;
+import de.featjar.formula.structure.predicate.Literal;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Parses feature models from FeatureIDE XML files without building a DOM.
+ * Produces the same feature model as {@link XMLFeatureModelParser}, but reads the document as a stream of events,
+ * so that the memory needed besides the feature model itself is bounded by the depth of the feature tree and the
+ * size of a single constraint.
+ * In contrast to {@link XMLFeatureModelParser}, the top-level sections of the document are processed in document
+ * order.
+ */
+public class StreamingXMLFeatureModelParser {
+
+    /**
+     * A feature element that has been opened, but not yet closed.
+     */
+    private static final class FeatureFrame {
+        private final IFeatureTree featureTree;
+        private final String nodeName;
+        private boolean hasChildNodes;
+
+        private FeatureFrame(IFeatureTree featureTree, String nodeName) {
+            this.featureTree = featureTree;
+            this.nodeName = nodeName;
+        }
+    }
+
+    /**
+     * A formula element that has been opened, but not yet closed.
+     */
+    private static final class FormulaFrame {
+        private final String nodeName;
+        private final int lineNumber;
+        private final List<IFormula> children = new ArrayList<>(2);
+
+        private FormulaFrame(String nodeName, int lineNumber) {
+            this.nodeName = nodeName;
+            this.lineNumber = lineNumber;
+        }
+    }
+
+    /**
+     * A property element whose evaluation is deferred until its element has been created.
+     */
+    private static final class Property {
+        private final String namespace;
+        private final String name;
+        private final String typeString;
+        private final String valueString;
+
+        private Property(String namespace, String name, String typeString, String valueString) {
+            this.namespace = namespace;
+            this.name = name;
+            this.typeString = typeString;
+            this.valueString = valueString;
+        }
+    }
+
+    private XMLStreamReader reader;
+    private IFeatureModel featureModel;
+    private HashSet<String> featureNames;
+    private List<Problem> parseProblems;
+
+    public Result<IFeatureModel> parse(AInputMapper inputMapper) {
+        parseProblems = new ArrayList<>();
+        try (Reader inputReader = inputMapper.get().getReader()) {
+            reader = createInputFactory().createXMLStreamReader(inputReader);
+            try {
+                return Result.of(parseDocument(), parseProblems);
+            } catch (ParseException | XMLStreamException e) {
+                parseProblems.add(new ParseProblem(e, getLineNumber()));
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | IOException e) {
+            parseProblems.add(new Problem(e));
+        } finally {
+            reader = null;
+            featureModel = null;
+            featureNames = null;
+        }
+        return Result.empty(parseProblems);
+    }
+
+    protected XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        return factory;
+    }
+
+    protected IFeatureModel parseDocument() throws XMLStreamException, ParseException {
+        featureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+        featureNames = Sets.empty();
+
+        reader.nextTag();
+        String rootName = reader.getLocalName();
+        if (!FEATURE_MODEL.equals(rootName) && !EXT_FEATURE_MODEL.equals(rootName)) {
+            throw new ParseException("Not a feature model xml element!");
+        }
+
+        boolean hasStruct = false;
+        while (nextChildElement()) {
+            switch (reader.getLocalName()) {
+                case STRUCT:
+                    hasStruct = true;
+                    parseFeatureTree();
+                    break;
+                case CONSTRAINTS:
+                    parseConstraints();
+                    break;
+                case COMMENTS:
+                    parseComments();
+                    break;
+                case PROPERTIES:
+                    parseFeatureModelProperties();
+                    break;
+                default:
+                    skipElement();
+            }
+        }
+        if (!hasStruct) {
+            throw new ParseException("Missing element " + STRUCT);
+        }
+        return featureModel;
+    }
+
+    protected void parseFeatureTree() throws XMLStreamException, ParseException {
+        ArrayDeque<FeatureFrame> openFeatures = new ArrayDeque<>();
+        while (reader.hasNext()) {
+            int event = reader.next();
+            FeatureFrame parent = openFeatures.peek();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    if (parent != null) {
+                        parent.hasChildNodes = true;
+                    }
+                    String nodeName = reader.getLocalName();
+                    switch (nodeName) {
+                        case AND:
+                        case OR:
+                        case ALT:
+                        case FEATURE:
+                            openFeatures.push(new FeatureFrame(
+                                    parseFeature(parent == null ? null : parent.featureTree), nodeName));
+                            break;
+                        case DESCRIPTION:
+                            if (parent != null) {
+                                parent.featureTree.getFeature().mutate().setDescription(getDescription(readText()));
+                            } else {
+                                skipElement();
+                            }
+                            break;
+                        case PROPERTY:
+                            if (parent != null) {
+                                parseProperty(parent.featureTree.getFeature(), readProperty());
+                            } else {
+                                skipElement();
+                            }
+                            break;
+                        default:
+                            addParseProblem("Unknown feature type: " + nodeName, Problem.Severity.WARNING);
+                            skipElement();
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    if (parent == null) {
+                        return;
+                    }
+                    openFeatures.pop();
+                    if (parent.hasChildNodes) {
+                        switch (parent.nodeName) {
+                            case AND:
+                                parent.featureTree.mutate().toAndGroup();
+                                break;
+                            case OR:
+                                parent.featureTree.mutate().toOrGroup();
+                                break;
+                            case ALT:
+                                parent.featureTree.mutate().toAlternativeGroup();
+                                break;
+                            default:
+                        }
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.SPACE:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.COMMENT:
+                case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                    if (parent != null) {
+                        parent.hasChildNodes = true;
+                    }
+                    break;
+                default:
+            }
+        }
+    }
+
+    protected IFeatureTree parseFeature(IFeatureTree parentFeature) throws ParseException {
+        String name = null;
+        boolean mandatory = false;
+        boolean _abstract = false;
+        boolean hidden = false;
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String attributeName = reader.getAttributeLocalName(i);
+            String attributeValue = reader.getAttributeValue(i);
+            switch (attributeName) {
+                case NAME:
+                    name = attributeValue;
+                    break;
+                case MANDATORY:
+                    mandatory = Boolean.parseBoolean(attributeValue);
+                    break;
+                case ABSTRACT:
+                    _abstract = Boolean.parseBoolean(attributeValue);
+                    break;
+                case HIDDEN:
+                    hidden = Boolean.parseBoolean(attributeValue);
+                    break;
+                default:
+                    addParseProblem("Unknown feature attribute: " + attributeName, Problem.Severity.WARNING);
+            }
+        }
+        if (name == null) {
+            throw new ParseException("Missing feature name!");
+        }
+        return newFeature(name, parentFeature, mandatory, _abstract, hidden);
+    }
+
+    protected IFeatureTree newFeature(
+            String name, IFeatureTree parentFeature, boolean mandatory, boolean _abstract, boolean hidden)
+            throws ParseException {
+        if (!featureNames.add(name)) {
+            throw new ParseException("Duplicate feature name!");
+        }
+        IFeature feature = featureModel.mutate().addFeature(name);
+        IFeatureTree featureTree;
+        if (parentFeature == null) {
+            featureTree = featureModel.mutate().addFeatureTreeRoot(feature);
+        } else {
+            featureTree = parentFeature.mutate().addFeatureBelow(feature);
+        }
+        feature.mutate().setAbstract(_abstract);
+        feature.mutate().setHidden(hidden);
+        if (mandatory || parentFeature == null) {
+            featureTree.mutate().makeMandatory();
+        } else {
+            featureTree.mutate().makeOptional();
+        }
+        return featureTree;
+    }
+
+    protected void parseConstraints() throws XMLStreamException, ParseException {
+        while (nextChildElement()) {
+            if (RULE.equals(reader.getLocalName())) {
+                parseRule();
+            } else {
+                skipElement();
+            }
+        }
+    }
+
+    protected void parseRule() throws XMLStreamException, ParseException {
+        int ruleLineNumber = getLineNumber();
+        List<IFormula> formulas = new ArrayList<>(1);
+        String description = null;
+        String tags = null;
+        List<Property> properties = new ArrayList<>();
+        while (nextChildElement()) {
+            String nodeName = reader.getLocalName();
+            switch (nodeName) {
+                case DESCRIPTION:
+                    description = getDescription(readText());
+                    break;
+                case TAGS:
+                    tags = readText();
+                    break;
+                case PROPERTY:
+                    properties.add(readProperty());
+                    break;
+                case DISJ:
+                case CONJ:
+                case EQ:
+                case IMP:
+                case NOT:
+                case ATMOST1:
+                case VAR:
+                    formulas.add(parseFormula());
+                    break;
+                default:
+                    addParseProblem("Unknown constraint node: " + nodeName, Problem.Severity.WARNING);
+                    skipElement();
+            }
+        }
+        if (formulas.size() != 1) {
+            parseProblems.add(new ParseProblem(
+                    "Constraint must contain exactly one formula", Problem.Severity.WARNING, ruleLineNumber));
+            return;
+        }
+        IConstraint constraint = featureModel.mutate().addConstraint(formulas.get(0));
+        if (description != null) {
+            constraint.mutate().setDescription(description);
+        }
+        for (Property property : properties) {
+            parseProperty(constraint, property);
+        }
+        if (tags != null) {
+            constraint.mutate().setTags(getTags(tags));
+        }
+    }
+
+    /**
+     * Parses the formula rooted at the current start element, which is consumed including its end element.
+     */
+    protected IFormula parseFormula() throws XMLStreamException, ParseException {
+        ArrayDeque<FormulaFrame> openFormulas = new ArrayDeque<>();
+        openFormulas.push(new FormulaFrame(reader.getLocalName(), getLineNumber()));
+        while (true) {
+            FormulaFrame frame = openFormulas.peek();
+            if (VAR.equals(frame.nodeName)) {
+                openFormulas.pop();
+                IFormula literal = new Literal(readText());
+                if (openFormulas.isEmpty()) {
+                    return literal;
+                }
+                openFormulas.peek().children.add(literal);
+            } else if (nextChildElement()) {
+                openFormulas.push(new FormulaFrame(reader.getLocalName(), getLineNumber()));
+            } else {
+                openFormulas.pop();
+                IFormula formula = newFormula(frame);
+                if (openFormulas.isEmpty()) {
+                    return formula;
+                }
+                openFormulas.peek().children.add(formula);
+            }
+        }
+    }
+
+    private IFormula newFormula(FormulaFrame frame) throws ParseException {
+        List<IFormula> children = frame.children;
+        switch (frame.nodeName) {
+            case DISJ:
+                return new Or(children);
+            case CONJ:
+                return new And(children);
+            case EQ:
+                checkNumberOfChildren(frame, 2);
+                return new BiImplies(children.get(0), children.get(1));
+            case IMP:
+                checkNumberOfChildren(frame, 2);
+                return new Implies(children.get(0), children.get(1));
+            case NOT:
+                checkNumberOfChildren(frame, 1);
+                return new Not(children.get(0));
+            case ATMOST1:
+                return new AtMost(1, children);
+            default:
+                throw new ParseException("Unknown constraint type: " + frame.nodeName + " in line " + frame.lineNumber);
+        }
+    }
+
+    private void checkNumberOfChildren(FormulaFrame frame, int numberOfChildren) throws ParseException {
+        if (frame.children.size() != numberOfChildren) {
+            throw new ParseException("Expected " + numberOfChildren + " operands for " + frame.nodeName + " in line "
+                    + frame.lineNumber + ", but found " + frame.children.size());
+        }
+    }
+
+    protected void parseComments() throws XMLStreamException {
+        while (nextChildElement()) {
+            String nodeName = reader.getLocalName();
+            if (nodeName.equals(COMMENT)) {
+                featureModel
+                        .mutate()
+                        .setDescription(featureModel.getDescription().orElse("") + "\n" + readText());
+            } else {
+                addParseProblem("Unknown comment attribute: " + nodeName, Problem.Severity.WARNING);
+                skipElement();
+            }
+        }
+    }
+
+    protected void parseFeatureModelProperties() throws XMLStreamException {
+        while (nextChildElement()) {
+            String nodeName = reader.getLocalName();
+            if (nodeName.equals(PROPERTY)) {
+                parseProperty(featureModel, readProperty());
+            } else {
+                FeatJAR.log().warning("Unkown node name %s", nodeName);
+                skipElement();
+            }
+        }
+    }
+
+    /**
+     * Reads the attributes of the current property element and consumes it including its end element.
+     * Returns {@code null} if a required attribute is missing.
+     */
+    private Property readProperty() throws XMLStreamException {
+        String key = reader.getAttributeValue(null, KEY);
+        String value = reader.getAttributeValue(null, VALUE);
+        String typeString = reader.getAttributeValue(null, DATA_TYPE);
+        String namespace = reader.getAttributeValue(null, NAMESPACE_TAG);
+        if (key == null || value == null) {
+            addParseProblem(
+                    "Missing one of the required attributes: " + KEY + " or " + VALUE, Problem.Severity.WARNING);
+            skipElement();
+            return null;
+        }
+        skipElement();
+        return new Property(
+                namespace == null ? Attribute.DEFAULT_NAMESPACE : namespace,
+                key,
+                typeString == null ? "string" : typeString,
+                value);
+    }
+
+    private void parseProperty(IFeatureModelElement featureModelElement, Property property) {
+        if (property != null) {
+            parseProblems.addAll(AttributeIO.parseAndSetAttributeValue(
+                    featureModelElement, property.namespace, property.name, property.typeString, property.valueString));
+        }
+    }
+
+    protected static String getDescription(String description) {
+        // NOTE: The following code is used for backwards compatibility. It replaces
+        // spaces and tabs that were added to the XML for indentation, but don't
+        // belong to the actual description.
+        return description.replaceAll("(\r\n|\r|\n)\\s*", "\n").replaceAll("\\A\n|\n\\Z", "");
+    }
+
+    protected static LinkedHashSet<String> getTags(String tags) {
+        return new LinkedHashSet<>(Arrays.asList(tags.split(",")));
+    }
+
+    /**
+     * Advances to the next child element of the current element.
+     *
+     * @return {@code true} if the reader is positioned on the start of a child element,
+     *         {@code false} if it is positioned on the end of the current element
+     */
+    private boolean nextChildElement() throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Consumes the current element including its end element and all its descendants.
+     */
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Returns the concatenated text of the current element and all its descendants,
+     * and consumes it including its end element.
+     */
+    private String readText() throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.SPACE:
+                case XMLStreamConstants.CDATA:
+                    text.append(reader.getText());
+                    break;
+                default:
+            }
+        }
+        return text.toString();
+    }
+
+    private int getLineNumber() {
+        return reader == null ? -1 : reader.getLocation().getLineNumber();
+    }
+
+    private void addParseProblem(String message, Problem.Severity severity) {
+        parseProblems.add(new ParseProblem(message, severity, getLineNumber()));
+    }
+}
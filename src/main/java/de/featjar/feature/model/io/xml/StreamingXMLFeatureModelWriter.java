@@ -0,0 +1,372 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.io.xml;
+
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.ABSTRACT;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.ALT;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.AND;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.ATMOST1;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.CONJ;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.CONSTRAINTS;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.DATA_TYPE;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.DESCRIPTION;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.DISJ;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.EQ;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.FEATURE;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.FEATURE_MODEL;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.HIDDEN;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.IMP;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.KEY;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.MANDATORY;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.NAME;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.NAMESPACE_TAG;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.NOT;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.OR;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.PROPERTY;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.RULE;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.STRUCT;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.TAGS;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.TRUE;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.VALUE;
+import static de.featjar.formula.io.xml.XMLFeatureModelConstants.VAR;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.data.IAttribute;
+import de.featjar.base.data.Problem;
+import de.featjar.base.data.Result;
+import de.featjar.feature.model.FeatureTree.Group;
+import de.featjar.feature.model.IConstraint;
+import de.featjar.feature.model.IFeatureModel;
+import de.featjar.feature.model.IFeatureTree;
+import de.featjar.feature.model.io.AttributeIO;
+import de.featjar.formula.structure.IExpression;
+import de.featjar.formula.structure.IFormula;
+import de.featjar.formula.structure.connective.And;
+import de.featjar.formula.structure.connective.AtMost;
+import de.featjar.formula.structure.connective.BiImplies;
+import de.featjar.formula.structure.connective.Implies;
+import de.featjar.formula.structure.connective.Not;
+import de.featjar.formula.structure.connective.Or;
+import de.featjar.formula.structure.predicate.Literal;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Writes feature models to FeatureIDE XML files without building a DOM.
+ * Produces the same document as {@link XMLFeatureModelWriter}, but writes elements directly to the output,
+ * so that the memory needed besides the feature model itself is bounded by the depth of the feature tree.
+ */
+public class StreamingXMLFeatureModelWriter {
+
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>";
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private IFeatureModel featureModel;
+    private XMLStreamWriter writer;
+    private int depth;
+    // the line separator followed by enough tabs for the current depth
+    private char[] lineBreak = (LINE_SEPARATOR + "\t".repeat(8)).toCharArray();
+    private int[] attributeOrder = new int[4];
+
+    public Result<String> serialize(IFeatureModel featureModel) {
+        StringWriter stringWriter = new StringWriter();
+        try {
+            write(featureModel, stringWriter);
+        } catch (IOException | RuntimeException e) {
+            return Result.empty(new Problem(e));
+        }
+        return Result.of(stringWriter.toString());
+    }
+
+    public void write(IFeatureModel featureModel, OutputStream outputStream) throws IOException {
+        Writer outputWriter = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        write(featureModel, outputWriter);
+        outputWriter.flush();
+    }
+
+    public void write(IFeatureModel featureModel, Writer outputWriter) throws IOException {
+        this.featureModel = featureModel;
+        depth = 0;
+        outputWriter.write(XML_DECLARATION);
+        outputWriter.write(LINE_SEPARATOR);
+        try {
+            writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputWriter);
+            try {
+                writer.writeStartElement(FEATURE_MODEL);
+                depth++;
+                writeFeatures();
+                writeConstraints();
+                depth--;
+                newLine();
+                writer.writeEndElement();
+                writer.writeCharacters(LINE_SEPARATOR);
+                writer.flush();
+            } finally {
+                writer.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            this.featureModel = null;
+            writer = null;
+        }
+    }
+
+    protected void writeFeatures() throws XMLStreamException {
+        newLine();
+        writer.writeStartElement(STRUCT);
+        depth++;
+        writeFeatureTreeRec(featureModel.getRoots().get(0));
+        depth--;
+        newLine();
+        writer.writeEndElement();
+    }
+
+    protected void writeConstraints() throws XMLStreamException {
+        if (!featureModel.getConstraints().isEmpty()) {
+            newLine();
+            writer.writeStartElement(CONSTRAINTS);
+            depth++;
+            for (final IConstraint constraint : featureModel.getConstraints()) {
+                newLine();
+                writer.writeStartElement(RULE);
+                depth++;
+                addDescription(constraint.getDescription().orElse(null));
+                addProperties(constraint.getAttributes().get());
+                addTags(constraint.getTags());
+                createPropositionalConstraints(constraint.getFormula());
+                depth--;
+                newLine();
+                writer.writeEndElement();
+            }
+            depth--;
+            newLine();
+            writer.writeEndElement();
+        }
+    }
+
+    protected void createPropositionalConstraints(IFormula node) throws XMLStreamException {
+        if (node == null) {
+            return;
+        }
+
+        final String op;
+        if (node instanceof Literal) {
+            final Literal literal = (Literal) node;
+            if (!literal.isPositive()) {
+                newLine();
+                writer.writeStartElement(NOT);
+                depth++;
+            }
+            newLine();
+            writer.writeStartElement(VAR);
+            writer.writeCharacters(literal.getFirstChild().get().getName());
+            writer.writeEndElement();
+            if (!literal.isPositive()) {
+                depth--;
+                newLine();
+                writer.writeEndElement();
+            }
+            return;
+        } else if (node instanceof Or) {
+            op = DISJ;
+        } else if (node instanceof BiImplies) {
+            op = EQ;
+        } else if (node instanceof Implies) {
+            op = IMP;
+        } else if (node instanceof And) {
+            op = CONJ;
+        } else if (node instanceof Not) {
+            op = NOT;
+        } else if (node instanceof AtMost) {
+            op = ATMOST1;
+        } else {
+            FeatJAR.log().error("Unsupported element %s", node);
+            return;
+        }
+
+        newLine();
+        List<? extends IExpression> children = node.getChildren();
+        if (children.isEmpty()) {
+            writer.writeEmptyElement(op);
+            return;
+        }
+        writer.writeStartElement(op);
+        depth++;
+        for (final IExpression child : children) {
+            createPropositionalConstraints((IFormula) child);
+        }
+        depth--;
+        newLine();
+        writer.writeEndElement();
+    }
+
+    protected void writeFeatureTreeRec(IFeatureTree feat) throws XMLStreamException {
+        if (feat == null) {
+            return;
+        }
+
+        final List<? extends IFeatureTree> children = feat.getChildren();
+
+        final String fnod;
+        if (children.isEmpty()) {
+            fnod = FEATURE;
+        } else {
+            Group group = feat.getChildrenGroups().get(0);
+            if (group.isAnd()) {
+                fnod = AND;
+            } else if (group.isOr()) {
+                fnod = OR;
+            } else if (group.isAlternative()) {
+                fnod = ALT;
+            } else {
+                FeatJAR.log().error("Unkown group %s", feat.getParentGroup());
+                return;
+            }
+        }
+
+        String description = feat.getFeature().getDescription().orElse(null);
+        Map<IAttribute<?>, Object> attributes = feat.getAttributes().orElse(Map.of());
+        newLine();
+        if (children.isEmpty() && !hasDescription(description) && attributes.isEmpty()) {
+            writer.writeEmptyElement(fnod);
+            writeAttributes(feat);
+            return;
+        }
+        writer.writeStartElement(fnod);
+        writeAttributes(feat);
+        depth++;
+        addDescription(description);
+        addProperties(attributes);
+        for (final IFeatureTree feature : children) {
+            writeFeatureTreeRec(feature);
+        }
+        depth--;
+        newLine();
+        writer.writeEndElement();
+    }
+
+    protected void addDescription(String description) throws XMLStreamException {
+        if (hasDescription(description)) {
+            newLine();
+            writer.writeStartElement(DESCRIPTION);
+            writer.writeCharacters(description);
+            writer.writeEndElement();
+        }
+    }
+
+    private static boolean hasDescription(String description) {
+        return (description != null) && !description.trim().isEmpty();
+    }
+
+    protected void addProperties(Map<IAttribute<?>, Object> attributes) throws XMLStreamException {
+        for (final Entry<IAttribute<?>, Object> property : attributes.entrySet()) {
+            newLine();
+            writer.writeEmptyElement(PROPERTY);
+            writeSortedAttributes(
+                    NAMESPACE_TAG,
+                    property.getKey().getNamespace(),
+                    DATA_TYPE,
+                    AttributeIO.getTypeString(property.getKey().getType())
+                            .orElseThrow(p -> new IllegalArgumentException()),
+                    KEY,
+                    property.getKey().getName(),
+                    VALUE,
+                    property.getValue().toString());
+        }
+    }
+
+    private void addTags(Set<String> tags) throws XMLStreamException {
+        if ((tags != null) && !tags.isEmpty()) {
+            newLine();
+            writer.writeStartElement(TAGS);
+            writer.writeCharacters(String.join(",", tags));
+            writer.writeEndElement();
+        }
+    }
+
+    protected void writeAttributes(IFeatureTree feat) throws XMLStreamException {
+        String name = feat.getFeature().getName().get();
+        String hidden = feat.getFeature().isHidden() ? TRUE : null;
+        String mandatory = null;
+        if (feat.isMandatory() || feat.getParent().isEmpty()) {
+            if ((feat.getParent().isPresent())
+                    && feat.getParent().get().getChildrenGroups().get(0).isAnd()) {
+                mandatory = TRUE;
+            } else if (feat.getParent().isEmpty()) {
+                mandatory = TRUE;
+            }
+        }
+        String _abstract = feat.getFeature().isAbstract() ? TRUE : null;
+        writeSortedAttributes(NAME, name, HIDDEN, hidden, MANDATORY, mandatory, ABSTRACT, _abstract);
+    }
+
+    /**
+     * Writes the given attributes ordered by name, as a DOM serializer does.
+     * Attributes with {@code null} value are omitted.
+     *
+     * @param namesAndValues alternating attribute names and values
+     */
+    private void writeSortedAttributes(String... namesAndValues) throws XMLStreamException {
+        int numberOfAttributes = namesAndValues.length / 2;
+        if (attributeOrder.length < numberOfAttributes) {
+            attributeOrder = new int[numberOfAttributes];
+        }
+        // insertion sort, as there are only a few attributes per element
+        for (int i = 0; i < numberOfAttributes; i++) {
+            int j = i;
+            while (j > 0 && namesAndValues[2 * attributeOrder[j - 1]].compareTo(namesAndValues[2 * i]) > 0) {
+                attributeOrder[j] = attributeOrder[j - 1];
+                j--;
+            }
+            attributeOrder[j] = i;
+        }
+        for (int k = 0; k < numberOfAttributes; k++) {
+            int i = attributeOrder[k];
+            String value = namesAndValues[2 * i + 1];
+            if (value != null) {
+                writer.writeAttribute(namesAndValues[2 * i], value);
+            }
+        }
+    }
+
+    private void newLine() throws XMLStreamException {
+        int length = LINE_SEPARATOR.length() + depth;
+        if (lineBreak.length < length) {
+            lineBreak = Arrays.copyOf(lineBreak, 2 * length);
+            Arrays.fill(lineBreak, LINE_SEPARATOR.length(), lineBreak.length, '\t');
+        }
+        writer.writeCharacters(lineBreak, 0, length);
+    }
+}
@@ -21,10 +21,13 @@
 package de.featjar.feature.model.mixins;
 
 import de.featjar.base.data.Result;
+import de.featjar.base.data.Sets;
 import de.featjar.base.data.identifier.IIdentifier;
 import de.featjar.feature.model.IConstraint;
+import de.featjar.feature.model.IFeature;
 import de.featjar.feature.model.IFeatureModel;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.Objects;
 
 /**
@@ -53,4 +56,16 @@ public interface IHasConstraints {
     default int getNumberOfConstraints() {
         return getConstraints().size();
     }
+
+    /**
+     * {@return all constraints whose formula references the given feature}
+     *
+     * @param feature the feature
+     */
+    default LinkedHashSet<IConstraint> getReferencingConstraints(IFeature feature) {
+        Objects.requireNonNull(feature);
+        return getConstraints().stream()
+                .filter(constraint -> constraint.getReferencedFeatures().contains(feature))
+                .collect(Sets.toSet());
+    }
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.transformer;
+
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.feature.model.IFeatureModel;
+import de.featjar.formula.structure.IFormula;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Transforms a feature model into a boolean formula like {@link ComputeFormula},
+ * but reuses the formula from a {@link FormulaCache} as long as the feature model is unchanged.
+ * Each computation returns its own copy of the cached formula.
+ */
+public class CachedComputeFormula extends ComputeFormula {
+
+    private final FormulaCache cache;
+
+    public CachedComputeFormula(IComputation<IFeatureModel> featureModel) {
+        this(featureModel, FormulaCache.getDefault());
+    }
+
+    public CachedComputeFormula(IComputation<IFeatureModel> featureModel, FormulaCache cache) {
+        super(featureModel);
+        this.cache = Objects.requireNonNull(cache);
+    }
+
+    protected CachedComputeFormula(CachedComputeFormula other) {
+        super(other);
+        cache = other.cache;
+    }
+
+    public FormulaCache getCache() {
+        return cache;
+    }
+
+    @Override
+    public Result<IFormula> compute(List<Object> dependencyList, Progress progress) {
+        return cache.get(
+                FEATURE_MODEL.get(dependencyList),
+                SIMPLE_TRANSLATION.get(dependencyList),
+                () -> super.compute(dependencyList, progress));
+    }
+}
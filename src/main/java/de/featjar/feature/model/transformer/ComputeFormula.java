@@ -25,7 +25,6 @@ import de.featjar.base.computation.Computations;
 import de.featjar.base.computation.Dependency;
 import de.featjar.base.computation.IComputation;
 import de.featjar.base.computation.Progress;
-import de.featjar.base.data.Attribute;
 import de.featjar.base.data.IAttribute;
 import de.featjar.base.data.Range;
 import de.featjar.base.data.Result;
@@ -45,9 +44,12 @@ import de.featjar.formula.structure.connective.Or;
 import de.featjar.formula.structure.connective.Reference;
 import de.featjar.formula.structure.term.value.Variable;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Transforms a feature model into a boolean formula.
+ * The feature model is only read, so several threads may translate the same model at once.
  *
  * @author Sebastian Krieter
  */
@@ -55,11 +57,14 @@ public class ComputeFormula extends AComputation<IFormula> {
     protected static final Dependency<IFeatureModel> FEATURE_MODEL = Dependency.newDependency(IFeatureModel.class);
     protected static final Dependency<Boolean> SIMPLE_TRANSLATION = Dependency.newDependency(Boolean.class);
 
-    static Attribute<String> literalNameAttribute = new Attribute<>("literalName", String.class);
-    private Boolean hasCardinalityFeatures = Boolean.FALSE;
+    /**
+     * Whether subtrees of the feature tree are translated in parallel.
+     * The resulting formula is identical to the one of a sequential translation.
+     */
+    public static final Dependency<Boolean> PARALLEL_TRANSLATION = Dependency.newDependency(Boolean.class);
 
     public ComputeFormula(IComputation<IFeatureModel> formula) {
-        super(formula, Computations.of(Boolean.FALSE));
+        super(formula, Computations.of(Boolean.FALSE), Computations.of(Boolean.FALSE));
     }
 
     protected ComputeFormula(ComputeFormula other) {
@@ -72,6 +77,7 @@ public class ComputeFormula extends AComputation<IFormula> {
         ArrayList<IFormula> constraints = new ArrayList<>();
         HashSet<Variable> variables = new HashSet<>();
         Map<IFormula, Map<IAttribute<?>, Object>> attributes = new LinkedHashMap<>();
+        boolean hasCardinalityFeatures;
 
         if (SIMPLE_TRANSLATION.get(dependencyList)) {
             IFeatureTree iFeatureTree = featureModel.getRoots().get(0);
@@ -82,15 +88,18 @@ public class ComputeFormula extends AComputation<IFormula> {
 
             hasCardinalityFeatures = simpleVisitor.getHasCardinalityFeature();
         } else {
-            traverseFeatureModel(featureModel, constraints, variables, attributes);
+            hasCardinalityFeatures = traverseFeatureModel(
+                    featureModel, constraints, variables, attributes, PARALLEL_TRANSLATION.get(dependencyList));
         }
 
         ReplaceAttributeAggregate replaceAttributeAggregate =
                 new ReplaceAttributeAggregate(attributes, hasCardinalityFeatures);
         featureModel.getConstraints().forEach(constraint -> {
-            Trees.traverse(constraint.getFormula(), replaceAttributeAggregate);
+            // aggregates are replaced in a copy, so that the feature model is not modified
+            IFormula formula = Trees.clone(constraint.getFormula());
+            Trees.traverse(formula, replaceAttributeAggregate);
 
-            constraints.add(constraint.getFormula());
+            constraints.add(formula);
         });
 
         Reference reference = new Reference(new And(constraints));
@@ -98,136 +107,298 @@ public class ComputeFormula extends AComputation<IFormula> {
         return Result.of(reference);
     }
 
-    private void traverseFeatureModel(
-            IFeatureModel featureModel,
-            ArrayList<IFormula> constraints,
-            HashSet<Variable> variables,
-            Map<IFormula, Map<IAttribute<?>, Object>> attributes) {
-
-        for (IFeatureTree root : featureModel.getRoots()) {
-
-            // collect the attributes of root
-            Variable variable = new Variable(
-                    root.getFeature().getName().get(), root.getFeature().getType());
-            variables.add(variable);
-            if (root.getFeature().getAttributes().isPresent()) {
-                attributes.put(Features.createFeatureFormel(root.getFeature()), root.getFeature().getAttributes().get());
-            }
-
-            IFormula rootFormula = Features.createFeatureFormel(root.getFeature());
-            if (root.isMandatory()) {
-                constraints.add(rootFormula);
-            }
-            handleGroups(rootFormula, root, constraints);
-
-            addChildConstraints(root, constraints, variables, attributes);
+    /**
+     * A feature tree node whose children are being translated.
+     * Replaces the call stack of a recursive translation, so that arbitrarily deep feature trees can be translated.
+     */
+    private static final class Frame {
+        private final List<? extends IFeatureTree> children;
+        private final String[] childFormulaNames;
+        private final String formulaName;
+        private final IFormula formula;
+        private final boolean childrenHaveCardinalityFeatureAbove;
+        private int childIndex;
+
+        private IFeatureTree cardinalityChild;
+        private int cardinalityIndex;
+        private LinkedList<IFormula> cardinalityFormulas;
+
+        private Frame(
+                IFeatureTree node,
+                String formulaName,
+                String[] childFormulaNames,
+                boolean hasCardinalityFeatureAbove) {
+            this.formulaName = formulaName;
+            this.childFormulaNames = childFormulaNames;
+            children = node.getChildren();
+            formula = Features.createFeatureFormel(node.getFeature(), formulaName);
+            childrenHaveCardinalityFeatureAbove = hasCardinalityFeatureAbove || isCardinalityFeature(node);
         }
     }
 
-    private void addChildConstraints(
-            IFeatureTree node,
-            ArrayList<IFormula> constraints,
-            HashSet<Variable> variables,
-            Map<IFormula, Map<IAttribute<?>, Object>> attributes) {
+    /**
+     * A chunk of constraints and attributes emitted consecutively by a single {@link SubtreeTranslation}.
+     */
+    private static final class Segment {
+        private final ArrayList<IFormula> constraints = new ArrayList<>();
+        private final LinkedHashMap<IFormula, Map<IAttribute<?>, Object>> attributes = new LinkedHashMap<>();
+    }
 
-        // collect the attributes of all features
-        // TODO: check if the variables need to be duplicated?
-        Variable variable = new Variable(
-                node.getFeature().getName().get(), node.getFeature().getType());
-        variables.add(variable);
-        if (node.getFeature().getAttributes().isPresent()) {
-            attributes.put(Features.createFeatureFormel(node.getFeature()), node.getFeature().getAttributes().get());
+    /**
+     * Translates a subtree of the feature tree.
+     * In parallel mode, the subtrees of children are forked as separate tasks while there is too little queued work.
+     * The output is kept as a sequence of segments and forked tasks, which is merged in preorder by
+     * {@link ComputeFormula#merge(SubtreeTranslation, ArrayList, HashSet, Map)}.
+     */
+    private final class SubtreeTranslation extends RecursiveTask<SubtreeTranslation> {
+        private static final long serialVersionUID = 1L;
+
+        private static final int SURPLUS_TASK_THRESHOLD = 2;
+
+        private final IFeatureTree root;
+        private final String rootFormulaName;
+        private final String[] rootChildFormulaNames;
+        private final boolean rootHasCardinalityFeatureAbove;
+        private final boolean parallel;
+
+        private final ArrayList<Object> output = new ArrayList<>();
+        private final ArrayList<Variable> variables = new ArrayList<>();
+        private Segment segment;
+        private boolean hasCardinalityFeatures;
+
+        private SubtreeTranslation(
+                IFeatureTree root,
+                String rootFormulaName,
+                String[] rootChildFormulaNames,
+                boolean rootHasCardinalityFeatureAbove,
+                boolean parallel) {
+            this.root = root;
+            this.rootFormulaName = rootFormulaName;
+            this.rootChildFormulaNames = rootChildFormulaNames;
+            this.rootHasCardinalityFeatureAbove = rootHasCardinalityFeatureAbove;
+            this.parallel = parallel;
         }
 
-        IFormula parentFormula = Features.createFeatureFormel(node.getFeature(), getFormulaName(node));
-
-        for (IFeatureTree child : node.getChildren()) {
+        private Segment segment() {
+            if (segment == null) {
+                segment = new Segment();
+                output.add(segment);
+            }
+            return segment;
+        }
 
-            if (isCardinalityFeature(child)) {
-                hasCardinalityFeatures = Boolean.TRUE;
+        @Override
+        protected SubtreeTranslation compute() {
+            ArrayDeque<Frame> stack = new ArrayDeque<>();
+            stack.push(enter(root, rootFormulaName, rootChildFormulaNames, rootHasCardinalityFeatureAbove));
 
-                int upperBound = child.getFeatureCardinalityUpperBound();
-                int lowerBound = child.getFeatureCardinalityLowerBound();
+            while (!stack.isEmpty()) {
+                Frame frame = stack.peek();
 
-                LinkedList<IFormula> constraintGroupFormulas = new LinkedList<>();
+                if (frame.cardinalityChild != null) {
+                    IFeatureTree child = frame.cardinalityChild;
+                    if (frame.cardinalityIndex < child.getFeatureCardinalityUpperBound()) {
+                        int i = ++frame.cardinalityIndex;
 
-                for (int i = 1; i <= upperBound; i++) {
+                        String formulaName = getFormulaName(child) + "_" + i;
+                        if (frame.childrenHaveCardinalityFeatureAbove) {
+                            formulaName += "." + frame.formulaName;
+                        }
 
-                    String formulaName = getFormulaName(child) + "_" + i;
-                    if (cardinalityFeatureAbove(child)) {
-                        formulaName += "." + getFormulaName(node);
-                    }
+                        IFormula currentFormula = Features.createFeatureFormel(child.getFeature(), formulaName);
 
-                    // clone only tree for traversal, not its children
-                    IFeatureTree cardinalityClone = child.cloneTree();
-                    cardinalityClone.mutate().setAttributeValue(literalNameAttribute, formulaName);
+                        // add all the constraints
+                        ArrayList<IFormula> constraints = segment().constraints;
+                        // imply parent
+                        constraints.add(new Implies(currentFormula, frame.formula));
+                        // implication chain part
+                        if (i > 1) {
+                            IFormula previousFormula = frame.cardinalityFormulas.getLast();
+                            constraints.add(new Implies(currentFormula, previousFormula));
+                        }
+                        // group constraints (the instance itself is a cardinality feature above its children)
+                        String[] childFormulaNames =
+                                handleGroups(currentFormula, child, formulaName, true, constraints);
 
-                    IFormula currentFormula = Features.createFeatureFormel(child.getFeature(), formulaName);
+                        frame.cardinalityFormulas.add(currentFormula);
 
-                    // add all the constraints
-                    // imply parent
-                    constraints.add(new Implies(currentFormula, parentFormula));
-                    // implication chain part
-                    if (i > 1) {
-                        IFormula previousFormula = constraintGroupFormulas.getLast();
-                        constraints.add(new Implies(currentFormula, previousFormula));
+                        // names below the instance only depend on the instance itself, not on features above it
+                        descend(stack, child, formulaName, childFormulaNames, false);
+                    } else {
+                        // check if 0 and do not add implication
+                        int lowerBound = child.getFeatureCardinalityLowerBound();
+                        if (lowerBound != 0)
+                            segment()
+                                    .constraints
+                                    .add(new Implies(
+                                            frame.formula, new AtLeast(lowerBound, frame.cardinalityFormulas)));
+
+                        // remaining children are not translated after a cardinality feature
+                        stack.pop();
                     }
-                    // group constraints
-                    handleGroups(currentFormula, cardinalityClone, constraints);
-
-                    constraintGroupFormulas.add(currentFormula);
-
-                    addChildConstraints(cardinalityClone, constraints, variables, attributes);
+                } else if (frame.childIndex < frame.children.size()) {
+                    int childIndex = frame.childIndex++;
+                    IFeatureTree child = frame.children.get(childIndex);
+
+                    if (isCardinalityFeature(child)) {
+                        hasCardinalityFeatures = true;
+                        frame.cardinalityChild = child;
+                        frame.cardinalityFormulas = new LinkedList<>();
+                    } else {
+                        // already resolved when handling the groups of the parent
+                        String formulaName = frame.childFormulaNames[childIndex];
+
+                        IFormula childFeatureFormula = Features.createFeatureFormel(child.getFeature(), formulaName);
+
+                        // add constraints
+                        ArrayList<IFormula> constraints = segment().constraints;
+                        // always add parent implications (child implies parent)
+                        constraints.add(new Implies(childFeatureFormula, frame.formula));
+
+                        // handle group
+                        String[] childFormulaNames = handleGroups(
+                                childFeatureFormula,
+                                child,
+                                formulaName,
+                                frame.childrenHaveCardinalityFeatureAbove,
+                                constraints);
+
+                        descend(
+                                stack,
+                                child,
+                                formulaName,
+                                childFormulaNames,
+                                frame.childrenHaveCardinalityFeatureAbove);
+                    }
+                } else {
+                    stack.pop();
                 }
-                // check if 0 and do not add implication
-                if (lowerBound != 0)
-                    constraints.add(new Implies(parentFormula, new AtLeast(lowerBound, constraintGroupFormulas)));
+            }
+            return this;
+        }
 
-                return;
+        /**
+         * Continues the translation with the given node, either in this task or in a forked task.
+         */
+        private void descend(
+                ArrayDeque<Frame> stack,
+                IFeatureTree node,
+                String formulaName,
+                String[] childFormulaNames,
+                boolean hasCardinalityFeatureAbove) {
+            if (parallel && node.hasChildren() && getSurplusQueuedTaskCount() <= SURPLUS_TASK_THRESHOLD) {
+                SubtreeTranslation subtask = new SubtreeTranslation(
+                        node, formulaName, childFormulaNames, hasCardinalityFeatureAbove, true);
+                subtask.fork();
+                output.add(subtask);
+                segment = null;
             } else {
+                stack.push(enter(node, formulaName, childFormulaNames, hasCardinalityFeatureAbove));
+            }
+        }
 
-                String formulaName = getFormulaName(child);
-                if (cardinalityFeatureAbove(child)) {
-                    formulaName += "." + getFormulaName(node);
-                }
+        private Frame enter(
+                IFeatureTree node,
+                String formulaName,
+                String[] childFormulaNames,
+                boolean hasCardinalityFeatureAbove) {
+            // collect the attributes of all features
+            // TODO: check if the variables need to be duplicated?
+            Variable variable = new Variable(
+                    node.getFeature().getName().get(), node.getFeature().getType());
+            variables.add(variable);
+            if (node.getFeature().getAttributes().isPresent()) {
+                segment()
+                        .attributes
+                        .put(
+                                Features.createFeatureFormel(node.getFeature()),
+                                node.getFeature().getAttributes().get());
+            }
 
-                IFormula childFeatureFormula = Features.createFeatureFormel(child.getFeature(), formulaName);
-                child.mutate().setAttributeValue(literalNameAttribute, formulaName);
+            return new Frame(node, formulaName, childFormulaNames, hasCardinalityFeatureAbove);
+        }
+    }
 
-                // add constraints
-                // always add parent implications (child implies parent)
-                constraints.add(new Implies(childFeatureFormula, parentFormula));
+    private boolean traverseFeatureModel(
+            IFeatureModel featureModel,
+            ArrayList<IFormula> constraints,
+            HashSet<Variable> variables,
+            Map<IFormula, Map<IAttribute<?>, Object>> attributes,
+            boolean parallel) {
 
-                // handle group
-                handleGroups(childFeatureFormula, child, constraints);
+        boolean hasCardinalityFeatures = false;
+        for (IFeatureTree root : featureModel.getRoots()) {
 
-                addChildConstraints(child, constraints, variables, attributes);
+            // collect the attributes of root
+            Variable variable = new Variable(
+                    root.getFeature().getName().get(), root.getFeature().getType());
+            variables.add(variable);
+            if (root.getFeature().getAttributes().isPresent()) {
+                attributes.put(
+                        Features.createFeatureFormel(root.getFeature()),
+                        root.getFeature().getAttributes().get());
             }
+
+            IFormula rootFormula = Features.createFeatureFormel(root.getFeature());
+            if (root.isMandatory()) {
+                constraints.add(rootFormula);
+            }
+            String rootFormulaName = getFormulaName(root);
+            String[] childFormulaNames =
+                    handleGroups(rootFormula, root, rootFormulaName, isCardinalityFeature(root), constraints);
+
+            SubtreeTranslation translation =
+                    new SubtreeTranslation(root, rootFormulaName, childFormulaNames, false, parallel);
+            if (parallel) {
+                ForkJoinPool.commonPool().invoke(translation);
+            } else {
+                translation.invoke();
+            }
+            hasCardinalityFeatures |= merge(translation, constraints, variables, attributes);
         }
+        return hasCardinalityFeatures;
     }
 
-    private String getFormulaName(IFeatureTree node) {
-        String literalName = "";
-        if (node.getAttributeValue(literalNameAttribute).isEmpty()) {
-            literalName = node.getFeature().getName().orElse("");
-        } else {
-            literalName = node.getAttributeValue(literalNameAttribute).orElse("");
+    /**
+     * Appends the output of the given translation and all its forked tasks in preorder,
+     * waiting for forked tasks to complete as needed.
+     *
+     * @return whether any of the tasks encountered a cardinality feature
+     */
+    private boolean merge(
+            SubtreeTranslation translation,
+            ArrayList<IFormula> constraints,
+            HashSet<Variable> variables,
+            Map<IFormula, Map<IAttribute<?>, Object>> attributes) {
+        boolean hasCardinalityFeatures = false;
+        ArrayDeque<Iterator<Object>> stack = new ArrayDeque<>();
+        stack.push(List.<Object>of(translation).iterator());
+        while (!stack.isEmpty()) {
+            Iterator<Object> iterator = stack.peek();
+            if (!iterator.hasNext()) {
+                stack.pop();
+                continue;
+            }
+            Object next = iterator.next();
+            if (next instanceof Segment) {
+                Segment segment = (Segment) next;
+                constraints.addAll(segment.constraints);
+                attributes.putAll(segment.attributes);
+            } else {
+                SubtreeTranslation subtask = ((SubtreeTranslation) next).join();
+                variables.addAll(subtask.variables);
+                hasCardinalityFeatures |= subtask.hasCardinalityFeatures;
+                stack.push(subtask.output.iterator());
+            }
         }
-        return literalName;
+        return hasCardinalityFeatures;
     }
 
-    private boolean cardinalityFeatureAbove(IFeatureTree child) {
-
-        if (!child.getParent().isPresent()) return false;
-
-        if (isCardinalityFeature(child.getParent().get())) {
-            return true;
-        } else {
-            return cardinalityFeatureAbove(child.getParent().get());
-        }
+    private static String getFormulaName(IFeatureTree node) {
+        return node.getFeature().getName().orElse("");
     }
 
-    private boolean isCardinalityFeature(IFeatureTree node) {
+    static boolean isCardinalityFeature(IFeatureTree node) {
 
         if (node.getFeatureCardinalityUpperBound() > 1) {
             return true;
@@ -235,8 +406,19 @@ public class ComputeFormula extends AComputation<IFormula> {
         return false;
     }
 
-   // private void handleGroups(ArrayList<IFormula> constraints, IFormula featureLiteral, IFeatureTree node) {
-    private void handleGroups(IFormula featureFormula, IFeatureTree node, ArrayList<IFormula> constraints) {
+    /**
+     * Adds the group constraints of the given node and resolves the formula names of its children.
+     * The names are kept with the translation instead of being stored in the feature tree, so that each node's name
+     * is resolved once and the input model is not modified.
+     *
+     * @return the formula names of the node's children, in the order of {@link IFeatureTree#getChildren()}
+     */
+    static String[] handleGroups(
+            IFormula featureFormula,
+            IFeatureTree node,
+            String formulaName,
+            boolean childrenHaveCardinalityFeatureAbove,
+            ArrayList<IFormula> constraints) {
         List<Group> childrenGroups = node.getChildrenGroups();
         int groupCount = childrenGroups.size();
         ArrayList<List<IFormula>> groupFormulas = new ArrayList<>(groupCount);
@@ -246,11 +428,13 @@ public class ComputeFormula extends AComputation<IFormula> {
         }
 
         List<? extends IFeatureTree> children = node.getChildren();
+        String[] childFormulaNames = new String[children.size()];
+        int childIndex = 0;
         for (IFeatureTree childNode : children) {
 
             String childFormulaName = getFormulaName(childNode);
-            if (childNode.getAttributeValue(literalNameAttribute).isEmpty() && cardinalityFeatureAbove(childNode))
-                childFormulaName += "." + getFormulaName(node);
+            if (childrenHaveCardinalityFeatureAbove) childFormulaName += "." + formulaName;
+            childFormulaNames[childIndex++] = childFormulaName;
 
             IFormula childFormula = Features.createFeatureFormel(childNode.getFeature(), childFormulaName);
 
@@ -290,5 +474,6 @@ public class ComputeFormula extends AComputation<IFormula> {
                 }
             }
         }
+        return childFormulaNames;
     }
 }
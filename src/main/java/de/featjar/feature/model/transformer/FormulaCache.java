@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.transformer;
+
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.Trees;
+import de.featjar.feature.model.IFeatureModel;
+import de.featjar.formula.structure.IFormula;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A bounded cache of the formulas of feature models, used by {@link CachedComputeFormula}.
+ * Entries are keyed by the identity of a feature model and the translation mode.
+ * Feature models are only weakly referenced, so that the cache does not keep them alive.
+ * An entry is only valid as long as the {@link IFeatureModel#getModificationCount() modification count}
+ * of its feature model did not change.
+ * When the cache is full, the least recently used entry is evicted.
+ */
+public class FormulaCache {
+
+    private static final FormulaCache DEFAULT = new FormulaCache(16);
+
+    /**
+     * {@return the cache shared by all computations that do not specify one}
+     */
+    public static FormulaCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Weakly references a feature model and compares it by identity.
+     * Once the feature model is garbage collected, the key only equals itself.
+     */
+    private static final class Key extends WeakReference<IFeatureModel> {
+        private final boolean simpleTranslation;
+        private final int hashCode;
+
+        private Key(
+                IFeatureModel featureModel, boolean simpleTranslation, ReferenceQueue<IFeatureModel> referenceQueue) {
+            super(featureModel, referenceQueue);
+            this.simpleTranslation = simpleTranslation;
+            hashCode = 31 * System.identityHashCode(featureModel) + Boolean.hashCode(simpleTranslation);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key other = (Key) o;
+            IFeatureModel featureModel = get();
+            return featureModel != null && featureModel == other.get() && simpleTranslation == other.simpleTranslation;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class CachedFormula {
+        private final long modificationCount;
+        private final IFormula formula;
+
+        private CachedFormula(long modificationCount, IFormula formula) {
+            this.modificationCount = modificationCount;
+            this.formula = formula;
+        }
+    }
+
+    private final int maximumSize;
+    private final LinkedHashMap<Key, CachedFormula> entries;
+    private final ReferenceQueue<IFeatureModel> referenceQueue = new ReferenceQueue<>();
+
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maximumSize the maximum number of cached formulas
+     */
+    public FormulaCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException(String.format("maximum size must be positive (%d)", maximumSize));
+        }
+        this.maximumSize = maximumSize;
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedFormula> eldest) {
+                return size() > FormulaCache.this.maximumSize;
+            }
+        };
+    }
+
+    /**
+     * {@return the cached formula of the given feature model, computing and caching it if necessary}
+     * Each call returns a new copy of the cached formula, so callers may modify it.
+     * Computing the formula is not synchronized, so concurrent misses for the same model may compute it twice.
+     *
+     * @param featureModel the feature model
+     * @param simpleTranslation whether the formula is computed with the simple translation
+     * @param computation computes the formula
+     */
+    public Result<IFormula> get(
+            IFeatureModel featureModel, boolean simpleTranslation, Supplier<Result<IFormula>> computation) {
+        Objects.requireNonNull(featureModel);
+        Key key = new Key(featureModel, simpleTranslation, referenceQueue);
+        long modificationCount = featureModel.getModificationCount();
+        synchronized (this) {
+            removeCollectedEntries();
+            CachedFormula entry = entries.get(key);
+            if (entry != null && modificationCount >= 0 && entry.modificationCount == modificationCount) {
+                hitCount++;
+                return Result.of(Trees.clone(entry.formula));
+            }
+            missCount++;
+        }
+        Result<IFormula> formula = computation.get();
+        if (formula.isPresent() && modificationCount >= 0 && featureModel.getModificationCount() == modificationCount) {
+            IFormula cachedFormula = Trees.clone(formula.get());
+            synchronized (this) {
+                entries.put(key, new CachedFormula(modificationCount, cachedFormula));
+            }
+        }
+        return formula;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public synchronized int size() {
+        removeCollectedEntries();
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Removes all entries and resets the hit and miss counts.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        while (referenceQueue.poll() != null) {}
+        hitCount = 0;
+        missCount = 0;
+    }
+
+    /**
+     * Removes the entries of feature models that were garbage collected.
+     */
+    private void removeCollectedEntries() {
+        for (Object key = referenceQueue.poll(); key != null; key = referenceQueue.poll()) {
+            entries.remove(key);
+        }
+    }
+}
@@ -0,0 +1,450 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.transformer;
+
+import de.featjar.base.computation.Computations;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.Trees;
+import de.featjar.feature.model.Attributes;
+import de.featjar.feature.model.FeatureModel;
+import de.featjar.feature.model.FeatureModelEvent;
+import de.featjar.feature.model.Features;
+import de.featjar.feature.model.IConstraint;
+import de.featjar.feature.model.IFeature;
+import de.featjar.feature.model.IFeatureModel;
+import de.featjar.feature.model.IFeatureModel.IMutableFeatureModel;
+import de.featjar.feature.model.IFeatureModelListener;
+import de.featjar.feature.model.IFeatureTree;
+import de.featjar.formula.structure.IFormula;
+import de.featjar.formula.structure.connective.And;
+import de.featjar.formula.structure.connective.Implies;
+import de.featjar.formula.structure.connective.Reference;
+import de.featjar.formula.structure.term.aggregate.IAttributeAggregate;
+import de.featjar.formula.structure.term.value.Variable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Maintains the formula of a feature model across edits.
+ * The constraints produced for each feature tree node and each cross-tree constraint are kept in a mirror of the
+ * feature tree, together with the assembled list of all tree constraints.
+ * After an edit, only the invalidated nodes are visited and translated again, and their constraints are patched
+ * into the assembled list. Only if the number of constraints or the structure of the tree changes, the list is
+ * assembled again from the mirror, which does not visit the feature tree.
+ * The resulting formula is equal to the one computed by {@link ComputeFormula}.
+ * Changes are either reported by calling the {@code invalidate} methods or, for a {@link FeatureModel},
+ * by registering this translator as a listener with {@link IMutableFeatureModel#addListener(IFeatureModelListener)}.
+ * As long as neither is the case and the {@link IFeatureModel#getModificationCount() modification count} of the
+ * model stays the same, the last formula is returned without visiting the model.
+ * Changes that are not reported are detected by the modification count and cause a complete translation.
+ * <p>
+ * Cardinality features and attribute aggregates depend on the whole model and cannot be translated locally.
+ * While the model contains any of them, {@link #getFormula()} falls back to a complete translation with
+ * {@link ComputeFormula}, which is reported by {@link #isTranslatedCompletely()}.
+ */
+public class IncrementalFormulaTranslator implements IFeatureModelListener {
+
+    /**
+     * The constraints produced for a single feature tree node, and the segments of its children.
+     */
+    private static final class Segment {
+        private final IFeatureTree node;
+        private final ArrayList<Segment> children = new ArrayList<>(0);
+        private List<IFormula> constraints = List.of();
+        private Variable variable;
+        private boolean hasCardinalityFeature;
+
+        // position of the constraints in the assembled tree constraints
+        private int offset;
+        // the last layout of the assembled tree constraints that contains this segment
+        private int layout = -1;
+        // the last update in which the node was translated
+        private int update = -1;
+        // the last update in which the children were updated
+        private int childrenUpdate = -1;
+
+        private Segment(IFeatureTree node) {
+            this.node = node;
+        }
+    }
+
+    /**
+     * The translated formula of a single cross-tree constraint.
+     */
+    private static final class ConstraintEntry {
+        private final IFormula formula;
+        private final boolean hasAttributeAggregate;
+
+        private ConstraintEntry(IFormula formula) {
+            this.formula = formula;
+            hasAttributeAggregate = Trees.preOrderStream(formula).anyMatch(IAttributeAggregate.class::isInstance);
+        }
+    }
+
+    private final IFeatureModel featureModel;
+    private final IdentityHashMap<IFeatureTree, Segment> segments = new IdentityHashMap<>();
+    private final ArrayList<Segment> rootSegments = new ArrayList<>();
+    private final IdentityHashMap<IConstraint, ConstraintEntry> constraintEntries = new IdentityHashMap<>();
+
+    private final ArrayList<IFeatureTree> invalidNodes = new ArrayList<>();
+    private final Set<IFeatureTree> invalidNodeSet = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final ArrayDeque<Segment> segmentsToUpdate = new ArrayDeque<>();
+    private boolean areRootsInvalid = true;
+    private boolean isLayoutChanged = true;
+    private int update;
+    private int layout;
+
+    private final ArrayList<IFormula> treeConstraints = new ArrayList<>();
+    private final HashSet<Variable> treeVariables = new HashSet<>();
+    private int cardinalitySegmentCount;
+
+    private Result<IFormula> formula;
+    private long formulaModificationCount;
+    private long observedModificationCount;
+    private boolean translatedCompletely;
+
+    private int translatedNodeCount;
+
+    public IncrementalFormulaTranslator(IFeatureModel featureModel) {
+        this.featureModel = Objects.requireNonNull(featureModel);
+    }
+
+    public IFeatureModel getFeatureModel() {
+        return featureModel;
+    }
+
+    /**
+     * Invalidates the constraints of the given node, its parent, and its children.
+     * Must be called after changing the feature, cardinality, groups, or children of the node,
+     * after adding it to the tree, and before removing it from the tree.
+     *
+     * @param node the changed node
+     */
+    public void invalidate(IFeatureTree node) {
+        addInvalidNode(node);
+        node.getParent().ifPresent(this::addInvalidNode);
+        for (IFeatureTree child : node.getChildren()) {
+            addInvalidNode(child);
+        }
+        formula = null;
+        observedModificationCount = featureModel.getModificationCount();
+    }
+
+    private void addInvalidNode(IFeatureTree node) {
+        if (invalidNodeSet.add(node)) {
+            invalidNodes.add(node);
+        }
+    }
+
+    /**
+     * Invalidates the given cross-tree constraint.
+     * Must be called after changing the formula of the constraint.
+     *
+     * @param constraint the changed constraint
+     */
+    public void invalidate(IConstraint constraint) {
+        constraintEntries.remove(constraint);
+        formula = null;
+        observedModificationCount = featureModel.getModificationCount();
+    }
+
+    @Override
+    public void onChange(List<FeatureModelEvent> events) {
+        for (FeatureModelEvent event : events) {
+            Object source = event.getSource();
+            switch (event.getType()) {
+                case FEATURE_TREE_ADDED:
+                case FEATURE_TREE_REMOVED:
+                case FEATURE_TREE_CHANGED:
+                    invalidate((IFeatureTree) source);
+                    break;
+                case FEATURE_CHANGED:
+                    ((IFeature) source).getFeatureTree().ifPresent(this::invalidate);
+                    break;
+                case ATTRIBUTE_CHANGED:
+                    if (source instanceof IFeature && event.getAttribute().valueEquals(Attributes.NAME)) {
+                        ((IFeature) source).getFeatureTree().ifPresent(this::invalidate);
+                    } else if (translatedCompletely) {
+                        // other attributes only matter for aggregates
+                        formula = null;
+                    }
+                    break;
+                case CONSTRAINT_CHANGED:
+                case CONSTRAINT_REMOVED:
+                    invalidate((IConstraint) source);
+                    break;
+                case CONSTRAINT_ADDED:
+                    formula = null;
+                    break;
+                default:
+                    break;
+            }
+        }
+        observedModificationCount = featureModel.getModificationCount();
+    }
+
+    /**
+     * Invalidates all constraints, so that the next formula is translated completely.
+     */
+    public void invalidateAll() {
+        segments.clear();
+        rootSegments.clear();
+        constraintEntries.clear();
+        invalidNodes.clear();
+        invalidNodeSet.clear();
+        areRootsInvalid = true;
+        isLayoutChanged = true;
+        formula = null;
+    }
+
+    /**
+     * {@return the number of feature tree nodes translated for the last formula}
+     * Useful to check that an edit only caused a local translation.
+     */
+    public int getTranslatedNodeCount() {
+        return translatedNodeCount;
+    }
+
+    /**
+     * {@return whether the last formula was translated completely by {@link ComputeFormula}}
+     * This is the case while the model contains cardinality features or attribute aggregates.
+     */
+    public boolean isTranslatedCompletely() {
+        return translatedCompletely;
+    }
+
+    /**
+     * {@return the formula of the feature model, translating only invalidated nodes and constraints}
+     * Falls back to {@link ComputeFormula} for models with cardinality features or attribute aggregates.
+     */
+    public Result<IFormula> getFormula() {
+        translatedNodeCount = 0;
+        long modificationCount = featureModel.getModificationCount();
+        if (formula != null && modificationCount >= 0 && formulaModificationCount == modificationCount) {
+            return formula;
+        }
+        if (modificationCount < 0 || modificationCount != observedModificationCount) {
+            // unreported changes could affect any node or constraint
+            invalidateAll();
+            observedModificationCount = modificationCount;
+        }
+        updateTreeConstraints();
+
+        int constraintCount = featureModel.getNumberOfConstraints();
+        ArrayList<IFormula> constraints = new ArrayList<>(treeConstraints.size() + constraintCount);
+        constraints.addAll(treeConstraints);
+        boolean hasAttributeAggregates = false;
+        for (IConstraint constraint : featureModel.getConstraints()) {
+            ConstraintEntry entry = constraintEntries.get(constraint);
+            if (entry == null) {
+                entry = new ConstraintEntry(Trees.clone(constraint.getFormula()));
+                constraintEntries.put(constraint, entry);
+            }
+            hasAttributeAggregates |= entry.hasAttributeAggregate;
+            constraints.add(entry.formula);
+        }
+        if (constraintEntries.size() > constraintCount) {
+            constraintEntries.keySet().removeIf(constraint -> !featureModel.hasConstraint(constraint));
+        }
+
+        translatedCompletely = cardinalitySegmentCount > 0 || hasAttributeAggregates;
+        if (translatedCompletely) {
+            formula = Computations.of(featureModel).map(ComputeFormula::new).computeResult();
+        } else {
+            Reference reference = new Reference(new And(constraints));
+            reference.setFreeVariables(new HashSet<>(treeVariables));
+            formula = Result.of(reference);
+        }
+        formulaModificationCount = modificationCount;
+        return formula;
+    }
+
+    private void updateTreeConstraints() {
+        update++;
+        boolean isRootChanged = areRootsInvalid;
+        for (IFeatureTree node : invalidNodes) {
+            if (node.getParent().isEmpty()) {
+                isRootChanged = true;
+            }
+            if (isInFeatureModel(node)) {
+                Segment segment = segments.get(node);
+                if (segment == null) {
+                    getSegment(node);
+                } else {
+                    translate(segment);
+                    segmentsToUpdate.add(segment);
+                }
+            } else if (segments.remove(node) != null) {
+                // the segments of its descendants are forgotten when assembling the tree constraints
+                isLayoutChanged = true;
+            }
+        }
+        invalidNodes.clear();
+        invalidNodeSet.clear();
+
+        if (isRootChanged) {
+            updateChildren(rootSegments, featureModel.getRoots());
+        }
+        while (!segmentsToUpdate.isEmpty()) {
+            Segment segment = segmentsToUpdate.poll();
+            if (segment.childrenUpdate == update) {
+                continue;
+            }
+            segment.childrenUpdate = update;
+            updateChildren(segment.children, segment.node.getChildren());
+        }
+        areRootsInvalid = false;
+
+        if (isLayoutChanged) {
+            assembleTreeConstraints();
+            isLayoutChanged = false;
+        }
+    }
+
+    /**
+     * {@return the segment of the given node}
+     * A new segment is translated, and its children are updated later in the same update.
+     */
+    private Segment getSegment(IFeatureTree node) {
+        Segment segment = segments.get(node);
+        if (segment == null) {
+            segment = new Segment(node);
+            segments.put(node, segment);
+            translate(segment);
+            segmentsToUpdate.add(segment);
+        }
+        return segment;
+    }
+
+    private void updateChildren(ArrayList<Segment> segments, List<? extends IFeatureTree> nodes) {
+        boolean isChanged = segments.size() != nodes.size();
+        for (int i = 0; !isChanged && i < nodes.size(); i++) {
+            isChanged = segments.get(i).node != nodes.get(i);
+        }
+        if (isChanged) {
+            segments.clear();
+            for (IFeatureTree node : nodes) {
+                segments.add(getSegment(node));
+            }
+            isLayoutChanged = true;
+        }
+    }
+
+    /**
+     * Translates the node of the given segment, at most once per update.
+     * If the assembled tree constraints stay valid otherwise, the new constraints are patched into them.
+     */
+    private void translate(Segment segment) {
+        if (segment.update == update) {
+            return;
+        }
+        segment.update = update;
+        translatedNodeCount++;
+
+        IFeatureTree node = segment.node;
+        String formulaName = node.getFeature().getName().orElse("");
+        IFormula formula = Features.createFeatureFormel(node.getFeature(), formulaName);
+        ArrayList<IFormula> constraints = new ArrayList<>();
+
+        Result<IFeatureTree> parent = node.getParent();
+        if (parent.isPresent()) {
+            constraints.add(new Implies(formula, Features.createFeatureFormel(parent.get().getFeature())));
+        } else if (node.isMandatory()) {
+            constraints.add(formula);
+        }
+        ComputeFormula.handleGroups(formula, node, formulaName, false, constraints);
+
+        boolean hasCardinalityFeature = ComputeFormula.isCardinalityFeature(node);
+        for (IFeatureTree child : node.getChildren()) {
+            hasCardinalityFeature |= ComputeFormula.isCardinalityFeature(child);
+        }
+
+        Variable variable = new Variable(node.getFeature().getName().get(), node.getFeature().getType());
+
+        if (segment.layout != layout || constraints.size() != segment.constraints.size()) {
+            isLayoutChanged = true;
+        } else if (!isLayoutChanged) {
+            for (int i = 0; i < constraints.size(); i++) {
+                treeConstraints.set(segment.offset + i, constraints.get(i));
+            }
+            treeVariables.remove(segment.variable);
+            treeVariables.add(variable);
+            cardinalitySegmentCount += (hasCardinalityFeature ? 1 : 0) - (segment.hasCardinalityFeature ? 1 : 0);
+        }
+        segment.constraints = constraints;
+        segment.variable = variable;
+        segment.hasCardinalityFeature = hasCardinalityFeature;
+    }
+
+    /**
+     * Assembles the tree constraints from the segments in pre-order, as {@link ComputeFormula} does,
+     * and forgets the segments of nodes that are no longer part of the tree.
+     */
+    private void assembleTreeConstraints() {
+        layout++;
+        treeConstraints.clear();
+        treeVariables.clear();
+        cardinalitySegmentCount = 0;
+
+        int segmentCount = 0;
+        ArrayDeque<Segment> stack = new ArrayDeque<>();
+        for (int i = rootSegments.size() - 1; i >= 0; i--) {
+            stack.push(rootSegments.get(i));
+        }
+        while (!stack.isEmpty()) {
+            Segment segment = stack.pop();
+            segment.layout = layout;
+            segment.offset = treeConstraints.size();
+            treeConstraints.addAll(segment.constraints);
+            treeVariables.add(segment.variable);
+            if (segment.hasCardinalityFeature) {
+                cardinalitySegmentCount++;
+            }
+            segmentCount++;
+            for (int i = segment.children.size() - 1; i >= 0; i--) {
+                stack.push(segment.children.get(i));
+            }
+        }
+
+        if (segments.size() > segmentCount) {
+            segments.values().removeIf(segment -> segment.layout != layout);
+        }
+    }
+
+    private boolean isInFeatureModel(IFeatureTree node) {
+        IFeatureTree root = node;
+        for (Result<IFeatureTree> parent = root.getParent(); parent.isPresent(); parent = root.getParent()) {
+            root = parent.get();
+        }
+        for (IFeatureTree featureModelRoot : featureModel.getRoots()) {
+            if (featureModelRoot == root) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
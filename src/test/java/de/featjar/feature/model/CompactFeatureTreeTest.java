@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.base.data.identifier.Identifiers;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CompactFeatureTreeTest {
+
+    private IFeatureModel featureModel;
+
+    @BeforeEach
+    public void createFeatureModel() {
+        featureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+    }
+
+    @Test
+    void copyOfFeatureTree() {
+        IFeatureTree rootTree = featureModel.mutate().addFeatureTreeRoot(featureModel.mutate().addFeature("root"));
+        rootTree.mutate().makeMandatory();
+        rootTree.mutate().toOrGroup();
+        int groupID = rootTree.mutate().addAlternativeGroup();
+        IFeatureTree aTree = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("a"));
+        rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("b"), 1, groupID);
+        rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("c"), 2, groupID);
+        aTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("d"));
+        aTree.mutate().setAttributeValue(Attributes.DESCRIPTION, "node");
+
+        CompactFeatureTree compactFeatureTree = CompactFeatureTree.of(rootTree);
+        assertEquals(5, compactFeatureTree.size());
+        assertTrue(FeatureModelStructure.equals(rootTree, compactFeatureTree.getRoot()));
+        assertEquals(FeatureModelStructure.hash(rootTree), FeatureModelStructure.hash(compactFeatureTree.getRoot()));
+    }
+
+    @Test
+    void addAndRemoveFeatures() {
+        CompactFeatureTree compactFeatureTree = new CompactFeatureTree(featureModel.mutate().addFeature("root"), 4);
+        int root = compactFeatureTree.getRootIndex();
+        int a = compactFeatureTree.addFeatureBelow(root, featureModel.mutate().addFeature("a"), 0);
+        int c = compactFeatureTree.addFeatureBelow(root, featureModel.mutate().addFeature("c"), 0);
+        compactFeatureTree.addFeatureBelow(a, featureModel.mutate().addFeature("a1"), 0);
+        IFeatureTree rootTree = compactFeatureTree.getRoot();
+        IFeatureTree bTree = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("b"), 1);
+        assertEquals(List.of("a", "b", "c"), names(rootTree.getChildren()));
+        assertSame(rootTree, bTree.getParent().get());
+        assertEquals(c, compactFeatureTree.getNextSiblingIndex(compactFeatureTree.getIndex(bTree)));
+
+        IFeatureTree aTree = compactFeatureTree.getNode(a);
+        int groupID = aTree.mutate().addAlternativeGroup();
+        aTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("a2"), 1, groupID);
+        aTree.mutate().removeFromTree();
+        assertFalse(aTree.getParent().isPresent());
+        assertFalse(aTree.hasChildren());
+        assertEquals(List.of("a1", "a2", "b", "c"), names(rootTree.getChildren()));
+        assertEquals(3, rootTree.getChildrenGroups().size());
+        assertEquals(1, rootTree.getChildren().get(1).getParentGroupID());
+
+        IFeatureTree newRootTree = rootTree.mutate().addFeatureAbove(featureModel.mutate().addFeature("top"));
+        assertSame(newRootTree, compactFeatureTree.getRoot());
+        assertEquals(List.of(rootTree), newRootTree.getChildren());
+    }
+
+    @Test
+    void featureModelIndex() {
+        CompactFeatureTree compactFeatureTree = new CompactFeatureTree(featureModel.mutate().addFeature("root"));
+        IFeatureTree rootTree = compactFeatureTree.getRoot();
+        featureModel.mutate().addFeatureTreeRoot(rootTree);
+
+        IFeature a = featureModel.mutate().addFeature("a");
+        long modificationCount = featureModel.getModificationCount();
+        IFeatureTree aTree = rootTree.mutate().addFeatureBelow(a);
+        assertSame(aTree, featureModel.getFeatureTree(a).get());
+        assertTrue(featureModel.getModificationCount() > modificationCount);
+
+        aTree.mutate().removeFromTree();
+        assertFalse(featureModel.getFeatureTree(a).isPresent());
+    }
+
+    @Test
+    void viewsAndGroups() {
+        CompactFeatureTree compactFeatureTree = new CompactFeatureTree(featureModel.mutate().addFeature("root"));
+        IFeatureTree rootTree = compactFeatureTree.getRoot();
+        rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("a"));
+        assertSame(rootTree, compactFeatureTree.getRoot());
+        int a = compactFeatureTree.getFirstChildIndex(compactFeatureTree.getRootIndex());
+        assertSame(compactFeatureTree.getNode(a), rootTree.getChildren().get(0));
+        assertEquals(rootTree.getChildrenGroups(), rootTree.getChildrenGroups());
+        assertSame(rootTree.getChildrenGroup(0).get(), rootTree.getChildrenGroups().get(0));
+
+        rootTree.mutate().toAlternativeGroup();
+        assertTrue(rootTree.getChildrenGroups().get(0).isAlternative());
+        assertThrows(UnsupportedOperationException.class, () -> rootTree.addChild(
+                new FeatureTree(featureModel.mutate().addFeature("b"))));
+        assertThrows(UnsupportedOperationException.class, () -> rootTree.removeChild(0));
+        assertEquals(1, rootTree.getChildrenCount());
+    }
+
+    @Test
+    void sameEditsAsFeatureTree() {
+        IFeatureModel otherFeatureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+        IFeatureTree rootTree = featureModel.mutate().addFeatureTreeRoot(featureModel.mutate().addFeature("root"));
+        IFeatureTree compactRootTree = new CompactFeatureTree(otherFeatureModel.mutate().addFeature("root")).getRoot();
+        otherFeatureModel.mutate().addFeatureTreeRoot(compactRootTree);
+
+        edit(featureModel, rootTree);
+        edit(otherFeatureModel, compactRootTree);
+        assertTrue(FeatureModelStructure.equals(
+                rootTree.getParent().get(), compactRootTree.getParent().get()));
+        assertTrue(FeatureModelStructure.equals(featureModel, otherFeatureModel));
+        assertEquals(FeatureModelStructure.hash(featureModel), FeatureModelStructure.hash(otherFeatureModel));
+    }
+
+    private static void edit(IFeatureModel featureModel, IFeatureTree rootTree) {
+        rootTree.mutate().makeMandatory();
+        IFeatureTree aTree = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("a"));
+        IFeatureTree cTree = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("c"));
+        rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("b"), 1);
+        aTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("a1"));
+        int groupID = aTree.mutate().addOrGroup();
+        aTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("a2"), 1, groupID);
+        aTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("a3"), 2, groupID);
+        aTree.mutate().toCardinalityGroup(groupID, 1, 2);
+        cTree.mutate().makeMandatory();
+        IFeatureTree dTree = cTree.mutate().addFeatureAbove(featureModel.mutate().addFeature("d"));
+        dTree.mutate().toAlternativeGroup();
+        aTree.mutate().removeFromTree();
+        IFeatureTree rTree = rootTree.mutate().addFeatureAbove(featureModel.mutate().addFeature("r"));
+        rTree.mutate().setAttributeValue(Attributes.DESCRIPTION, "top");
+    }
+
+    private static List<String> names(List<? extends IFeatureTree> trees) {
+        return trees.stream().map(IFeatureTree::toString).collect(Collectors.toList());
+    }
+}
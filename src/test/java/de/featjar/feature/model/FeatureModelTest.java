@@ -24,7 +24,13 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import de.featjar.base.data.Result;
 import de.featjar.base.data.identifier.Identifiers;
+import de.featjar.base.tree.Trees;
 import de.featjar.formula.structure.Expressions;
+import de.featjar.formula.structure.IFormula;
+import de.featjar.formula.structure.connective.Implies;
+import de.featjar.formula.structure.connective.Not;
+import de.featjar.formula.structure.connective.Or;
+import de.featjar.formula.structure.predicate.Literal;
 import java.util.*;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -99,4 +105,359 @@ public class FeatureModelTest {
         childTree.mutate().removeFromTree();
         assertEquals(List.of(), rootFeature.getFeatureTree().get().getChildren());
     }
+
+    @Test
+    public void featureNameIndex() {
+        IFeature feature = featureModel.mutate().addFeature("a");
+        assertSame(feature, featureModel.getFeature("a").get());
+        feature.mutate().setName("b");
+        assertTrue(featureModel.getFeature("a").isEmpty());
+        assertSame(feature, featureModel.getFeature("b").get());
+
+        IFeatureModel clonedFeatureModel = featureModel.clone();
+        IFeature clonedFeature = clonedFeatureModel.getFeature("b").get();
+        assertNotSame(feature, clonedFeature);
+        clonedFeature.mutate().setName("c");
+        assertSame(clonedFeature, clonedFeatureModel.getFeature("c").get());
+        assertSame(feature, featureModel.getFeature("b").get());
+        assertTrue(featureModel.getFeature("c").isEmpty());
+
+        featureModel.mutate().removeFeature(feature);
+        assertTrue(featureModel.getFeature("b").isEmpty());
+    }
+
+    @Test
+    public void featureTreeIndex() {
+        IFeature rootFeature = featureModel.mutate().addFeature("root");
+        IFeatureTree rootTree = featureModel.mutate().addFeatureTreeRoot(rootFeature);
+        IFeature childFeature = featureModel.mutate().addFeature("child");
+        IFeatureTree childTree = rootTree.mutate().addFeatureBelow(childFeature);
+        IFeature middleFeature = featureModel.mutate().addFeature("middle");
+        IFeatureTree middleTree = childTree.mutate().addFeatureAbove(middleFeature);
+        assertSame(middleTree, featureModel.getFeatureTree(middleFeature).get());
+        assertSame(middleTree, featureModel.getFeatureTree("middle").get());
+        assertSame(childFeature, featureModel.getTreeFeature(childFeature.getIdentifier()).get());
+        assertTrue(featureModel.hasTreeFeature(childFeature));
+
+        middleTree.mutate().removeFromTree();
+        assertTrue(featureModel.getFeatureTree(middleFeature).isEmpty());
+        assertFalse(featureModel.hasTreeFeature(middleFeature));
+        assertSame(childTree, childFeature.getFeatureTree().get());
+
+        IFeatureModel clonedFeatureModel = featureModel.clone();
+        IFeature clonedChildFeature = clonedFeatureModel.getFeature("child").get();
+        assertSame(clonedChildFeature, clonedChildFeature.getFeatureTree().get().getFeature());
+
+        featureModel.mutate().removeFeatureTreeRoot(rootTree);
+        assertTrue(featureModel.getFeatureTree(childFeature).isEmpty());
+        assertFalse(featureModel.hasTreeFeature(rootFeature));
+    }
+
+    @Test
+    public void groupChildren() {
+        IFeatureTree rootTree = featureModel.mutate().addFeatureTreeRoot(featureModel.mutate().addFeature("root"));
+        int groupID = rootTree.mutate().addOrGroup();
+        IFeatureTree aTree = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("a"));
+        IFeatureTree bTree = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("b"), 1, groupID);
+        IFeatureTree cTree = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("c"), 2, groupID);
+        assertEquals(List.of(aTree), rootTree.getChildren(0));
+        assertEquals(List.of(bTree, cTree), rootTree.getChildren(groupID));
+        assertEquals(List.of(bTree, cTree), cTree.getChildrenGroup(0).get().getGroupSiblings());
+
+        cTree.mutate().setParentGroupID(0);
+        assertEquals(List.of(aTree, cTree), rootTree.getChildren(0));
+        assertEquals(List.of(bTree), rootTree.getChildren(groupID));
+
+        aTree.mutate().removeFromTree();
+        assertEquals(List.of(cTree), rootTree.getChildren(0));
+        IFeatureTree dTree = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("d"), 0, groupID);
+        assertEquals(List.of(dTree, bTree), rootTree.getChildren(groupID));
+        assertEquals(List.of(), rootTree.getChildren(groupID + 1));
+    }
+
+    @Test
+    public void referencingConstraintIndex() {
+        IFeature a = featureModel.mutate().addFeature("a");
+        IFeature b = featureModel.mutate().addFeature("b");
+        IFeature c = featureModel.mutate().addFeature("c");
+        IConstraint constraint1 = featureModel.mutate().addConstraint(new Implies(new Literal("a"), new Literal("b")));
+        IConstraint constraint2 = featureModel.mutate().addConstraint(new Not(new Literal("a")));
+        assertEquals(Set.of(constraint1, constraint2), a.getReferencingConstraints());
+        assertEquals(Set.of(constraint1), b.getReferencingConstraints());
+        assertTrue(c.getReferencingConstraints().isEmpty());
+
+        constraint1.mutate().setFormula(new Implies(new Literal("c"), new Literal("b")));
+        assertEquals(Set.of(constraint2), a.getReferencingConstraints());
+        assertEquals(Set.of(constraint1), c.getReferencingConstraints());
+
+        featureModel.mutate().removeConstraint(constraint1);
+        assertTrue(b.getReferencingConstraints().isEmpty());
+        assertTrue(c.getReferencingConstraints().isEmpty());
+        assertEquals(Set.of(constraint2), a.getReferencingConstraints());
+    }
+
+    @Test
+    public void cloneCopiesAttributesOnWrite() {
+        IFeature a = featureModel.mutate().addFeature("a");
+        featureModel.mutate().addFeature("b");
+        a.mutate().setDescription("original");
+        IConstraint constraint = featureModel.mutate().addConstraint(new Implies(new Literal("a"), new Literal("b")));
+
+        IFeatureModel clonedFeatureModel = featureModel.clone();
+        IFeature clonedA = clonedFeatureModel.getFeature("a").get();
+        IConstraint clonedConstraint = clonedFeatureModel.getConstraints().iterator().next();
+        assertNotSame(constraint.getFormula(), clonedConstraint.getFormula());
+        assertEquals(constraint.getFormula(), clonedConstraint.getFormula());
+        assertEquals(Set.of(clonedConstraint), clonedA.getReferencingConstraints());
+
+        clonedA.mutate().setDescription("changed");
+        assertEquals(Result.of("original"), a.getDescription());
+        assertEquals(Result.of("changed"), clonedA.getDescription());
+        a.mutate().setAttributeValue(Attributes.HIDDEN, Boolean.TRUE);
+        assertTrue(clonedA.getAttributeValue(Attributes.HIDDEN).isEmpty());
+
+        clonedConstraint.mutate().setFormula(new Not(new Literal("a")));
+        assertEquals(new Implies(new Literal("a"), new Literal("b")), constraint.getFormula());
+        assertEquals(Set.of(constraint), featureModel.getFeature("b").get().getReferencingConstraints());
+        assertTrue(clonedFeatureModel.getFeature("b").get().getReferencingConstraints().isEmpty());
+    }
+
+    @Test
+    public void structuralHash() {
+        IFeatureTree rootTree = featureModel.mutate().addFeatureTreeRoot(featureModel.mutate().addFeature("root"));
+        rootTree.mutate().toOrGroup();
+        rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("a"));
+        rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("b"));
+        featureModel.mutate().addConstraint(new Implies(new Literal("a"), new Literal("b")));
+        featureModel.mutate().addConstraint(new Not(new Literal("b")));
+
+        IFeatureModel otherFeatureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+        IFeatureTree otherRootTree =
+                otherFeatureModel.mutate().addFeatureTreeRoot(otherFeatureModel.mutate().addFeature("root"));
+        otherRootTree.mutate().toOrGroup();
+        otherRootTree.mutate().addFeatureBelow(otherFeatureModel.mutate().addFeature("a"));
+        IFeature b = otherFeatureModel.mutate().addFeature("b");
+        otherRootTree.mutate().addFeatureBelow(b);
+        otherFeatureModel.mutate().addConstraint(new Not(new Literal("b")));
+        otherFeatureModel.mutate().addConstraint(new Implies(new Literal("a"), new Literal("b")));
+
+        assertEquals(featureModel.getStructuralHash(), otherFeatureModel.getStructuralHash());
+        assertTrue(featureModel.structurallyEquals(otherFeatureModel));
+        assertTrue(featureModel.structurallyEquals(featureModel.clone()));
+
+        b.mutate().setName("c");
+        assertNotEquals(featureModel.getStructuralHash(), otherFeatureModel.getStructuralHash());
+        assertFalse(featureModel.structurallyEquals(otherFeatureModel));
+
+        b.mutate().setName("b");
+        assertTrue(featureModel.structurallyEquals(otherFeatureModel));
+
+        otherRootTree.mutate().toAlternativeGroup();
+        assertFalse(featureModel.structurallyEquals(otherFeatureModel));
+    }
+
+    @Test
+    public void freeze() {
+        IFeatureTree rootTree = featureModel.mutate().addFeatureTreeRoot(featureModel.mutate().addFeature("root"));
+        rootTree.mutate().toOrGroup();
+        IFeatureTree aTree = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("a"));
+        rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("b"));
+        aTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("c"));
+        IConstraint constraint = featureModel.mutate().addConstraint(new Implies(new Literal("a"), new Literal("b")));
+
+        FrozenFeatureModel frozenFeatureModel = featureModel.freeze();
+        assertTrue(frozenFeatureModel.structurallyEquals(featureModel));
+        assertSame(frozenFeatureModel, frozenFeatureModel.freeze());
+        assertEquals(4, frozenFeatureModel.getNumberOfFeatures());
+        IFeature frozenA = frozenFeatureModel.getFeature("a").get();
+        assertSame(frozenA, frozenFeatureModel.getFeature(aTree.getFeature().getIdentifier()).get());
+        assertSame("a", frozenA.getName().get());
+
+        IFeatureTree frozenRootTree = frozenFeatureModel.getRoots().get(0);
+        IFeatureTree frozenATree = frozenA.getFeatureTree().get();
+        assertEquals(List.of(frozenATree, frozenFeatureModel.getFeatureTree("b").get()), frozenRootTree.getChildren());
+        assertSame(frozenRootTree, frozenATree.getParent().get());
+        assertTrue(frozenRootTree.getChildrenGroup(0).get().isOr());
+        assertSame(frozenRootTree.getChildrenGroup(0).get(), frozenATree.getParentGroup().get());
+        assertEquals(
+                Set.of(frozenFeatureModel.getConstraint(constraint.getIdentifier()).get()),
+                frozenA.getReferencingConstraints());
+
+        assertThrows(UnsupportedOperationException.class, frozenFeatureModel::mutate);
+        assertThrows(UnsupportedOperationException.class, frozenA::mutate);
+        assertThrows(UnsupportedOperationException.class, frozenRootTree::mutate);
+        assertThrows(UnsupportedOperationException.class, () -> frozenRootTree.removeChild(frozenATree));
+        assertThrows(UnsupportedOperationException.class, () -> frozenRootTree.addChild(Trees.clone(frozenATree)));
+        assertThrows(UnsupportedOperationException.class, () -> frozenRootTree.setChildren(List.of()));
+        assertEquals(2, frozenRootTree.getChildrenCount());
+        IConstraint frozenConstraint = frozenFeatureModel.getConstraint(constraint.getIdentifier()).get();
+        assertNotSame(constraint.getFormula(), frozenConstraint.getFormula());
+        assertEquals(constraint.getFormula(), frozenConstraint.getFormula());
+
+        featureModel.mutate().addFeature("d");
+        rootTree.mutate().toAlternativeGroup();
+        assertEquals(4, frozenFeatureModel.getNumberOfFeatures());
+        assertTrue(frozenRootTree.getChildrenGroup(0).get().isOr());
+    }
+
+    @Test
+    public void listener() {
+        IFeature rootFeature = featureModel.mutate().addFeature("root");
+        IFeatureTree rootTree = featureModel.mutate().addFeatureTreeRoot(rootFeature);
+        long modificationCount = featureModel.getModificationCount();
+        assertEquals(2, modificationCount);
+
+        List<List<FeatureModelEvent>> notifications = new ArrayList<>();
+        IFeatureModelListener listener = notifications::add;
+        featureModel.mutate().addListener(listener);
+
+        IFeature childFeature = featureModel.mutate().addFeature("child");
+        assertEquals(1, notifications.size());
+        assertEquals(FeatureModelEvent.Type.FEATURE_ADDED, notifications.get(0).get(0).getType());
+        assertSame(childFeature, notifications.get(0).get(0).getSource());
+
+        featureModel.mutate().beginBatch();
+        IFeatureTree childTree = rootTree.mutate().addFeatureBelow(childFeature);
+        childTree.mutate().makeMandatory();
+        childFeature.mutate().setName("renamed");
+        assertEquals(1, notifications.size());
+        featureModel.mutate().endBatch();
+
+        assertEquals(2, notifications.size());
+        List<FeatureModelEvent> events = notifications.get(1);
+        assertEquals(3, events.size());
+        assertEquals(FeatureModelEvent.Type.FEATURE_TREE_ADDED, events.get(0).getType());
+        assertSame(childTree, events.get(0).getSource());
+        assertEquals(FeatureModelEvent.Type.FEATURE_TREE_CHANGED, events.get(1).getType());
+        assertEquals(FeatureModelEvent.Type.ATTRIBUTE_CHANGED, events.get(2).getType());
+        assertEquals(Result.of(Attributes.NAME), events.get(2).getAttribute());
+        assertEquals(modificationCount + 4, featureModel.getModificationCount());
+
+        assertTrue(featureModel.mutate().removeListener(listener));
+        featureModel.mutate().addConstraint(Expressions.True);
+        assertEquals(2, notifications.size());
+        assertEquals(modificationCount + 5, featureModel.getModificationCount());
+    }
+
+    @Test
+    public void noEventsWithoutListeners() {
+        FeatureModel featureModel = (FeatureModel) this.featureModel;
+        IFeatureTree rootTree = featureModel.mutate().addFeatureTreeRoot(featureModel.mutate().addFeature("root"));
+
+        featureModel.mutate().beginBatch();
+        IFeature childFeature = featureModel.mutate().addFeature("child");
+        IFeatureTree childTree = rootTree.mutate().addFeatureBelow(childFeature);
+        childTree.mutate().makeMandatory();
+        childFeature.mutate().setName("renamed");
+        featureModel.mutate().addConstraint(Expressions.True);
+        assertNull(featureModel.batchedEvents);
+        featureModel.mutate().endBatch();
+
+        assertNull(featureModel.listeners);
+        assertNull(featureModel.batchedEvents);
+        assertEquals(7, featureModel.getModificationCount());
+
+        // a listener added afterwards does not receive events of earlier mutations
+        List<List<FeatureModelEvent>> notifications = new ArrayList<>();
+        featureModel.mutate().addListener(notifications::add);
+        featureModel.mutate().beginBatch();
+        featureModel.mutate().endBatch();
+        assertTrue(notifications.isEmpty());
+    }
+
+    @Test
+    public void genericTreeMutators() {
+        IFeatureTree rootTree = featureModel.mutate().addFeatureTreeRoot(featureModel.mutate().addFeature("root"));
+        IFeature childFeature = featureModel.mutate().addFeature("child");
+        FeatureTree childTree = new FeatureTree(childFeature);
+        FeatureTree grandchildTree = new FeatureTree(featureModel.mutate().addFeature("grandchild"));
+        childTree.addChild(grandchildTree);
+
+        long modificationCount = featureModel.getModificationCount();
+        rootTree.mutate().addChild(childTree);
+        assertTrue(featureModel.getModificationCount() > modificationCount);
+        assertSame(childTree, featureModel.getFeatureTree(childFeature).get());
+        assertSame(grandchildTree, featureModel.getFeatureTree(grandchildTree.getFeature()).get());
+
+        modificationCount = featureModel.getModificationCount();
+        rootTree.mutate().removeChild(childTree);
+        assertTrue(featureModel.getModificationCount() > modificationCount);
+        assertFalse(featureModel.getFeatureTree(childFeature).isPresent());
+        assertFalse(featureModel.getFeatureTree(grandchildTree.getFeature()).isPresent());
+    }
+
+    @Test
+    public void groupChildrenAfterEdits() {
+        IFeatureTree rootTree = featureModel.mutate().addFeatureTreeRoot(featureModel.mutate().addFeature("root"));
+        int groupID = rootTree.mutate().addAlternativeGroup();
+        IFeatureTree aTree = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("a"));
+        IFeatureTree cTree = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("c"), 1, groupID);
+        IFeatureTree bTree = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("b"), 1, groupID);
+        IFeatureTree dTree = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("d"));
+        assertEquals(List.of(aTree, dTree), rootTree.getChildren(0));
+        assertEquals(List.of(bTree, cTree), rootTree.getChildren(groupID));
+
+        dTree.mutate().setParentGroupID(groupID);
+        assertEquals(List.of(aTree), rootTree.getChildren(0));
+        assertEquals(List.of(bTree, cTree, dTree), rootTree.getChildren(groupID));
+
+        IFeatureTree eTree = cTree.mutate().addFeatureAbove(featureModel.mutate().addFeature("e"));
+        assertEquals(List.of(aTree, eTree), rootTree.getChildren(0));
+        assertEquals(List.of(bTree, dTree), rootTree.getChildren(groupID));
+        assertEquals(List.of(cTree), eTree.getChildren(0));
+
+        rootTree.mutate().removeChild(bTree);
+        eTree.mutate().removeFromTree();
+        assertEquals(List.of(aTree, cTree), rootTree.getChildren(0));
+        assertEquals(List.of(dTree), rootTree.getChildren(groupID));
+    }
+
+    @Test
+    public void modifyFormula() {
+        featureModel.mutate().addFeature("a");
+        IConstraint constraint = featureModel.mutate().addConstraint(new Literal("a"));
+        IFormula formula = constraint.getFormula();
+        long modificationCount = featureModel.getModificationCount();
+        constraint.mutate().modifyFormula(copy -> assertNotSame(formula, copy));
+        assertEquals(modificationCount + 1, featureModel.getModificationCount());
+        assertEquals(formula, constraint.getFormula());
+    }
+
+    @Test
+    public void incrementalStructuralHash() {
+        IFeatureTree rootTree = featureModel.mutate().addFeatureTreeRoot(featureModel.mutate().addFeature("root"));
+        IFeatureTree aTree = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("a"));
+        IFeature b = featureModel.mutate().addFeature("b");
+        aTree.mutate().addFeatureBelow(b);
+        IConstraint constraint = featureModel.mutate().addConstraint(new Implies(new Literal("a"), new Literal("b")));
+        assertEquals(FeatureModelStructure.hash(featureModel), featureModel.getStructuralHash());
+
+        b.mutate().setName("c");
+        assertEquals(FeatureModelStructure.hash(featureModel), featureModel.getStructuralHash());
+        aTree.mutate().toAlternativeGroup();
+        assertEquals(FeatureModelStructure.hash(featureModel), featureModel.getStructuralHash());
+        constraint.mutate().setFormula(new Not(new Literal("a")));
+        assertEquals(FeatureModelStructure.hash(featureModel), featureModel.getStructuralHash());
+        aTree.mutate().removeFromTree();
+        assertEquals(FeatureModelStructure.hash(featureModel), featureModel.getStructuralHash());
+        featureModel.mutate().removeConstraint(constraint);
+        assertEquals(FeatureModelStructure.hash(featureModel), featureModel.getStructuralHash());
+    }
+
+    @Test
+    public void commutativeStructuralHash() {
+        featureModel.mutate().addFeature("a");
+        featureModel.mutate().addFeature("b");
+        featureModel.mutate().addConstraint(new Or(new Literal("a"), new Not(new Literal("b"))));
+        IFeatureModel otherFeatureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+        otherFeatureModel.mutate().addFeature("a");
+        otherFeatureModel.mutate().addFeature("b");
+        otherFeatureModel.mutate().addConstraint(new Or(new Not(new Literal("b")), new Literal("a")));
+
+        assertEquals(featureModel.getStructuralHash(), otherFeatureModel.getStructuralHash());
+        assertTrue(featureModel.structurallyEquals(otherFeatureModel));
+        assertNotEquals(
+                FeatureModelStructure.hash(new Implies(new Literal("a"), new Literal("b"))),
+                FeatureModelStructure.hash(new Implies(new Literal("b"), new Literal("a"))));
+    }
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.base.data.Result;
+import de.featjar.feature.configuration.BooleanConfiguration;
+import de.featjar.feature.configuration.Configuration;
+import de.featjar.feature.configuration.io.BinarySampleStore;
+import de.featjar.feature.configuration.io.BinarySampleReader;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BinarySampleStoreTest {
+
+    private static VariableMap createVariableMap(int size) {
+        VariableMap variableMap = new VariableMap();
+        for (int i = 1; i <= size; i++) {
+            variableMap.add("f" + i);
+        }
+        return variableMap;
+    }
+
+    private static List<BooleanAssignment> createAssignments(int count, int variableCount) {
+        List<BooleanAssignment> assignments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            List<Integer> literals = new ArrayList<>();
+            for (int v = 1; v <= variableCount; v++) {
+                if ((v + i) % 3 == 0) {
+                    literals.add(v);
+                } else if ((v + i) % 3 == 1) {
+                    literals.add(-v);
+                }
+            }
+            assignments.add(new BooleanAssignment(
+                    literals.stream().mapToInt(Integer::intValue).toArray()));
+        }
+        return assignments;
+    }
+
+    private static void testRoundTrip(Path path, BinarySampleStore store) throws IOException {
+        VariableMap variableMap = createVariableMap(130);
+        List<BooleanAssignment> assignments = createAssignments(7, 130);
+        store.writeAssignments(assignments, variableMap, path);
+
+        Result<BinarySampleReader> result = store.open(path);
+        assertTrue(result.isPresent(), result.printProblems());
+        try (BinarySampleReader reader = result.get()) {
+            assertEquals(assignments.size(), reader.size());
+            assertEquals(variableMap.getVariableNames(), reader.getVariableMap().getVariableNames());
+            for (int i = assignments.size() - 1; i >= 0; i--) {
+                assertArrayEquals(assignments.get(i).get(), reader.getAssignment(i).get());
+            }
+            assertEquals(Boolean.TRUE, reader.getValue(0, 3));
+            assertEquals(Boolean.FALSE, reader.getValue(0, 1));
+            assertNull(reader.getValue(0, 2));
+            assertEquals(Boolean.TRUE, reader.getValue(6, 129));
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.getValue(0, 131));
+        }
+    }
+
+    @Test
+    public void uncompressed(@TempDir Path directory) throws IOException {
+        testRoundTrip(directory.resolve("sample.fjcs"), new BinarySampleStore(3, false));
+    }
+
+    @Test
+    public void compressed(@TempDir Path directory) throws IOException {
+        testRoundTrip(directory.resolve("sample.fjcs"), new BinarySampleStore(3, true));
+    }
+
+    @Test
+    public void configurations(@TempDir Path directory) throws IOException {
+        VariableMap variableMap = createVariableMap(3);
+        Configuration configuration = new Configuration(new BooleanAssignment(1, -3), variableMap);
+        configuration.get("f1").setAutomatic(Boolean.TRUE);
+
+        Path path = directory.resolve("sample.fjcs");
+        new BinarySampleStore().writeConfigurations(List.of(configuration), variableMap, path);
+
+        try (BinarySampleReader reader = BinarySampleReader.open(path).get()) {
+            BooleanConfiguration readConfiguration = reader.getConfiguration(0);
+            assertEquals(Boolean.TRUE, readConfiguration.get("f1").getSelection());
+            assertNull(readConfiguration.get("f2").getSelection());
+            assertEquals(Boolean.FALSE, readConfiguration.get("f3").getSelection());
+        }
+    }
+}
@@ -20,18 +20,27 @@
  */
 package de.featjar.feature.model.configuration;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import de.featjar.base.data.identifier.Identifiers;
+import de.featjar.feature.configuration.AssignmentConfiguration;
+import de.featjar.feature.configuration.BooleanConfiguration;
 import de.featjar.feature.configuration.Configuration;
 import de.featjar.feature.configuration.Configuration.Selection;
 import de.featjar.feature.configuration.Configuration.SelectionNotPossibleException;
+import de.featjar.feature.configuration.Configuration.ValueKind;
 import de.featjar.feature.model.FeatureModel;
 import de.featjar.feature.model.IFeature;
 import de.featjar.feature.model.IFeatureTree;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.assignment.BooleanAssignment;
 import de.featjar.formula.structure.IFormula;
 import de.featjar.formula.structure.connective.And;
 import de.featjar.formula.structure.connective.BiImplies;
@@ -353,4 +362,167 @@ public class ConfigurationTest {
         assertTrue(testConfiguration.get("Test3").getManual() == Boolean.TRUE);
         assertTrue(testConfiguration.get("Test4").getManual() == Boolean.FALSE);
     }
+
+    @Test
+    public void testBooleanConfiguration() {
+        BooleanConfiguration testConfiguration = new BooleanConfiguration(featureModel);
+        for (IFeature feature : featureModel.getFeatures()) {
+            assertEquals(
+                    null,
+                    testConfiguration.getSelection(feature).orElseThrow().getSelection());
+        }
+
+        testConfiguration.get("root").setManual(Boolean.TRUE);
+        testConfiguration.get("Test1").setAutomatic(Boolean.TRUE);
+        testConfiguration.get("Test2").setManual(Boolean.FALSE);
+        assertThrows(SelectionNotPossibleException.class, () -> {
+            testConfiguration.get("Test1").setManual(Boolean.FALSE);
+        });
+        assertEquals(Boolean.TRUE, testConfiguration.get("root").getSelection());
+        assertEquals(Boolean.TRUE, testConfiguration.get("Test1").getSelection());
+        assertEquals(null, testConfiguration.get("Test1").getManual());
+        assertEquals(Boolean.FALSE, testConfiguration.get("Test2").getManual());
+        assertEquals(2, testConfiguration.getManualFeatures().size());
+        assertEquals(1, testConfiguration.getAutomaticFeatures().size());
+
+        BooleanConfiguration clonedConfiguration = testConfiguration.clone();
+        assertNotSame(testConfiguration.getVariableMap(), clonedConfiguration.getVariableMap());
+        Selection<?> clonedSelection = testConfiguration.get("Test2").clone();
+        int outOfRange = testConfiguration.getVariableMap().maxIndex() + 1;
+        assertThrows(
+                IndexOutOfBoundsException.class, () -> testConfiguration.adopt(new BooleanAssignment(-outOfRange)));
+        testConfiguration.makeManual();
+        assertEquals(Boolean.TRUE, testConfiguration.get("Test1").getManual());
+        assertTrue(testConfiguration.getAutomaticFeatures().isEmpty());
+        assertEquals(null, clonedConfiguration.get("Test1").getManual());
+        assertEquals(Boolean.TRUE, clonedConfiguration.get("Test1").getAutomatic());
+
+        testConfiguration.reset();
+        assertEquals(null, testConfiguration.get("Test2").getSelection());
+        assertEquals(Boolean.FALSE, clonedSelection.getManual());
+
+        Configuration configuration = new Configuration(featureModel);
+        configuration.adopt(clonedConfiguration);
+        assertEquals(Boolean.TRUE, configuration.get("root").getManual());
+        assertEquals(Boolean.TRUE, configuration.get("Test1").getAutomatic());
+        testConfiguration.adopt(configuration);
+        assertEquals(Boolean.FALSE, testConfiguration.get("Test2").getManual());
+    }
+
+    @Test
+    public void testConfigurationFromBooleanAssignment() {
+        VariableMap variableMap = new VariableMap();
+        variableMap.add("a");
+        variableMap.add("b");
+        variableMap.add("c");
+        Configuration assignmentConfiguration = new Configuration(new BooleanAssignment(1, -3), variableMap);
+        assertEquals(Boolean.TRUE, assignmentConfiguration.get("a").getManual());
+        assertEquals(Boolean.FALSE, assignmentConfiguration.get("c").getManual());
+        assertEquals(variableMap.maxIndex() + 1, assignmentConfiguration.getSelections().size());
+
+        VariableMap newVariableMap = new VariableMap();
+        newVariableMap.add("c");
+        newVariableMap.add("a");
+        assignmentConfiguration.adapt(newVariableMap);
+        assertEquals(Boolean.TRUE, assignmentConfiguration.get("a").getManual());
+        assertEquals(Boolean.FALSE, assignmentConfiguration.get("c").getManual());
+        assertEquals(newVariableMap.maxIndex() + 1, assignmentConfiguration.getSelections().size());
+    }
+
+    @Test
+    public void testAssignmentConfiguration() {
+        VariableMap variableMap = new VariableMap();
+        variableMap.add("a");
+        variableMap.add("b");
+        variableMap.add("c");
+
+        for (int[] literals : new int[][] {{1, 0, -3}, {-3, 1}, {1, -3}}) {
+            AssignmentConfiguration view = new AssignmentConfiguration(literals, variableMap);
+            assertSame(variableMap, view.getVariableMap());
+            assertEquals(Boolean.TRUE, view.get("a").getSelection());
+            assertNull(view.get("b").getSelection());
+            assertEquals(Boolean.FALSE, view.get("c").getManual());
+            assertNull(view.get("c").getAutomatic());
+            assertEquals(Boolean.FALSE, view.getValue("c"));
+            assertEquals(2, view.getManualFeatures().size());
+            assertTrue(view.getAutomaticFeatures().isEmpty());
+            assertThrows(UnsupportedOperationException.class, () -> view.get("b").setManual(Boolean.TRUE));
+            assertThrows(UnsupportedOperationException.class, view::reset);
+
+            Configuration copy = view.clone();
+            copy.get("b").setManual(Boolean.TRUE);
+            assertEquals(Boolean.TRUE, copy.get("a").getManual());
+            assertNull(view.getValue("b"));
+        }
+    }
+
+    @Test
+    public void testToBooleanAssignment() {
+        VariableMap variableMap = new VariableMap();
+        variableMap.add("a");
+        variableMap.add("b");
+        variableMap.add("c");
+
+        for (Configuration configuration : new Configuration[] {
+            new Configuration(new BooleanAssignment(1, -3), variableMap),
+            new BooleanConfiguration(new BooleanAssignment(1, -3), variableMap)
+        }) {
+            configuration.get("c").setAutomatic(Boolean.FALSE);
+            assertArrayEquals(new int[] {1, -3}, configuration.toBooleanAssignment().get());
+            assertArrayEquals(new int[] {1, -3}, configuration.toManualBooleanAssignment(variableMap).get());
+            assertArrayEquals(new int[] {-3}, configuration.toAutomaticBooleanAssignment(variableMap).get());
+
+            int[] literals = new int[variableMap.maxIndex()];
+            assertEquals(2, configuration.writeLiterals(ValueKind.MANUAL, variableMap, literals));
+            assertEquals(1, literals[0]);
+            assertEquals(-3, literals[1]);
+
+            VariableMap otherVariableMap = new VariableMap();
+            otherVariableMap.add("x");
+            otherVariableMap.add("a");
+            otherVariableMap.add("c");
+            assertArrayEquals(
+                    new int[] {2, -3}, configuration.toManualBooleanAssignment(otherVariableMap).get());
+        }
+
+        AssignmentConfiguration view = new AssignmentConfiguration(new int[] {1, 0, -3}, variableMap);
+        assertArrayEquals(new int[] {1, -3}, view.toBooleanAssignment().get());
+        assertArrayEquals(new int[0], view.toAutomaticBooleanAssignment(variableMap).get());
+
+        Configuration configuration = new Configuration(new BooleanAssignment(1, -3), variableMap);
+        configuration.adopt(new BooleanAssignment(-5));
+        assertArrayEquals(new int[] {1, -3, -5}, configuration.toBooleanAssignment().get());
+    }
+
+    @Test
+    public void testIndexAccessorsAndToString() {
+        VariableMap variableMap = new VariableMap();
+        variableMap.add("a");
+        variableMap.add("b");
+        variableMap.add("c");
+
+        for (Configuration configuration : new Configuration[] {
+            new Configuration(new BooleanAssignment(1, -3), variableMap),
+            new BooleanConfiguration(new BooleanAssignment(1, -3), variableMap)
+        }) {
+            configuration.setAutomatic(2, Boolean.TRUE);
+            assertEquals(Boolean.class, configuration.getType(1));
+            assertEquals(Boolean.TRUE, configuration.getManual(1));
+            assertNull(configuration.getAutomatic(1));
+            assertNull(configuration.getManual(2));
+            assertEquals(Boolean.TRUE, configuration.getValue(2));
+            assertThrows(SelectionNotPossibleException.class, () -> configuration.setAutomatic(3, Boolean.TRUE));
+            assertEquals("12a\n21b\n02c", configuration.toString());
+
+            configuration.setAutomatic(2, null);
+            assertNull(configuration.getValue(2));
+        }
+
+        AssignmentConfiguration view = new AssignmentConfiguration(new int[] {1, 0, -3}, variableMap);
+        assertEquals(Boolean.FALSE, view.getManual(3));
+        assertNull(view.getAutomatic(3));
+        assertNull(view.getType(4));
+        assertThrows(UnsupportedOperationException.class, () -> view.setManual(2, Boolean.TRUE));
+        assertEquals("12a\n22b\n02c", view.toString());
+    }
 }
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.computation.Computations;
+import de.featjar.base.data.identifier.Identifiers;
+import de.featjar.feature.configuration.BooleanConfiguration;
+import de.featjar.feature.configuration.Configuration;
+import de.featjar.feature.configuration.DecisionPropagator;
+import de.featjar.feature.model.FeatureModel;
+import de.featjar.feature.model.IFeatureTree;
+import de.featjar.feature.model.transformer.ComputeFormula;
+import de.featjar.formula.VariableMap;
+import de.featjar.formula.structure.IFormula;
+import de.featjar.formula.structure.connective.And;
+import de.featjar.formula.structure.connective.Implies;
+import de.featjar.formula.structure.connective.Or;
+import de.featjar.formula.structure.predicate.Literal;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class DecisionPropagatorTest {
+
+    @BeforeAll
+    public static void init() {
+        FeatJAR.testConfiguration().initialize();
+    }
+
+    @Test
+    public void propagateFeatureModel() {
+        FeatureModel featureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+        IFeatureTree rootTree =
+                featureModel.mutate().addFeatureTreeRoot(featureModel.mutate().addFeature("root"));
+        rootTree.mutate().makeMandatory();
+        rootTree.mutate().toAlternativeGroup();
+        IFeatureTree aTree = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("A"));
+        rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("B"));
+        aTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("D"));
+
+        IFormula formula = Computations.of(featureModel).map(ComputeFormula::new).compute();
+        Configuration configuration = new Configuration(featureModel);
+        DecisionPropagator propagator = new DecisionPropagator(formula, configuration);
+        assertTrue(propagator.isConsistent());
+        assertTrue(propagator.getIgnoredFormulas().isEmpty());
+        assertEquals(Boolean.TRUE, configuration.get("root").getAutomatic());
+
+        assertTrue(propagator.decide("D", Boolean.TRUE));
+        assertEquals(Boolean.TRUE, configuration.get("D").getManual());
+        assertEquals(Boolean.TRUE, configuration.get("A").getAutomatic());
+        assertEquals(Boolean.FALSE, configuration.get("B").getAutomatic());
+
+        assertTrue(propagator.undo());
+        assertNull(configuration.get("D").getManual());
+        assertNull(configuration.get("A").getSelection());
+        assertNull(configuration.get("B").getSelection());
+        assertEquals(Boolean.TRUE, configuration.get("root").getAutomatic());
+        assertFalse(propagator.undo());
+
+        assertTrue(propagator.decide("B", Boolean.TRUE));
+        assertEquals(Boolean.FALSE, configuration.get("A").getAutomatic());
+        assertEquals(Boolean.FALSE, configuration.get("D").getAutomatic());
+        assertFalse(propagator.decide("D", Boolean.TRUE));
+        assertNull(configuration.get("D").getManual());
+        assertEquals(1, propagator.getDecisionCount());
+
+        assertTrue(propagator.decide("B", Boolean.FALSE));
+        assertEquals(Boolean.FALSE, configuration.get("B").getManual());
+        assertEquals(Boolean.TRUE, configuration.get("A").getAutomatic());
+        assertNull(configuration.get("D").getSelection());
+    }
+
+    @Test
+    public void retractDecision() {
+        VariableMap variableMap = new VariableMap();
+        variableMap.add("a");
+        variableMap.add("b");
+        variableMap.add("c");
+        variableMap.add("d");
+        IFormula formula = new And(
+                new Implies(new Literal("a"), new Literal("b")),
+                new Or(new Literal(false, "c"), new Literal(false, "b"), new Literal("d")));
+        BooleanConfiguration configuration = new BooleanConfiguration(variableMap);
+        DecisionPropagator propagator = new DecisionPropagator(formula, configuration);
+
+        assertTrue(propagator.decide("a", Boolean.TRUE));
+        assertTrue(propagator.decide("c", Boolean.TRUE));
+        assertEquals(Boolean.TRUE, configuration.get("b").getAutomatic());
+        assertEquals(Boolean.TRUE, configuration.get("d").getAutomatic());
+
+        assertTrue(propagator.decide("a", null));
+        assertEquals(1, propagator.getDecisionCount());
+        assertNull(configuration.get("a").getSelection());
+        assertNull(configuration.get("b").getSelection());
+        assertNull(configuration.get("d").getSelection());
+        assertEquals(Boolean.TRUE, configuration.get("c").getManual());
+
+        assertTrue(propagator.decide("d", Boolean.FALSE));
+        assertEquals(Boolean.FALSE, configuration.get("b").getAutomatic());
+        assertEquals(Boolean.FALSE, configuration.get("a").getAutomatic());
+        assertFalse(propagator.decide("a", Boolean.TRUE));
+        assertNull(configuration.get("a").getManual());
+    }
+}
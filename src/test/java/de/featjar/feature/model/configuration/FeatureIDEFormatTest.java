@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.base.data.Result;
+import de.featjar.feature.configuration.Configuration;
+import de.featjar.feature.configuration.io.FeatureIDEFormat;
+import de.featjar.formula.VariableMap;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FeatureIDEFormatTest {
+
+    @Test
+    public void parseDirectory(@TempDir Path directory) throws IOException {
+        Files.writeString(directory.resolve("1.config"), "# comment\n12a\n02b\n");
+        Files.writeString(directory.resolve("2.config"), "21b\n22c\n");
+        Files.writeString(directory.resolve("other.txt"), "12a\n");
+
+        Result<Map<Path, Result<Configuration>>> result = new FeatureIDEFormat().parseDirectory(directory);
+        assertTrue(result.isPresent(), result.printProblems());
+        Map<Path, Result<Configuration>> configurations = result.get();
+        assertEquals(List.of(directory.resolve("1.config"), directory.resolve("2.config")), List.copyOf(configurations.keySet()));
+
+        Configuration configuration1 = configurations.get(directory.resolve("1.config")).get();
+        Configuration configuration2 = configurations.get(directory.resolve("2.config")).get();
+        assertSame(configuration1.getVariableMap(), configuration2.getVariableMap());
+        assertEquals(Boolean.TRUE, configuration1.get("a").getManual());
+        assertEquals(Boolean.FALSE, configuration1.get("b").getManual());
+        assertEquals(null, configuration1.get("c").getSelection());
+        assertEquals(Boolean.TRUE, configuration2.get("b").getAutomatic());
+        assertEquals(null, configuration2.get("a").getSelection());
+    }
+
+    @Test
+    public void parseWithVariableMap(@TempDir Path directory) throws IOException {
+        Files.writeString(directory.resolve("1.config"), "11a\n1xb\n00d\n");
+        VariableMap variableMap = new VariableMap();
+        variableMap.add("a");
+        variableMap.add("b");
+        variableMap.add("c");
+
+        Result<Configuration> result = new FeatureIDEFormat(variableMap)
+                .parseDirectory(directory)
+                .get()
+                .get(directory.resolve("1.config"));
+        assertTrue(result.isPresent());
+        assertFalse(result.getProblems().isEmpty());
+        Configuration configuration = result.get();
+        assertSame(variableMap, configuration.getVariableMap());
+        assertEquals(Boolean.TRUE, configuration.get("a").getManual());
+        assertEquals(Boolean.TRUE, configuration.get("a").getAutomatic());
+        assertEquals(Boolean.TRUE, configuration.get("b").getManual());
+        assertEquals(null, configuration.get("b").getAutomatic());
+        assertTrue(configuration.getSelection("d").isEmpty());
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.Common;
+import de.featjar.base.FeatJAR;
+import de.featjar.base.data.Result;
+import de.featjar.base.io.input.StringInputMapper;
+import de.featjar.base.tree.Trees;
+import de.featjar.feature.model.IConstraint;
+import de.featjar.feature.model.IFeature;
+import de.featjar.feature.model.IFeatureModel;
+import de.featjar.feature.model.IFeatureTree;
+import de.featjar.feature.model.io.binary.BinaryFeatureModelFormat;
+import de.featjar.feature.model.io.binary.BinaryFeatureModelParser;
+import de.featjar.feature.model.io.xml.XMLFeatureModelFormat;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BinaryFeatureModelFormatTest extends Common {
+
+    private static final int REPETITIONS = 5;
+
+    @Test
+    public void binaryFeatureModelFormat() throws IOException {
+        IFeatureModel featureModel = load("testFeatureModels/car.xml", new XMLFeatureModelFormat());
+        featureModel.getFeatures().iterator().next().mutate().setDescription("first feature");
+        featureModel.getConstraints().iterator().next().mutate().setTags(new LinkedHashSet<>(List.of("a")));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new BinaryFeatureModelFormat().write(featureModel, outputStream);
+        Result<IFeatureModel> result = new BinaryFeatureModelParser().parse(outputStream.toByteArray());
+        assertTrue(result.isPresent(), result.printProblems());
+        assertSameContent(featureModel, result.get());
+    }
+
+    @Test
+    public void binaryFeatureModelFormatWithAllElements() throws IOException {
+        IFeatureModel featureModel = FeatureModelFixtures.createFeatureModelWithAllElements();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new BinaryFeatureModelFormat().write(featureModel, outputStream);
+        Result<IFeatureModel> result = new BinaryFeatureModelParser().parse(outputStream.toByteArray());
+        assertTrue(result.isPresent(), result.printProblems());
+        assertSameContent(featureModel, result.get());
+    }
+
+    @Test
+    public void binaryFeatureModelFormatMemoryMapped(@TempDir Path directory) throws IOException {
+        IFeatureModel featureModel = load("testFeatureModels/car.xml", new XMLFeatureModelFormat());
+        Path path = directory.resolve("car.fjfm");
+        new BinaryFeatureModelFormat().write(featureModel, path);
+        Result<IFeatureModel> result = new BinaryFeatureModelFormat().parse(path);
+        assertTrue(result.isPresent(), result.printProblems());
+        assertSameContent(featureModel, result.get());
+    }
+
+    /**
+     * Asserts that a large generated feature model loads at least ten times faster from the binary format
+     * than from XML, comparing the median load times.
+     * Runs only if the system property {@code featjar.benchmark} is {@code true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "featjar.benchmark", matches = "true")
+    public void binaryFeatureModelFormatLoadTime(@TempDir Path directory) throws IOException {
+        IFeatureModel featureModel = FeatureModelFixtures.createLargeFeatureModel(20_000, 2_000);
+        String xml = new XMLFeatureModelFormat().serialize(featureModel).get();
+        Path path = directory.resolve("large.fjfm");
+        new BinaryFeatureModelFormat().write(featureModel, path);
+
+        long[] xmlTimes = new long[REPETITIONS];
+        long[] binaryTimes = new long[REPETITIONS];
+        for (int i = 0; i < REPETITIONS; i++) {
+            long start = System.nanoTime();
+            Result<IFeatureModel> xmlResult = new XMLFeatureModelFormat()
+                    .parse(new StringInputMapper(xml, StandardCharsets.UTF_8, "xml"));
+            xmlTimes[i] = System.nanoTime() - start;
+            assertTrue(xmlResult.isPresent(), xmlResult.printProblems());
+
+            start = System.nanoTime();
+            Result<IFeatureModel> binaryResult = new BinaryFeatureModelFormat().parse(path);
+            binaryTimes[i] = System.nanoTime() - start;
+            assertTrue(binaryResult.isPresent(), binaryResult.printProblems());
+            if (i == 0) {
+                assertSameContent(xmlResult.get(), binaryResult.get());
+            }
+        }
+        Arrays.sort(xmlTimes);
+        Arrays.sort(binaryTimes);
+        FeatJAR.log()
+                .info(
+                        "Median load time for %d features: XML %d ms (%d bytes), binary %d ms (%d bytes)",
+                        featureModel.getNumberOfFeatures(),
+                        xmlTimes[REPETITIONS / 2] / 1_000_000,
+                        xml.getBytes(StandardCharsets.UTF_8).length,
+                        binaryTimes[REPETITIONS / 2] / 1_000_000,
+                        Files.size(path));
+        assertTrue(
+                binaryTimes[REPETITIONS / 2] * 10 <= xmlTimes[REPETITIONS / 2],
+                "binary format should load at least ten times faster than XML");
+    }
+
+    private static void assertSameContent(IFeatureModel expected, IFeatureModel actual) {
+        assertEquals(describeFeatures(expected), describeFeatures(actual));
+        assertEquals(describeFeatureTree(expected), describeFeatureTree(actual));
+        assertEquals(
+                expected.getConstraints().stream().map(IConstraint::getFormula).collect(Collectors.toList()),
+                actual.getConstraints().stream().map(IConstraint::getFormula).collect(Collectors.toList()));
+        assertEquals(
+                expected.getConstraints().stream().map(IConstraint::getTags).collect(Collectors.toList()),
+                actual.getConstraints().stream().map(IConstraint::getTags).collect(Collectors.toList()));
+    }
+
+    private static List<String> describeFeatures(IFeatureModel featureModel) {
+        return featureModel.getFeatures().stream()
+                .map(feature -> feature.getName().get()
+                        + " " + feature.getType().getSimpleName()
+                        + " " + feature.isAbstract()
+                        + " " + feature.isHidden()
+                        + " " + feature.getDescription().orElse(""))
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> describeFeatureTree(IFeatureModel featureModel) {
+        return featureModel.getRoots().stream()
+                .flatMap(Trees::preOrderStream)
+                .map(BinaryFeatureModelFormatTest::describeFeatureTreeNode)
+                .collect(Collectors.toList());
+    }
+
+    private static String describeFeatureTreeNode(IFeatureTree tree) {
+        IFeature feature = tree.getFeature();
+        return feature.getName().get()
+                + " " + tree.getFeatureCardinalityLowerBound()
+                + ".." + tree.getFeatureCardinalityUpperBound()
+                + " " + tree.getParentGroupID()
+                + " " + tree.getChildrenGroups().stream()
+                        .map(group -> group.getLowerBound() + ".." + group.getUpperBound())
+                        .collect(Collectors.joining(","))
+                + " " + tree.getChildrenCount();
+    }
+}
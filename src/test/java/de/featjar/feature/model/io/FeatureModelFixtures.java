@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.io;
+
+import de.featjar.base.data.Attribute;
+import de.featjar.base.data.identifier.Identifiers;
+import de.featjar.feature.model.FeatureModel;
+import de.featjar.feature.model.IConstraint;
+import de.featjar.feature.model.IFeature;
+import de.featjar.feature.model.IFeatureTree;
+import de.featjar.formula.structure.connective.And;
+import de.featjar.formula.structure.connective.AtMost;
+import de.featjar.formula.structure.connective.BiImplies;
+import de.featjar.formula.structure.connective.Implies;
+import de.featjar.formula.structure.connective.Not;
+import de.featjar.formula.structure.connective.Or;
+import de.featjar.formula.structure.predicate.Literal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Feature models shared by the tests of the feature model formats.
+ */
+final class FeatureModelFixtures {
+
+    private FeatureModelFixtures() {}
+
+    /**
+     * {@return a small feature model that uses every element the feature model formats can store}
+     */
+    static FeatureModel createFeatureModelWithAllElements() {
+        FeatureModel featureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+        featureModel.mutate().setDescription("model description");
+        IFeatureTree rootTree =
+                featureModel.mutate().addFeatureTreeRoot(featureModel.mutate().addFeature("root"));
+        rootTree.mutate().makeMandatory();
+        rootTree.mutate().toOrGroup();
+        IFeature a = featureModel.mutate().addFeature("A");
+        a.mutate().setDescription("feature <description> & \"quotes\"");
+        IFeatureTree aTree = rootTree.mutate().addFeatureBelow(a);
+        aTree.mutate().toAlternativeGroup();
+        aTree.mutate().setAttributeValue(new Attribute<>("test", "cost", Double.class), 1.5);
+        aTree.mutate().setAttributeValue(new Attribute<>("test", "label", String.class), "l\u00e4bel");
+        aTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("A1"));
+        aTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("A2"));
+        IFeatureTree bTree = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("B"));
+        bTree.mutate().makeMandatory();
+        bTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("B1"));
+
+        IConstraint constraint = featureModel.mutate().addConstraint(new And(
+                new Or(new Literal("A1"), new Literal(false, "B1")),
+                new Not(new Literal("A2")),
+                new Implies(new Literal("A"), new Literal("B")),
+                new BiImplies(new Literal("B"), new Literal("B1")),
+                new AtMost(1, List.of(new Literal("A1"), new Literal("A2"), new Literal("B1")))));
+        constraint.mutate().setDescription("constraint description");
+        constraint.mutate().addTag("tag1");
+        constraint.mutate().addTag("tag2");
+        constraint.mutate().setAttributeValue(new Attribute<>("test", "weight", Integer.class), 3);
+        featureModel.mutate().addConstraint(new Literal("root"));
+        return featureModel;
+    }
+
+    /**
+     * {@return a randomly generated feature model of the given size}
+     * The same arguments always yield the same feature model.
+     *
+     * @param featureCount the number of features
+     * @param constraintCount the number of constraints
+     */
+    static FeatureModel createLargeFeatureModel(int featureCount, int constraintCount) {
+        Random random = new Random(0);
+        FeatureModel featureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+        List<IFeatureTree> nodes = new ArrayList<>(featureCount);
+        IFeatureTree rootTree = featureModel.mutate().addFeatureTreeRoot(featureModel.mutate().addFeature("f0"));
+        rootTree.mutate().makeMandatory();
+        nodes.add(rootTree);
+        for (int i = 1; i < featureCount; i++) {
+            IFeatureTree parent = nodes.get(random.nextInt(nodes.size()));
+            IFeatureTree node = parent.mutate().addFeatureBelow(featureModel.mutate().addFeature("f" + i));
+            switch (random.nextInt(3)) {
+                case 0:
+                    node.mutate().toOrGroup();
+                    break;
+                case 1:
+                    node.mutate().toAlternativeGroup();
+                    break;
+                default:
+                    if (random.nextBoolean()) {
+                        node.mutate().makeMandatory();
+                    }
+                    break;
+            }
+            nodes.add(node);
+        }
+        for (int i = 0; i < constraintCount; i++) {
+            featureModel
+                    .mutate()
+                    .addConstraint(new Implies(
+                            new Literal("f" + random.nextInt(featureCount)),
+                            new Or(
+                                    new Literal("f" + random.nextInt(featureCount)),
+                                    new Literal(false, "f" + random.nextInt(featureCount)))));
+        }
+        return featureModel;
+    }
+}
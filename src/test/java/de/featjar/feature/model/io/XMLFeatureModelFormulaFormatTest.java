@@ -27,12 +27,16 @@ import de.featjar.Common;
 import de.featjar.base.data.Result;
 import de.featjar.base.data.Sets;
 import de.featjar.base.data.identifier.Identifiers;
+import de.featjar.base.tree.Trees;
 import de.featjar.base.io.format.IFormat;
 import de.featjar.base.io.input.StringInputMapper;
 import de.featjar.feature.model.FeatureModel;
+import de.featjar.feature.model.IConstraint;
 import de.featjar.feature.model.IFeature;
 import de.featjar.feature.model.IFeatureModel;
 import de.featjar.feature.model.IFeatureTree;
+import de.featjar.feature.model.io.xml.StreamingXMLFeatureModelFormat;
+import de.featjar.feature.model.io.xml.StreamingXMLFeatureModelWriter;
 import de.featjar.feature.model.io.xml.XMLFeatureModelFormat;
 import de.featjar.formula.structure.IFormula;
 import de.featjar.formula.structure.connective.And;
@@ -43,7 +47,9 @@ import de.featjar.formula.structure.connective.Or;
 import de.featjar.formula.structure.predicate.Literal;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -126,6 +132,50 @@ public class XMLFeatureModelFormulaFormatTest extends Common {
                         .collect(Sets.toSet()));
     }
 
+    @Test
+    public void streamingXMLFeatureModelFormat() {
+        IFeatureModel expected = load("testFeatureModels/car.xml", new XMLFeatureModelFormat());
+        IFeatureModel actual = load("testFeatureModels/car.xml", new StreamingXMLFeatureModelFormat());
+        assertEquals(describeFeatureTree(expected), describeFeatureTree(actual));
+        assertEquals(
+                expected.getConstraints().stream().map(IConstraint::getFormula).collect(Collectors.toList()),
+                actual.getConstraints().stream().map(IConstraint::getFormula).collect(Collectors.toList()));
+        assertEquals(expected.getDescription(), actual.getDescription());
+    }
+
+    @Test
+    public void streamingXMLFeatureModelWriter() {
+        assertSameSerialization(load("testFeatureModels/car.xml", new XMLFeatureModelFormat()));
+    }
+
+    @Test
+    public void streamingXMLFeatureModelWriterWithAllElements() {
+        assertSameSerialization(FeatureModelFixtures.createFeatureModelWithAllElements());
+    }
+
+    private static void assertSameSerialization(IFeatureModel featureModel) {
+        Result<String> expected = new XMLFeatureModelFormat().serialize(featureModel);
+        Result<String> actual = new StreamingXMLFeatureModelWriter().serialize(featureModel);
+        assertTrue(expected.isPresent(), expected.printProblems());
+        assertTrue(actual.isPresent(), actual.printProblems());
+        assertEquals(expected.get(), actual.get());
+        assertEquals(expected.get(), new StreamingXMLFeatureModelFormat().serialize(featureModel).get());
+    }
+
+    private static List<String> describeFeatureTree(IFeatureModel featureModel) {
+        return featureModel.getRoots().stream()
+                .flatMap(Trees::preOrderStream)
+                .map(tree -> tree.getFeature().getName().get()
+                        + (tree.isMandatory() ? " mandatory" : " optional")
+                        + (tree.getFeature().isAbstract() ? " abstract" : "")
+                        + (tree.getFeature().isHidden() ? " hidden" : "")
+                        + " " + tree.getChildrenGroups().stream()
+                                .map(group -> group.isAnd() ? "and" : group.isOr() ? "or" : "alt")
+                                .collect(Collectors.joining(","))
+                        + " " + tree.getFeature().getDescription().orElse(""))
+                .collect(Collectors.toList());
+    }
+
     @Test
     void testXMLFileToFeatureModelToXMLFile() throws IOException {
         parseAndSerialize(new XMLFeatureModelFormat(), "testFeatureModels/car.xml");
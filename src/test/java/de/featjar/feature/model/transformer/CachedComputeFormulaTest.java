@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.transformer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import de.featjar.base.computation.Computations;
+import de.featjar.base.data.identifier.Identifiers;
+import de.featjar.feature.model.FeatureModel;
+import de.featjar.feature.model.IFeatureModel;
+import de.featjar.feature.model.IFeatureTree;
+import de.featjar.formula.structure.IFormula;
+import org.junit.jupiter.api.Test;
+
+class CachedComputeFormulaTest {
+
+    private static IFeatureModel createFeatureModel() {
+        IFeatureModel featureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+        IFeatureTree rootTree = featureModel.mutate().addFeatureTreeRoot(featureModel.mutate().addFeature("root"));
+        rootTree.mutate().makeMandatory();
+        rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("A"));
+        return featureModel;
+    }
+
+    private static IFormula compute(IFeatureModel featureModel, FormulaCache cache) {
+        return Computations.of(featureModel)
+                .map(c -> new CachedComputeFormula(c, cache))
+                .compute();
+    }
+
+    @Test
+    void reuseFormula() {
+        FormulaCache cache = new FormulaCache(4);
+        IFeatureModel featureModel = createFeatureModel();
+
+        IFormula formula = compute(featureModel, cache);
+        assertEquals(Computations.of(featureModel).map(ComputeFormula::new).compute(), formula);
+        IFormula cachedFormula = compute(featureModel, cache);
+        assertEquals(formula, cachedFormula);
+        assertNotSame(formula, cachedFormula);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        featureModel.mutate().addFeature("B");
+        IFormula changedFormula = compute(featureModel, cache);
+        assertNotSame(formula, changedFormula);
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void evictLeastRecentlyUsed() {
+        FormulaCache cache = new FormulaCache(2);
+        IFeatureModel featureModel1 = createFeatureModel();
+        IFeatureModel featureModel2 = createFeatureModel();
+        IFeatureModel featureModel3 = createFeatureModel();
+
+        compute(featureModel1, cache);
+        compute(featureModel2, cache);
+        compute(featureModel1, cache);
+        compute(featureModel3, cache);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getHitCount());
+
+        // model 2 was evicted, model 1 is still cached
+        compute(featureModel1, cache);
+        assertEquals(2, cache.getHitCount());
+        compute(featureModel2, cache);
+        assertEquals(4, cache.getMissCount());
+    }
+}
@@ -22,11 +22,13 @@ package de.featjar.feature.model.transformer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import de.featjar.base.computation.ComputeConstant;
 import de.featjar.base.data.Attribute;
 import de.featjar.base.data.Range;
 import de.featjar.base.data.identifier.Identifiers;
+import de.featjar.base.tree.Trees;
 import de.featjar.feature.model.FeatureModel;
 import de.featjar.feature.model.IFeature;
 import de.featjar.feature.model.IFeatureModel;
@@ -46,7 +48,11 @@ import de.featjar.formula.structure.term.function.IfThenElse;
 import de.featjar.formula.structure.term.function.RealAdd;
 import de.featjar.formula.structure.term.value.Constant;
 import de.featjar.formula.structure.term.value.Variable;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -550,6 +556,123 @@ class ComputeFormulaTest {
         executeTest();
     }
 
+    @Test
+    void deepFeatureTree() {
+        IFeatureTree tree =
+                featureModel.mutate().addFeatureTreeRoot(featureModel.mutate().addFeature("F0"));
+        tree.mutate().makeMandatory();
+        List<IFormula> constraints = new ArrayList<>();
+        constraints.add(new Literal("F0"));
+        for (int i = 1; i < 20000; i++) {
+            tree = tree.mutate().addFeatureBelow(featureModel.mutate().addFeature("F" + i));
+            constraints.add(new Implies(new Literal("F" + i), new Literal("F" + (i - 1))));
+        }
+
+        expected = new Reference(new And(constraints));
+
+        executeTest();
+    }
+
+    @Test
+    void translationKeepsFeatureTree() {
+        IFeatureTree rootTree =
+                featureModel.mutate().addFeatureTreeRoot(featureModel.mutate().addFeature("root"));
+        rootTree.mutate().makeMandatory();
+
+        IFeatureTree childTree = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("A"));
+        childTree.mutate().setFeatureCardinality(Range.of(0, 2));
+        IFeatureTree grandChildTree = childTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("B"));
+        grandChildTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("C"));
+
+        expected = new Reference(new And(
+                new Literal("root"),
+                new Implies(new Literal("A_1"), new Literal("root")),
+                new Implies(new Literal("B.A_1"), new Literal("A_1")),
+                new Implies(new Literal("C.B.A_1"), new Literal("B.A_1")),
+                new Implies(new Literal("A_2"), new Literal("root")),
+                new Implies(new Literal("A_2"), new Literal("A_1")),
+                new Implies(new Literal("B.A_2"), new Literal("A_2")),
+                new Implies(new Literal("C.B.A_2"), new Literal("B.A_2"))));
+
+        executeTest();
+        assertTrue(Trees.preOrderStream(rootTree)
+                .noneMatch(tree -> tree.getAttributes().isPresent()));
+
+        // translating again must not depend on the previous translation
+        executeTest();
+    }
+
+    @Test
+    void concurrentTranslationKeepsConstraints() {
+        IFeatureTree rootTree =
+                featureModel.mutate().addFeatureTreeRoot(featureModel.mutate().addFeature("root"));
+        rootTree.mutate().makeMandatory();
+        rootTree.mutate().toAndGroup();
+
+        IFeature childFeature = featureModel.mutate().addFeature("A");
+        rootTree.mutate().addFeatureBelow(childFeature);
+        childFeature.mutate().setAttributeValue(costAttribute, 10.0);
+
+        IFormula aggregateConstraint = new LessThan(new AttributeSum("cost"), new Constant(200.0, Double.class));
+        featureModel.mutate().addConstraint(aggregateConstraint);
+        IFormula originalConstraint = Trees.clone(aggregateConstraint);
+
+        expected = new Reference(new And(
+                new Literal("root"),
+                new Implies(new Literal("A"), new Literal("root")),
+                new LessThan(
+                        new RealAdd(new IfThenElse(
+                                new Literal("A"), new Constant(10.0, Double.class), new Constant(0.0, Double.class))),
+                        new Constant(200.0, Double.class))));
+
+        // the same model is translated by several threads without copying it first
+        List<IFormula> resultFormulas = IntStream.range(0, 16)
+                .parallel()
+                .mapToObj(i -> new ComputeFormula(new ComputeConstant<IFeatureModel>(featureModel))
+                        .computeResult()
+                        .get())
+                .collect(Collectors.toList());
+
+        // assert
+        resultFormulas.forEach(resultFormula -> assertEquals(expected, resultFormula));
+        assertEquals(originalConstraint, aggregateConstraint);
+    }
+
+    @Test
+    void parallelTranslation() {
+        IFeatureTree rootTree =
+                featureModel.mutate().addFeatureTreeRoot(featureModel.mutate().addFeature("root"));
+        rootTree.mutate().makeMandatory();
+        rootTree.mutate().toOrGroup();
+
+        // several wide and deep subtrees with mixed groups
+        for (int i = 0; i < 8; i++) {
+            IFeatureTree subTree = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("S" + i));
+            for (int j = 0; j < 50; j++) {
+                IFeatureTree tree = subTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("S" + i + "_" + j));
+                if (j % 3 == 0) {
+                    tree.mutate().makeMandatory();
+                }
+                tree.mutate().toAlternativeGroup();
+                for (int k = 0; k < 10; k++) {
+                    tree = tree.mutate()
+                            .addFeatureBelow(featureModel.mutate().addFeature("S" + i + "_" + j + "_" + k));
+                }
+            }
+        }
+
+        ComputeConstant<IFeatureModel> computeConstant = new ComputeConstant<IFeatureModel>(featureModel);
+        expected = new ComputeFormula(computeConstant).computeResult().get();
+
+        IFormula resultFormula = new ComputeFormula(computeConstant)
+                .set(ComputeFormula.PARALLEL_TRANSLATION, Boolean.TRUE)
+                .computeResult()
+                .get();
+
+        // assert
+        assertEquals(expected, resultFormula);
+    }
+
     private void executeTest() {
 
         ComputeConstant<IFeatureModel> computeConstant = new ComputeConstant<IFeatureModel>(featureModel);
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.transformer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.base.computation.Computations;
+import de.featjar.base.data.Range;
+import de.featjar.base.data.identifier.Identifiers;
+import de.featjar.feature.model.FeatureModel;
+import de.featjar.feature.model.IConstraint;
+import de.featjar.feature.model.IFeatureModel;
+import de.featjar.feature.model.IFeatureTree;
+import de.featjar.formula.structure.IFormula;
+import de.featjar.formula.structure.connective.Implies;
+import de.featjar.formula.structure.connective.Not;
+import de.featjar.formula.structure.predicate.Literal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IncrementalFormulaTranslatorTest {
+
+    private IFeatureModel featureModel;
+    private IFeatureTree rootTree;
+    private IncrementalFormulaTranslator translator;
+
+    @BeforeEach
+    public void createFeatureModel() {
+        featureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+        rootTree = featureModel.mutate().addFeatureTreeRoot(featureModel.mutate().addFeature("root"));
+        rootTree.mutate().makeMandatory();
+        for (int i = 0; i < 10; i++) {
+            IFeatureTree tree = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("A" + i));
+            for (int j = 0; j < 10; j++) {
+                tree.mutate().addFeatureBelow(featureModel.mutate().addFeature("A" + i + "_" + j));
+            }
+        }
+        translator = new IncrementalFormulaTranslator(featureModel);
+    }
+
+    @Test
+    void initialTranslation() {
+        assertTranslation();
+        assertEquals(111, translator.getTranslatedNodeCount());
+
+        assertTranslation();
+        assertEquals(0, translator.getTranslatedNodeCount());
+    }
+
+    @Test
+    void unchangedModel() {
+        IFormula formula = translator.getFormula().get();
+        assertSame(formula, translator.getFormula().get());
+        assertFalse(translator.isTranslatedCompletely());
+    }
+
+    @Test
+    void changeGroup() {
+        assertTranslation();
+
+        IFeatureTree tree = rootTree.getChildren().get(3);
+        tree.mutate().toAlternativeGroup();
+        translator.invalidate(tree);
+
+        assertTranslation();
+        assertEquals(12, translator.getTranslatedNodeCount());
+    }
+
+    @Test
+    void addAndRemoveFeature() {
+        assertTranslation();
+
+        IFeatureTree parentTree = rootTree.getChildren().get(5);
+        IFeatureTree tree = parentTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("B"));
+        tree.mutate().makeMandatory();
+        translator.invalidate(tree);
+        assertTranslation();
+        assertEquals(2, translator.getTranslatedNodeCount());
+
+        IFeatureTree childTree = parentTree.getChildren().get(0);
+        translator.invalidate(childTree);
+        childTree.mutate().removeFromTree();
+        assertTranslation();
+        assertEquals(1, translator.getTranslatedNodeCount());
+    }
+
+    @Test
+    void changeConstraints() {
+        IConstraint constraint = featureModel.mutate().addConstraint(new Implies(new Literal("A0"), new Literal("A1")));
+        assertTranslation();
+
+        constraint.mutate().setFormula(new Not(new Literal("A2")));
+        translator.invalidate(constraint);
+        assertTranslation();
+        assertEquals(0, translator.getTranslatedNodeCount());
+
+        featureModel.mutate().removeConstraint(constraint);
+        assertTranslation();
+    }
+
+    @Test
+    void cardinalityFeature() {
+        assertTranslation();
+
+        IFeatureTree tree = rootTree.getChildren().get(0);
+        tree.mutate().setFeatureCardinality(Range.of(0, 2));
+        translator.invalidate(tree);
+        assertTranslation();
+        assertTrue(translator.isTranslatedCompletely());
+    }
+
+    @Test
+    void listener() {
+        featureModel.mutate().addListener(translator);
+        assertTranslation();
+
+        IFeatureTree tree = rootTree.getChildren().get(7);
+        tree.mutate().toOrGroup();
+        tree.getChildren().get(2).mutate().makeMandatory();
+        assertTranslation();
+        assertEquals(12, translator.getTranslatedNodeCount());
+
+        tree.getChildren().get(4).mutate().removeFromTree();
+        tree.getFeature().mutate().setName("renamed");
+        IConstraint constraint = featureModel.mutate().addConstraint(new Not(new Literal("renamed")));
+        assertTranslation();
+
+        constraint.mutate().setFormula(new Literal("renamed"));
+        assertTranslation();
+    }
+
+    @Test
+    void moveSubtree() {
+        featureModel.mutate().addListener(translator);
+        assertTranslation();
+
+        IFeatureTree tree = rootTree.getChildren().get(2);
+        IFeatureTree newParentTree = rootTree.getChildren().get(6);
+        rootTree.mutate().removeChild(tree);
+        newParentTree.mutate().addChild(0, tree);
+        assertTranslation();
+        assertTrue(translator.getTranslatedNodeCount() < 30);
+
+        tree.mutate().addFeatureAbove(featureModel.mutate().addFeature("above"));
+        assertTranslation();
+    }
+
+    @Test
+    void unreportedChanges() {
+        assertTranslation();
+
+        rootTree.getChildren().get(1).mutate().removeFromTree();
+        rootTree.getChildren().get(4).mutate().toOrGroup();
+        assertTranslation();
+        assertEquals(110, translator.getTranslatedNodeCount());
+    }
+
+    private void assertTranslation() {
+        IFormula expected = Computations.of(featureModel).map(ComputeFormula::new).compute();
+        assertEquals(expected, translator.getFormula().get());
+    }
+}